@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.HashtagEntity;
+import com.twitter.sdk.android.core.models.MediaEntity;
+import com.twitter.sdk.android.core.models.MentionEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+import com.twitter.sdk.android.core.models.TweetEntities;
+import com.twitter.sdk.android.core.models.UrlEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tweets and recorded API responses shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+    static final String PLAIN = "plain";
+    static final String ENTITY_HEAVY = "entities";
+    static final String EMOJI_HEAVY = "emoji";
+
+    static final String CREATED_AT = "Wed Jun 06 20:07:10 +0000 2012";
+
+    private static final String PLAIN_TEXT = "just setting up my twttr, and then a few more words "
+            + "so the text is about as long as an average Tweet";
+    private static final String ENTITY_TEXT = "RT &lt;3 Check https://t.co/aaaaaaaaaa &amp; "
+            + "https://t.co/bbbbbbbbbb via @twitterapi #android &quot;fast&quot; &gt;&gt; "
+            + "https://t.co/cccccccccc https://t.co/dddddddddd";
+    private static final String EMOJI_TEXT = "\uD83D\uDE00\uD83D\uDE03\uD83D\uDE04 launch day "
+            + "\uD83D\uDE80\uD83D\uDE80 https://t.co/aaaaaaaaaa \u2764\uFE0F\uD83D\uDC99 "
+            + "@twitterapi \uD83C\uDF89\uD83C\uDF89\uD83C\uDF89 #android "
+            + "\uD83D\uDC4D\uD83C\uDFFD https://t.co/bbbbbbbbbb";
+
+    private BenchmarkFixtures() {}
+
+    static Tweet tweet(String kind) {
+        if (ENTITY_HEAVY.equals(kind)) {
+            return createTweet(1L, ENTITY_TEXT, new TweetEntities(
+                    urls(ENTITY_TEXT, "https://t.co/aaaaaaaaaa", "https://t.co/bbbbbbbbbb"),
+                    mentions(ENTITY_TEXT, "@twitterapi"),
+                    media(ENTITY_TEXT, "https://t.co/cccccccccc", "https://t.co/dddddddddd"),
+                    hashtags(ENTITY_TEXT, "#android")));
+        } else if (EMOJI_HEAVY.equals(kind)) {
+            return createTweet(2L, EMOJI_TEXT, new TweetEntities(
+                    urls(EMOJI_TEXT, "https://t.co/aaaaaaaaaa", "https://t.co/bbbbbbbbbb"),
+                    mentions(EMOJI_TEXT, "@twitterapi"),
+                    null,
+                    hashtags(EMOJI_TEXT, "#android")));
+        }
+        return createTweet(3L, PLAIN_TEXT, new TweetEntities(null, null, null, null));
+    }
+
+    /**
+     * @return count Tweets with descending ids, as returned by the timeline endpoints
+     */
+    static List<Tweet> tweets(int count) {
+        final List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            tweets.add(createTweet(i, PLAIN_TEXT, null));
+        }
+        return tweets;
+    }
+
+    /**
+     * @return the ids of the given Tweets in shuffled order
+     */
+    static List<Long> shuffledIds(List<Tweet> tweets) {
+        final List<Long> ids = new ArrayList<>(tweets.size());
+        for (Tweet tweet : tweets) {
+            ids.add(tweet.id);
+        }
+        Collections.shuffle(ids);
+        return ids;
+    }
+
+    static String readResource(String name) throws IOException {
+        final InputStream stream = BenchmarkFixtures.class.getClassLoader()
+                .getResourceAsStream(name);
+        if (stream == null) {
+            throw new IOException("Missing fixture " + name);
+        }
+        final Reader reader = new InputStreamReader(stream, "UTF-8");
+        try {
+            final StringBuilder builder = new StringBuilder();
+            final char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, read);
+            }
+            return builder.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Tweet createTweet(long id, String text, TweetEntities entities) {
+        return new TweetBuilder()
+                .setId(id)
+                .setText(text)
+                .setCreatedAt(CREATED_AT)
+                .setEntities(entities)
+                .build();
+    }
+
+    // entity indices are code point offsets into the escaped text, as sent by the API
+    private static int start(String text, String entityText) {
+        return text.codePointCount(0, text.indexOf(entityText));
+    }
+
+    private static int end(String text, String entityText) {
+        return start(text, entityText) + entityText.length();
+    }
+
+    private static List<UrlEntity> urls(String text, String... urls) {
+        final List<UrlEntity> entities = new ArrayList<>();
+        for (String url : urls) {
+            entities.add(new UrlEntity(url, "https://dev.twitter.com/overview/api",
+                    "dev.twitter.com/overview/api", start(text, url), end(text, url)));
+        }
+        return entities;
+    }
+
+    private static List<MediaEntity> media(String text, String... urls) {
+        final List<MediaEntity> entities = new ArrayList<>();
+        for (String url : urls) {
+            entities.add(new MediaEntity(url, "https://twitter.com/twitterapi/status/1/photo/1",
+                    "pic.twitter.com/photo", start(text, url), end(text, url), 1L, "1",
+                    "http://pbs.twimg.com/media/photo.jpg", "https://pbs.twimg.com/media/photo.jpg",
+                    null, 0L, "0", "photo"));
+        }
+        return entities;
+    }
+
+    private static List<MentionEntity> mentions(String text, String... mentions) {
+        final List<MentionEntity> entities = new ArrayList<>();
+        for (String mention : mentions) {
+            entities.add(new MentionEntity(1L, "1", "Twitter API", mention.substring(1),
+                    start(text, mention), end(text, mention)));
+        }
+        return entities;
+    }
+
+    private static List<HashtagEntity> hashtags(String text, String... hashtags) {
+        final List<HashtagEntity> entities = new ArrayList<>();
+        for (String hashtag : hashtags) {
+            entities.add(new HashtagEntity(hashtag.substring(1), start(text, hashtag),
+                    end(text, hashtag)));
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.twitter.sdk.android.core.internal.TwitterCollection;
+import com.twitter.sdk.android.core.models.SafeListAdapter;
+import com.twitter.sdk.android.core.models.SafeMapAdapter;
+import com.twitter.sdk.android.core.models.Search;
+import com.twitter.sdk.android.core.models.Tweet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializes recorded API responses with the Gson configuration used by TwitterApiClient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonBenchmark {
+    // search/tweets returns 15 Tweets by default
+    private static final int SEARCH_RESULT_COUNT = 15;
+
+    Gson gson;
+    String tweetJson;
+    String searchJson;
+    String collectionJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SafeListAdapter())
+                .registerTypeAdapterFactory(new SafeMapAdapter())
+                .create();
+        tweetJson = BenchmarkFixtures.readResource("model_tweet.json");
+        collectionJson = BenchmarkFixtures.readResource("model_twitter_collection.json");
+
+        final StringBuilder search = new StringBuilder("{\"statuses\":[");
+        for (int i = 0; i < SEARCH_RESULT_COUNT; i++) {
+            if (i > 0) {
+                search.append(',');
+            }
+            search.append(tweetJson);
+        }
+        search.append("],\"search_metadata\":{\"count\":").append(SEARCH_RESULT_COUNT)
+                .append("}}");
+        searchJson = search.toString();
+    }
+
+    @Benchmark
+    public Tweet tweet() {
+        return gson.fromJson(tweetJson, Tweet.class);
+    }
+
+    @Benchmark
+    public Search search() {
+        return gson.fromJson(searchJson, Search.class);
+    }
+
+    @Benchmark
+    public TwitterCollection twitterCollection() {
+        return gson.fromJson(collectionJson, TwitterCollection.class);
+    }
+}
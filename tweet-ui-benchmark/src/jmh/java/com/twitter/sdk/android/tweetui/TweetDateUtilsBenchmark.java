@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.res.Resources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TweetDateUtilsBenchmark {
+    private static final long MINUTE_MILLIS = 60L * 1000L;
+    private static final long DAY_MILLIS = 24L * 60L * MINUTE_MILLIS;
+
+    Resources resources;
+    long createdAt;
+
+    @Setup
+    public void setUp() {
+        // only string lookups are needed, the formatting itself runs for real
+        resources = mock(Resources.class);
+        when(resources.getString(anyInt())).thenReturn("MM/dd/yy");
+        when(resources.getQuantityString(anyInt(), anyInt(), anyInt())).thenReturn("5m");
+        createdAt = TweetDateUtils.apiTimeToLong(BenchmarkFixtures.CREATED_AT);
+    }
+
+    @Benchmark
+    public long apiTimeToLong() {
+        return TweetDateUtils.apiTimeToLong(BenchmarkFixtures.CREATED_AT);
+    }
+
+    @Benchmark
+    public String getRelativeTimeString_minutes() {
+        return TweetDateUtils.getRelativeTimeString(resources, createdAt + 5 * MINUTE_MILLIS,
+                createdAt);
+    }
+
+    @Benchmark
+    public String getRelativeTimeString_date() {
+        return TweetDateUtils.getRelativeTimeString(resources, createdAt + 30 * DAY_MILLIS,
+                createdAt);
+    }
+}
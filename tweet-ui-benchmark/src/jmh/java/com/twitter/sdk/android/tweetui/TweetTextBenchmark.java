@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.util.HtmlEntities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TweetTextBenchmark {
+    @Param({BenchmarkFixtures.PLAIN, BenchmarkFixtures.ENTITY_HEAVY,
+            BenchmarkFixtures.EMOJI_HEAVY})
+    String kind;
+
+    Tweet tweet;
+    FormattedTweetText formattedTweetText;
+
+    @Setup
+    public void setUp() {
+        tweet = BenchmarkFixtures.tweet(kind);
+        formattedTweetText = TweetTextUtils.formatTweetText(tweet);
+    }
+
+    @Benchmark
+    public FormattedTweetText formatTweetText() {
+        return TweetTextUtils.formatTweetText(tweet);
+    }
+
+    @Benchmark
+    public HtmlEntities.Unescaped unescape() {
+        return HtmlEntities.HTML40.unescape(tweet.text);
+    }
+
+    @Benchmark
+    public List<FormattedUrlEntity> mergeAndSortEntities() {
+        return TweetTextLinkifier.mergeAndSortEntities(formattedTweetText.urlEntities,
+                formattedTweetText.mediaEntities);
+    }
+}
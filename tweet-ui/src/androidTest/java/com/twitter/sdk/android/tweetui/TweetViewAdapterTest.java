@@ -84,6 +84,14 @@ public class TweetViewAdapterTest extends TweetUiTestCase {
         assertEquals(0, adapter.getCount());
     }
 
+    public void testAdapter_getItemId() {
+        final TweetViewAdapter<CompactTweetView> adapter = new TweetViewAdapter<>(getContext(),
+                tweets);
+        for (int i = 0; i < TWEET_COUNT; i++) {
+            assertEquals(TWEET_IDS[i], adapter.getItemId(i));
+        }
+    }
+
     public void testAdapter_getTweets() {
         final TweetViewAdapter<CompactTweetView> adapter = new TweetViewAdapter<>(getContext(),
                 tweets);
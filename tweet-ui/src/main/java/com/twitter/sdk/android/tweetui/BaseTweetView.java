@@ -54,7 +54,7 @@ import java.util.Date;
 @SuppressWarnings({"TooManyMethods", "TooManyFields"})
 public abstract class BaseTweetView extends LinearLayout {
     private static final String TAG = TweetUi.LOGTAG;
-    private static final int DEFAULT_STYLE = R.style.tw__TweetLightStyle;
+    static final int DEFAULT_STYLE = R.style.tw__TweetLightStyle;
     private static final String EMPTY_STRING = "";
     static final double DEFAULT_ASPECT_RATIO = 16.0 / 9.0;
 
@@ -618,10 +618,9 @@ public abstract class BaseTweetView extends LinearLayout {
      */
     private void setTimestamp(Tweet displayTweet) {
         final String formattedTimestamp;
-        if (displayTweet != null && displayTweet.createdAt != null &&
-                TweetDateUtils.isValidTimestamp(displayTweet.createdAt)) {
-            final Long createdAtTimestamp
-                    = TweetDateUtils.apiTimeToLong(displayTweet.createdAt);
+        final long createdAtTimestamp = dependencyProvider.getTweetUi().getTweetRepository()
+                .getCreatedAtMillis(displayTweet);
+        if (createdAtTimestamp != TweetDateUtils.INVALID_DATE) {
             final String timestamp = TweetDateUtils.getRelativeTimeString(getResources(),
                     System.currentTimeMillis(),
                     createdAtTimestamp);
@@ -747,18 +746,17 @@ public abstract class BaseTweetView extends LinearLayout {
 
     /**
      * @param displayTweet The unformatted Tweet
-     * @return The linkified text with display url's subbed for t.co links
+     * @return The linkified text with display url's subbed for t.co links, shared through the
+     * TweetRepository cache
      */
     protected CharSequence getLinkifiedText(Tweet displayTweet) {
-        final FormattedTweetText formattedText = dependencyProvider.getTweetUi()
-                .getTweetRepository().formatTweetText(displayTweet);
-
-        if (formattedText == null) return null;
+        if (displayTweet == null) return null;
 
         final boolean stripPhotoEntity = TweetTextUtils.hasPhotoUrl(displayTweet.entities);
 
-        return TweetTextLinkifier.linkifyUrls(formattedText, getLinkClickListener(),
-                stripPhotoEntity, actionColor);
+        // cached text has no listener attached, link clicks are handled by getLinkClickListener
+        return dependencyProvider.getTweetUi().getTweetRepository()
+                .linkifyTweetText(displayTweet, stripPhotoEntity, actionColor);
     }
 
     void setContentDescription(Tweet displayTweet) {
@@ -772,7 +770,8 @@ public abstract class BaseTweetView extends LinearLayout {
         String tweetText = null;
         if (formattedTweetText != null) tweetText = formattedTweetText.text;
 
-        final long createdAt = TweetDateUtils.apiTimeToLong(displayTweet.createdAt);
+        final long createdAt = dependencyProvider.getTweetUi().getTweetRepository()
+                .getCreatedAtMillis(displayTweet);
         String timestamp = null;
         if (createdAt != TweetDateUtils.INVALID_DATE) {
             timestamp = DateFormat.getDateInstance().format(new Date(createdAt));
@@ -783,6 +782,24 @@ public abstract class BaseTweetView extends LinearLayout {
                 Utils.stringOrEmpty(timestamp)));
     }
 
+    /**
+     * Resolves the link color used by Tweet views created with the given style, so text can be
+     * linkified ahead of time for views which have not been created yet.
+     * @param context the context the views will be created with
+     * @param styleResId resource id of the Tweet view style
+     * @return the action color of the style
+     */
+    static int getActionColor(Context context, int styleResId) {
+        final TypedArray a = context.getTheme().obtainStyledAttributes(styleResId,
+                R.styleable.tw__TweetView);
+        try {
+            return a.getColor(R.styleable.tw__TweetView_tw__action_color,
+                    context.getResources().getColor(R.color.tw__tweet_action_color));
+        } finally {
+            a.recycle();
+        }
+    }
+
     protected LinkClickListener getLinkClickListener() {
         if (linkClickListener == null) {
             linkClickListener = new LinkClickListener() {
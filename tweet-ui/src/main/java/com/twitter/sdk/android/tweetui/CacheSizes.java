@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.text.Spanned;
+
+import com.twitter.sdk.android.core.models.HashtagEntity;
+import com.twitter.sdk.android.core.models.MediaEntity;
+import com.twitter.sdk.android.core.models.MentionEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetEntities;
+import com.twitter.sdk.android.core.models.UrlEntity;
+import com.twitter.sdk.android.core.models.User;
+import com.twitter.sdk.android.core.models.UserEntities;
+
+import java.util.List;
+
+/**
+ * Rough estimates of the heap retained by cached models, used to size the byte budgeted memory
+ * caches. Estimates assume a 32-bit VM and are intentionally approximate, they only need to be
+ * proportional to real usage.
+ */
+final class CacheSizes {
+    static final int OBJECT_OVERHEAD = 16;
+    static final int REFERENCE = 4;
+    // String object plus its backing char array header
+    static final int STRING_OVERHEAD = 40;
+    // ArrayList object plus its backing array header
+    static final int LIST_OVERHEAD = 40;
+    // Integer objects in entity indices lists
+    static final int BOXED_INTEGER = 16;
+
+    static final int TWEET_FIELDS = OBJECT_OVERHEAD + 30 * 8;
+    static final int USER_FIELDS = OBJECT_OVERHEAD + 40 * 8;
+    static final int ENTITY_FIELDS = OBJECT_OVERHEAD + 8 * 8;
+    // span object plus the start, end, and flags bookkeeping kept by the spanned text
+    static final int SPAN = OBJECT_OVERHEAD + 3 * REFERENCE + 4 * REFERENCE;
+    // Places and coordinates are rarely rendered, a flat estimate is close enough
+    static final int PLACE = 512;
+    static final int COORDINATES = 64;
+
+    private CacheSizes() {}
+
+    static int sizeOf(String string) {
+        return string == null ? 0 : STRING_OVERHEAD + 2 * string.length();
+    }
+
+    static int sizeOf(CharSequence text) {
+        if (text == null) return 0;
+
+        int size = STRING_OVERHEAD + 2 * text.length();
+        if (text instanceof Spanned) {
+            final Spanned spanned = (Spanned) text;
+            size += SPAN * spanned.getSpans(0, spanned.length(), Object.class).length;
+        }
+        return size;
+    }
+
+    static int sizeOf(Tweet tweet) {
+        if (tweet == null) return 0;
+
+        int size = TWEET_FIELDS;
+        size += sizeOf(tweet.createdAt);
+        size += sizeOf(tweet.filterLevel);
+        size += sizeOf(tweet.idStr);
+        size += sizeOf(tweet.inReplyToScreenName);
+        size += sizeOf(tweet.inReplyToStatusIdStr);
+        size += sizeOf(tweet.inReplyToUserIdStr);
+        size += sizeOf(tweet.lang);
+        size += sizeOf(tweet.source);
+        size += sizeOf(tweet.text);
+        size += sizeOf(tweet.withheldScope);
+        size += sizeOfStrings(tweet.withheldInCountries);
+        size += sizeOf(tweet.entities);
+        size += sizeOf(tweet.user);
+        size += sizeOf(tweet.retweetedStatus);
+        size += tweet.place == null ? 0 : PLACE;
+        size += tweet.coordinates == null ? 0 : COORDINATES;
+        return size;
+    }
+
+    static int sizeOf(User user) {
+        if (user == null) return 0;
+
+        int size = USER_FIELDS;
+        size += sizeOf(user.createdAt);
+        size += sizeOf(user.description);
+        size += sizeOf(user.email);
+        size += sizeOf(user.idStr);
+        size += sizeOf(user.lang);
+        size += sizeOf(user.location);
+        size += sizeOf(user.name);
+        size += sizeOf(user.profileBackgroundColor);
+        size += sizeOf(user.profileBackgroundImageUrl);
+        size += sizeOf(user.profileBackgroundImageUrlHttps);
+        size += sizeOf(user.profileBannerUrl);
+        size += sizeOf(user.profileImageUrl);
+        size += sizeOf(user.profileImageUrlHttps);
+        size += sizeOf(user.profileLinkColor);
+        size += sizeOf(user.profileSidebarBorderColor);
+        size += sizeOf(user.profileSidebarFillColor);
+        size += sizeOf(user.profileTextColor);
+        size += sizeOf(user.screenName);
+        size += sizeOf(user.timeZone);
+        size += sizeOf(user.url);
+        size += sizeOf(user.withheldInCountries);
+        size += sizeOf(user.withheldScope);
+        size += sizeOf(user.status);
+        if (user.entities != null) {
+            size += OBJECT_OVERHEAD + 2 * REFERENCE;
+            size += sizeOf(user.entities.url);
+            size += sizeOf(user.entities.description);
+        }
+        return size;
+    }
+
+    static int sizeOf(TweetEntities entities) {
+        if (entities == null) return 0;
+
+        int size = OBJECT_OVERHEAD + 4 * REFERENCE;
+        if (entities.urls != null) {
+            size += LIST_OVERHEAD + REFERENCE * entities.urls.size();
+            for (UrlEntity entity : entities.urls) {
+                size += sizeOf(entity);
+            }
+        }
+        if (entities.media != null) {
+            size += LIST_OVERHEAD + REFERENCE * entities.media.size();
+            for (MediaEntity entity : entities.media) {
+                size += sizeOf(entity);
+            }
+        }
+        if (entities.userMentions != null) {
+            size += LIST_OVERHEAD + REFERENCE * entities.userMentions.size();
+            for (MentionEntity entity : entities.userMentions) {
+                size += ENTITY_FIELDS + sizeOfIndices(entity.indices)
+                        + sizeOf(entity.idStr) + sizeOf(entity.name) + sizeOf(entity.screenName);
+            }
+        }
+        if (entities.hashtags != null) {
+            size += LIST_OVERHEAD + REFERENCE * entities.hashtags.size();
+            for (HashtagEntity entity : entities.hashtags) {
+                size += ENTITY_FIELDS + sizeOfIndices(entity.indices) + sizeOf(entity.text);
+            }
+        }
+        return size;
+    }
+
+    static int sizeOf(UrlEntity entity) {
+        if (entity == null) return 0;
+
+        int size = ENTITY_FIELDS + sizeOfIndices(entity.indices);
+        size += sizeOf(entity.url) + sizeOf(entity.expandedUrl) + sizeOf(entity.displayUrl);
+        if (entity instanceof MediaEntity) {
+            final MediaEntity media = (MediaEntity) entity;
+            size += sizeOf(media.idStr) + sizeOf(media.mediaUrl) + sizeOf(media.mediaUrlHttps)
+                    + sizeOf(media.sourceStatusIdStr) + sizeOf(media.type);
+            // sizes object and its four size entries
+            size += 5 * (OBJECT_OVERHEAD + 3 * REFERENCE);
+        }
+        return size;
+    }
+
+    static int sizeOf(FormattedTweetText formatted) {
+        if (formatted == null) return 0;
+
+        int size = OBJECT_OVERHEAD + 3 * REFERENCE;
+        size += sizeOf(formatted.text);
+        size += LIST_OVERHEAD + REFERENCE * formatted.urlEntities.size();
+        for (FormattedUrlEntity entity : formatted.urlEntities) {
+            size += OBJECT_OVERHEAD + 4 * REFERENCE;
+            size += sizeOf(entity.displayUrl) + sizeOf(entity.url);
+        }
+        size += LIST_OVERHEAD + REFERENCE * formatted.mediaEntities.size();
+        for (FormattedMediaEntity entity : formatted.mediaEntities) {
+            size += OBJECT_OVERHEAD + 6 * REFERENCE;
+            size += sizeOf(entity.displayUrl) + sizeOf(entity.url) + sizeOf(entity.type)
+                    + sizeOf(entity.mediaUrlHttps);
+        }
+        return size;
+    }
+
+    private static int sizeOf(UserEntities.UrlEntities urlEntities) {
+        if (urlEntities == null || urlEntities.urls == null) return 0;
+
+        int size = OBJECT_OVERHEAD + LIST_OVERHEAD + REFERENCE * urlEntities.urls.size();
+        for (UrlEntity entity : urlEntities.urls) {
+            size += sizeOf(entity);
+        }
+        return size;
+    }
+
+    private static int sizeOfIndices(List<Integer> indices) {
+        return indices == null ? 0 : LIST_OVERHEAD + (REFERENCE + BOXED_INTEGER) * indices.size();
+    }
+
+    private static int sizeOfStrings(List<String> strings) {
+        if (strings == null) return 0;
+
+        int size = LIST_OVERHEAD + REFERENCE * strings.size();
+        for (String string : strings) {
+            size += sizeOf(string);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MergedTimeline provides a timeline of the Tweets of several timelines, newest first by Tweet
+ * id. Each request is sent to every timeline at once and the received pages are merged, a Tweet
+ * in several timelines is included once.
+ *
+ * Timelines reach back at different rates, so a page of older Tweets only goes down to the
+ * oldest Tweet which every timeline with more Tweets has reached. Tweets received below it are
+ * held and returned by the following previous request instead of being requested again.
+ *
+ * The position of each timeline is kept for the positions handed out in merged TimelineCursors.
+ * A position which was not handed out, or is no longer kept, is passed to every timeline as is,
+ * which suits timelines positioned by Tweet id.
+ */
+public class MergedTimeline implements Timeline<Tweet> {
+    // number of handed out positions whose timeline positions are kept, for each direction
+    static final int MAX_CURSORS = 32;
+
+    final List<Timeline<Tweet>> timelines;
+    // positions of each timeline for next requests, by the merged maxPosition handed out
+    final Map<Long, Long[]> nextPositions = new CursorMap<>();
+    // positions and held Tweets of each timeline for previous requests, by the merged
+    // minPosition handed out
+    final Map<Long, PreviousState> previousStates = new CursorMap<>();
+
+    MergedTimeline(List<Timeline<Tweet>> timelines) {
+        this.timelines = timelines;
+    }
+
+    /**
+     * Loads Tweets newer than the minPosition from every timeline. If minPosition is null, loads
+     * the newest Tweets.
+     * @param minPosition minimum position of the Tweets to load (exclusive).
+     * @param cb callback.
+     */
+    @Override
+    public void next(Long minPosition, final Callback<TimelineResult<Tweet>> cb) {
+        if (minPosition == null) {
+            // the newest Tweets may reach back unevenly, they are merged like older Tweets
+            loadPrevious(new PreviousState(timelines.size()), cb);
+            return;
+        }
+
+        Long[] positions = nextPositions.get(minPosition);
+        if (positions == null) {
+            positions = fill(new Long[timelines.size()], minPosition);
+        }
+        final Long[] requestedPositions = positions;
+        final FanOut fanOut = new FanOut(cb) {
+            @Override
+            void onComplete(TimelineResult<Tweet>[] pages) {
+                final List<Tweet> tweets = new ArrayList<>();
+                for (TimelineResult<Tweet> page : pages) {
+                    tweets.addAll(page.items);
+                }
+                deliver(mergeNewest(tweets), maxPositions(requestedPositions, pages), cb);
+            }
+        };
+        for (int i = 0; i < timelines.size(); i++) {
+            timelines.get(i).next(positions[i], fanOut.callbackFor(i));
+        }
+        fanOut.start();
+    }
+
+    /**
+     * Loads Tweets older than the maxPosition from every timeline, starting with Tweets held
+     * from the previous request.
+     * @param maxPosition maximum position of the Tweets to load (exclusive).
+     * @param cb callback.
+     */
+    @Override
+    public void previous(Long maxPosition, Callback<TimelineResult<Tweet>> cb) {
+        PreviousState state = previousStates.get(maxPosition);
+        if (state == null) {
+            state = new PreviousState(timelines.size());
+            fill(state.positions, maxPosition);
+        }
+        loadPrevious(state, cb);
+    }
+
+    /**
+     * Requests older Tweets from each timeline which has no held Tweets and has not run out,
+     * then merges them with the held Tweets. A timeline without a position is requested for its
+     * newest Tweets.
+     */
+    void loadPrevious(final PreviousState state, final Callback<TimelineResult<Tweet>> cb) {
+        final FanOut fanOut = new FanOut(cb) {
+            @Override
+            void onComplete(TimelineResult<Tweet>[] pages) {
+                final PreviousState nextState = new PreviousState(timelines.size());
+                final List<Tweet> tweets = mergeOlder(state, pages, nextState);
+                if (!tweets.isEmpty()) {
+                    previousStates.put(tweets.get(tweets.size() - 1).id, nextState);
+                }
+                final Long[] positions = state.isNewest()
+                        ? maxPositions(new Long[timelines.size()], pages) : null;
+                deliver(tweets, positions, cb);
+            }
+        };
+        for (int i = 0; i < timelines.size(); i++) {
+            if (state.exhausted[i] || !state.held.get(i).isEmpty()) continue;
+
+            if (state.positions[i] == null) {
+                timelines.get(i).next(null, fanOut.callbackFor(i));
+            } else {
+                timelines.get(i).previous(state.positions[i], fanOut.callbackFor(i));
+            }
+        }
+        fanOut.start();
+    }
+
+    /**
+     * Merges the held Tweets and the received pages down to the highest of the oldest Tweets of
+     * each timeline, and fills nextState with the Tweets below it and the positions to continue
+     * from. A timeline which returns no Tweets has run out.
+     * @param pages received pages by timeline, null for timelines which were not requested
+     */
+    List<Tweet> mergeOlder(PreviousState state, TimelineResult<Tweet>[] pages,
+            PreviousState nextState) {
+        final List<List<Tweet>> candidates = new ArrayList<>(timelines.size());
+        Long boundary = null;
+        for (int i = 0; i < timelines.size(); i++) {
+            final List<Tweet> tweets = new ArrayList<>(state.held.get(i));
+            nextState.positions[i] = state.positions[i];
+            nextState.exhausted[i] = state.exhausted[i];
+            if (pages[i] != null) {
+                if (pages[i].items.isEmpty()) {
+                    nextState.exhausted[i] = true;
+                } else {
+                    tweets.addAll(pages[i].items);
+                    nextState.positions[i] = pages[i].timelineCursor.minPosition;
+                }
+            }
+            Collections.sort(tweets, NEWEST_FIRST);
+            candidates.add(tweets);
+            if (!tweets.isEmpty()) {
+                final long oldestId = tweets.get(tweets.size() - 1).id;
+                boundary = boundary == null ? oldestId : Math.max(boundary, oldestId);
+            }
+        }
+
+        final List<Tweet> merged = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            for (Tweet tweet : candidates.get(i)) {
+                if (tweet.id >= boundary) {
+                    merged.add(tweet);
+                } else {
+                    nextState.held.get(i).add(tweet);
+                }
+            }
+        }
+        return mergeNewest(merged);
+    }
+
+    /**
+     * Returns the Tweets newest first without repeated ids.
+     */
+    static List<Tweet> mergeNewest(List<Tweet> tweets) {
+        Collections.sort(tweets, NEWEST_FIRST);
+        final Set<Long> ids = new HashSet<>();
+        final List<Tweet> merged = new ArrayList<>(tweets.size());
+        for (Tweet tweet : tweets) {
+            if (ids.add(tweet.id)) {
+                merged.add(tweet);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Updates the positions with the maxPosition of each received page which has Tweets.
+     */
+    static Long[] maxPositions(Long[] positions, TimelineResult<Tweet>[] pages) {
+        final Long[] updated = positions.clone();
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i] != null && !pages[i].items.isEmpty()) {
+                updated[i] = pages[i].timelineCursor.maxPosition;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Keeps the next positions for the newest merged Tweet and calls through to the callback.
+     */
+    void deliver(List<Tweet> tweets, Long[] positions, Callback<TimelineResult<Tweet>> cb) {
+        if (positions != null && !tweets.isEmpty()) {
+            nextPositions.put(tweets.get(0).id, positions);
+        }
+        cb.success(new TimelineResult<>(new TimelineCursor(tweets), tweets), null);
+    }
+
+    private static Long[] fill(Long[] positions, Long position) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    static final Comparator<Tweet> NEWEST_FIRST = new Comparator<Tweet>() {
+        @Override
+        public int compare(Tweet lhs, Tweet rhs) {
+            return lhs.id < rhs.id ? 1 : (lhs.id == rhs.id ? 0 : -1);
+        }
+    };
+
+    /**
+     * Positions, held Tweets, and whether each timeline has run out, for a previous request.
+     */
+    static class PreviousState {
+        final Long[] positions;
+        final boolean[] exhausted;
+        final List<List<Tweet>> held;
+
+        PreviousState(int count) {
+            positions = new Long[count];
+            exhausted = new boolean[count];
+            held = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                held.add(new ArrayList<Tweet>());
+            }
+        }
+
+        /**
+         * Returns true if no timeline has a position yet, so the newest Tweets are requested.
+         */
+        boolean isNewest() {
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] != null || exhausted[i] || !held.get(i).isEmpty()) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Collects the pages requested from several timelines and completes once all of them have
+     * been received, which may happen before start returns. If any request fails, the callback
+     * fails with the first failure instead, since a missing page could leave Tweets out.
+     */
+    abstract class FanOut {
+        final Callback<TimelineResult<Tweet>> cb;
+        // received pages by timeline, null for timelines which were not requested
+        final TimelineResult<Tweet>[] pages;
+        int pending;
+        boolean started;
+        TwitterException failure;
+
+        @SuppressWarnings("unchecked")
+        FanOut(Callback<TimelineResult<Tweet>> cb) {
+            this.cb = cb;
+            pages = new TimelineResult[timelines.size()];
+        }
+
+        abstract void onComplete(TimelineResult<Tweet>[] pages);
+
+        Callback<TimelineResult<Tweet>> callbackFor(final int index) {
+            pending++;
+            return new Callback<TimelineResult<Tweet>>() {
+                @Override
+                public void success(Result<TimelineResult<Tweet>> result) {
+                    pages[index] = result.data;
+                    received();
+                }
+
+                @Override
+                public void failure(TwitterException exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    }
+                    received();
+                }
+            };
+        }
+
+        /**
+         * Called once every request has been sent.
+         */
+        void start() {
+            started = true;
+            completeIfDone();
+        }
+
+        void received() {
+            pending--;
+            completeIfDone();
+        }
+
+        private void completeIfDone() {
+            if (!started || pending > 0) return;
+
+            if (failure != null) {
+                cb.failure(failure);
+            } else {
+                onComplete(pages);
+            }
+        }
+    }
+
+    /**
+     * Map which keeps the MAX_CURSORS most recently used entries.
+     */
+    static class CursorMap<V> extends LinkedHashMap<Long, V> {
+        CursorMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+            return size() > MAX_CURSORS;
+        }
+    }
+
+    /**
+     * MergedTimeline Builder.
+     */
+    public static class Builder {
+        private final List<Timeline<Tweet>> timelines = new ArrayList<>();
+
+        /**
+         * Adds a timeline to merge.
+         * @param timeline a timeline of Tweets, such as a UserTimeline or SearchTimeline.
+         * @throws java.lang.IllegalArgumentException if timeline is null
+         */
+        public Builder add(Timeline<Tweet> timeline) {
+            if (timeline == null) {
+                throw new IllegalArgumentException("Timeline must not be null");
+            }
+            timelines.add(timeline);
+            return this;
+        }
+
+        /**
+         * Builds a MergedTimeline from the Builder parameters.
+         * @return a MergedTimeline.
+         * @throws java.lang.IllegalStateException if no timeline was added.
+         */
+        public MergedTimeline build() {
+            if (timelines.isEmpty()) {
+                throw new IllegalStateException("must add at least one timeline");
+            }
+            return new MergedTimeline(new ArrayList<>(timelines));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+/**
+ * Listener for items received by a live timeline which have not been shown yet, for instance to
+ * show an "N new Tweets" bar. Called on the main thread.
+ */
+public interface NewItemsListener {
+    /**
+     * Called when the number of new items changes.
+     * @param count number of new items waiting to be shown, 0 once they have been shown
+     */
+    void onNewItems(int count);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.models.Identifiable;
+
+/**
+ * Timeline operations shared by TimelineListAdapter and TimelineRecyclerAdapter, which both pass
+ * them through to their TimelineDelegate.
+ * @param <T> the item type
+ */
+interface TimelineAdapter<T extends Identifiable> {
+    /**
+     * Loads the latest Timeline items. Loaded items which are received again are updated in place
+     * and newer items are inserted above them. If the latest items do not reach the loaded items
+     * they replace them, unless the adapter is windowed, which keeps the loaded items below the
+     * latest items with a gap between them.
+     */
+    void refresh(Callback<TimelineResult<T>> cb);
+
+    /**
+     * Sets how close to the end of the loaded items a row must be before older items are loaded.
+     * @param prefetchDistance number of rows from the last row, 0 to only load older items once
+     *                         the last row is shown.
+     * @throws java.lang.IllegalArgumentException if prefetchDistance is negative
+     */
+    void setPrefetchDistance(int prefetchDistance);
+
+    /**
+     * Starts polling for newer items on a schedule which keeps within the rate limit. Polled
+     * items are not inserted until showNewItems is called, the NewItemsListener is told how many
+     * are waiting. Polling pauses while the activity of the context is stopped and stops when
+     * it is destroyed. If the context is not an Activity, call stopLive once the timeline is no
+     * longer shown, otherwise polling only stops once every activity of the application is
+     * destroyed.
+     * @throws java.lang.IllegalStateException if TweetUi has not been initialized
+     */
+    void startLive();
+
+    /**
+     * Stops polling for newer items.
+     */
+    void stopLive();
+
+    /**
+     * Returns the number of polled items waiting to be shown.
+     */
+    int getNewItemCount();
+
+    /**
+     * Inserts the polled items waiting to be shown above the current items.
+     */
+    void showNewItems();
+
+    /**
+     * Sets the listener told how many polled items are waiting to be shown.
+     * @param listener the listener, may be null
+     */
+    void setNewItemsListener(NewItemsListener listener);
+}
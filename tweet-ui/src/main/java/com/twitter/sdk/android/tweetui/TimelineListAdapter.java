@@ -29,7 +29,8 @@ import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
  * TimelineListAdapter is a ListAdapter providing timeline items for ListViews.
  * Concrete subclasses must define a type parameter and implement getView.
  */
-abstract class TimelineListAdapter<T extends Identifiable> extends BaseAdapter {
+abstract class TimelineListAdapter<T extends Identifiable> extends BaseAdapter
+        implements TimelineAdapter<T> {
     protected final Context context;
     private final TimelineDelegate<T> delegate;
 
@@ -47,16 +48,46 @@ abstract class TimelineListAdapter<T extends Identifiable> extends BaseAdapter {
     TimelineListAdapter(Context context, TimelineDelegate<T> delegate) {
         this.context = context;
         this.delegate = delegate;
+        // show the saved snapshot, if any, until the latest items arrive
+        delegate.restoreSnapshot();
         delegate.refresh(null);
     }
 
-    /**
-     * Clears the items and loads the latest Timeline items.
-     */
+    @Override
     public void refresh(Callback<TimelineResult<T>> cb) {
         delegate.refresh(cb);
     }
 
+    @Override
+    public void setPrefetchDistance(int prefetchDistance) {
+        delegate.setPrefetchDistance(prefetchDistance);
+    }
+
+    @Override
+    public void startLive() {
+        delegate.startLive(context);
+    }
+
+    @Override
+    public void stopLive() {
+        delegate.stopLive();
+    }
+
+    @Override
+    public int getNewItemCount() {
+        return delegate.getNewItemCount();
+    }
+
+    @Override
+    public void showNewItems() {
+        delegate.showNewItems();
+    }
+
+    @Override
+    public void setNewItemsListener(NewItemsListener listener) {
+        delegate.setNewItemsListener(listener);
+    }
+
     @Override
     public int getCount() {
         return delegate.getCount();
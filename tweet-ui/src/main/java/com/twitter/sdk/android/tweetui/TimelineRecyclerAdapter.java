@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.models.Identifiable;
+import com.twitter.sdk.android.tweetui.internal.ItemRangeObserver;
+import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
+
+/**
+ * TimelineRecyclerAdapter is a RecyclerView Adapter providing timeline items for RecyclerViews.
+ * Unlike TimelineListAdapter, only the rows of inserted, removed, or changed items are rebound
+ * when the timeline changes. Concrete subclasses must define type parameters and implement
+ * onCreateViewHolder and onBindViewHolder.
+ */
+abstract class TimelineRecyclerAdapter<T extends Identifiable, VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> implements TimelineAdapter<T> {
+    protected final Context context;
+    private final TimelineDelegate<T> delegate;
+
+    /**
+     * Constructs a TimelineRecyclerAdapter for the given Timeline.
+     * @param context the context for row views.
+     * @param timeline a Timeline providing access to timeline data items.
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TimelineRecyclerAdapter(Context context, Timeline<T> timeline) {
+        this(context, new TimelineDelegate<>(timeline));
+    }
+
+    /* for testing */
+    TimelineRecyclerAdapter(Context context, TimelineDelegate<T> delegate) {
+        this.context = context;
+        this.delegate = delegate;
+        setHasStableIds(true);
+        delegate.registerItemRangeObserver(new ItemRangeObserver() {
+            @Override
+            public void onChanged() {
+                notifyDataSetChanged();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                notifyItemRangeChanged(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                notifyItemRangeInserted(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                notifyItemRangeRemoved(positionStart, itemCount);
+            }
+        });
+        // show the saved snapshot, if any, until the latest items arrive
+        delegate.restoreSnapshot();
+        delegate.refresh(null);
+    }
+
+    @Override
+    public void refresh(Callback<TimelineResult<T>> cb) {
+        delegate.refresh(cb);
+    }
+
+    @Override
+    public void setPrefetchDistance(int prefetchDistance) {
+        delegate.setPrefetchDistance(prefetchDistance);
+    }
+
+    @Override
+    public void startLive() {
+        delegate.startLive(context);
+    }
+
+    @Override
+    public void stopLive() {
+        delegate.stopLive();
+    }
+
+    @Override
+    public int getNewItemCount() {
+        return delegate.getNewItemCount();
+    }
+
+    @Override
+    public void showNewItems() {
+        delegate.showNewItems();
+    }
+
+    @Override
+    public void setNewItemsListener(NewItemsListener listener) {
+        delegate.setNewItemsListener(listener);
+    }
+
+    /**
+     * Gets the item at the given position, loading older items when the position is near the end.
+     * @param position the adapter position
+     * @return the item, may be null while an evicted item is loaded back
+     */
+    public T getItem(int position) {
+        return delegate.getItem(position);
+    }
+
+    /**
+     * Gets the item at the given position without loading anything, for use where loading would
+     * be a side effect, such as getItemViewType.
+     * @param position the adapter position
+     * @return the item, may be null if it has been evicted
+     */
+    public T peekItem(int position) {
+        return delegate.peekItem(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return delegate.getCount();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        // stable ids must be unique, which item ids are not if an item appears twice
+        return delegate.getRowId(position);
+    }
+}
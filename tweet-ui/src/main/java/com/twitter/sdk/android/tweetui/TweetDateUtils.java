@@ -27,7 +27,7 @@ import java.util.Date;
 import java.util.Locale;
 
 // Cribbed from twitter-android-internal, renamed and formatted to our standards
-// methods here should only be accessed on the main thread
+// methods here should only be accessed on the main thread, except apiTimeToLong
 final class TweetDateUtils {
     // Sat Mar 14 02:34:20 +0000 2009
     static final SimpleDateFormat DATE_TIME_RFC822
@@ -41,10 +41,13 @@ final class TweetDateUtils {
     static long apiTimeToLong(String apiTime) {
         if (apiTime == null) return INVALID_DATE;
 
-        try {
-            return DATE_TIME_RFC822.parse(apiTime).getTime();
-        } catch (ParseException e) {
-            return INVALID_DATE;
+        // parsing also happens on the executor when timeline pages are preformatted
+        synchronized (DATE_TIME_RFC822) {
+            try {
+                return DATE_TIME_RFC822.parse(apiTime).getTime();
+            } catch (ParseException e) {
+                return INVALID_DATE;
+            }
         }
     }
 
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.twitter.sdk.android.core.models.SafeListAdapter;
+import com.twitter.sdk.android.core.models.SafeMapAdapter;
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import io.fabric.sdk.android.Fabric;
+import io.fabric.sdk.android.services.common.CommonUtils;
+import io.fabric.sdk.android.services.common.CurrentTimeProvider;
+import io.fabric.sdk.android.services.common.SystemCurrentTimeProvider;
+import io.fabric.sdk.android.services.persistence.FileStore;
+
+/**
+ * Disk backed Tweet store used as the second tier behind the TweetRepository memory cache. Each
+ * Tweet is written as a json file named by its id in the kit's files directory. Entries older
+ * than the ttl are dropped on read and the oldest entries are evicted once the directory grows
+ * past the byte budget.
+ *
+ * Methods perform file IO and must not be called from the main thread.
+ */
+class TweetDiskCache {
+    private static final String TAG = TweetUi.LOGTAG;
+    static final String CACHE_DIR_NAME = "tweet_cache";
+    static final String TEMP_FILE_EXTENSION = ".tmp";
+    private static final String CHARSET = "UTF-8";
+
+    // Tweets older than a week are refetched so that counts and user details stay reasonably fresh
+    static final long DEFAULT_TTL_MILLIS = 7L * 24L * 60L * 60L * 1000L;
+    // roughly a thousand serialized Tweets
+    static final long DEFAULT_MAX_BYTES = 2L * 1024L * 1024L;
+    // trimming stops at this percentage of the byte budget so the next trim is many writes away
+    static final int TRIM_PERCENT = 90;
+
+    private final FileStore fileStore;
+    private final CurrentTimeProvider currentTimeProvider;
+    private final Gson gson;
+    private final long ttlMillis;
+    private final long maxBytes;
+
+    // lazily resolved on the first disk access to keep file IO off the calling thread
+    private File cacheDir;
+    // size of the cache directory in bytes, -1 until the directory has been scanned
+    private long currentBytes = -1L;
+
+    TweetDiskCache(FileStore fileStore) {
+        this(fileStore, new SystemCurrentTimeProvider(), DEFAULT_TTL_MILLIS, DEFAULT_MAX_BYTES);
+    }
+
+    TweetDiskCache(FileStore fileStore, CurrentTimeProvider currentTimeProvider, long ttlMillis,
+            long maxBytes) {
+        this.fileStore = fileStore;
+        this.currentTimeProvider = currentTimeProvider;
+        this.ttlMillis = ttlMillis;
+        this.maxBytes = maxBytes;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SafeListAdapter())
+                .registerTypeAdapterFactory(new SafeMapAdapter())
+                .create();
+    }
+
+    /**
+     * Reads a Tweet from disk.
+     * @param tweetId Tweet id
+     * @return the cached Tweet or null if it is missing, expired, or unreadable
+     */
+    synchronized Tweet get(long tweetId) {
+        final File dir = getCacheDir();
+        if (dir == null) return null;
+
+        final File file = new File(dir, Long.toString(tweetId));
+        if (!file.exists()) return null;
+
+        if (isExpired(file)) {
+            delete(file);
+            return null;
+        }
+
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(file), CHARSET);
+            return gson.fromJson(reader, Tweet.class);
+        } catch (IOException | JsonParseException e) {
+            Fabric.getLogger().e(TAG, "Failed to read cached Tweet " + tweetId, e);
+            delete(file);
+            return null;
+        } finally {
+            CommonUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Writes a Tweet to disk, replacing any previous entry with the same id, and evicts the oldest
+     * entries if the byte budget is exceeded.
+     * @param tweet the Tweet to store
+     */
+    synchronized void put(Tweet tweet) {
+        if (tweet == null) return;
+
+        final File dir = getCacheDir();
+        if (dir == null) return;
+
+        final File file = new File(dir, Long.toString(tweet.id));
+        final File temp = new File(dir, tweet.id + TEMP_FILE_EXTENSION);
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(temp), CHARSET);
+            gson.toJson(tweet, Tweet.class, writer);
+            writer.close();
+            writer = null;
+
+            final long previousLength = file.length();
+            // write then rename so a crash never leaves a partially written entry behind
+            if (!temp.renameTo(file)) {
+                delete(temp);
+                return;
+            }
+            currentBytes += file.length() - previousLength;
+        } catch (IOException e) {
+            Fabric.getLogger().e(TAG, "Failed to write cached Tweet " + tweet.id, e);
+            delete(temp);
+        } finally {
+            CommonUtils.closeQuietly(writer);
+        }
+
+        if (currentBytes > maxBytes) {
+            trimToSize();
+        }
+    }
+
+    /**
+     * Removes every entry from the cache directory.
+     */
+    synchronized void clear() {
+        final File dir = getCacheDir();
+        if (dir == null) return;
+
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                delete(file);
+            }
+        }
+        currentBytes = 0L;
+    }
+
+    /**
+     * Deletes expired entries, then the least recently written entries until the directory is
+     * down to TRIM_PERCENT of the byte budget.
+     */
+    void trimToSize() {
+        final File[] files = cacheDir.listFiles();
+        if (files == null) return;
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long lhsModified = lhs.lastModified();
+                final long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+
+        long bytes = 0L;
+        for (File file : files) {
+            bytes += file.length();
+        }
+
+        final long targetBytes = maxBytes * TRIM_PERCENT / 100;
+        for (File file : files) {
+            if (bytes <= targetBytes && !isExpired(file)) break;
+            final long length = file.length();
+            if (delete(file)) {
+                bytes -= length;
+            }
+        }
+        currentBytes = bytes;
+    }
+
+    boolean isExpired(File file) {
+        return currentTimeProvider.getCurrentTimeMillis() - file.lastModified() > ttlMillis;
+    }
+
+    File getCacheDir() {
+        if (cacheDir == null) {
+            final File filesDir = fileStore.getFilesDir();
+            if (filesDir == null) return null;
+
+            final File dir = new File(filesDir, CACHE_DIR_NAME);
+            if (!dir.exists() && !dir.mkdirs()) {
+                Fabric.getLogger().e(TAG, "Failed to create Tweet cache directory");
+                return null;
+            }
+            cacheDir = dir;
+            trimToSize();
+        }
+        return cacheDir;
+    }
+
+    private boolean delete(File file) {
+        return !file.exists() || file.delete();
+    }
+}
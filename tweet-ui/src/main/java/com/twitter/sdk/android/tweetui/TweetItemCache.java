@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineItemCache;
+
+import java.util.List;
+
+/**
+ * Keeps Tweets evicted from a windowed timeline in the TweetRepository memory and disk caches and
+ * loads them back through the repository, which falls back to the lookup endpoint for Tweets no
+ * longer cached.
+ */
+class TweetItemCache implements TimelineItemCache<Tweet> {
+    final BaseTweetView.DependencyProvider dependencyProvider;
+
+    TweetItemCache() {
+        this(new BaseTweetView.DependencyProvider());
+    }
+
+    TweetItemCache(BaseTweetView.DependencyProvider dependencyProvider) {
+        this.dependencyProvider = dependencyProvider;
+    }
+
+    @Override
+    public void put(List<Tweet> items) {
+        final TweetRepository tweetRepository = getTweetRepository();
+        if (tweetRepository == null) return;
+
+        for (Tweet tweet : items) {
+            tweetRepository.updateCache(tweet);
+        }
+    }
+
+    @Override
+    public void load(List<Long> ids, LoadCallback<List<Tweet>> cb) {
+        final TweetRepository tweetRepository = getTweetRepository();
+        if (tweetRepository == null) {
+            cb.failure(new TwitterException("TweetUi kit instance is not available"));
+            return;
+        }
+        tweetRepository.loadTweets(ids, cb);
+    }
+
+    private TweetRepository getTweetRepository() {
+        try {
+            return dependencyProvider.getTweetUi().getTweetRepository();
+        } catch (IllegalStateException e) {
+            // TweetUi kit instance not available
+            return null;
+        }
+    }
+}
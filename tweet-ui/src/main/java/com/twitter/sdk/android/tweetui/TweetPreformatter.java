@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineItemProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.fabric.sdk.android.Fabric;
+
+/**
+ * Formats and linkifies Tweet text and parses timestamps for each received timeline page on the
+ * TweetUi executor, so the TweetRepository caches are warm by the time rows are bound.
+ */
+class TweetPreformatter implements TimelineItemProcessor<Tweet> {
+    private static final String TAG = TweetUi.LOGTAG;
+
+    final int linkColor;
+    final BaseTweetView.DependencyProvider dependencyProvider;
+
+    /**
+     * @param linkColor the link color of the Tweet views the items will be bound to
+     */
+    TweetPreformatter(int linkColor) {
+        this(linkColor, new BaseTweetView.DependencyProvider());
+    }
+
+    TweetPreformatter(int linkColor, BaseTweetView.DependencyProvider dependencyProvider) {
+        this.linkColor = linkColor;
+        this.dependencyProvider = dependencyProvider;
+    }
+
+    @Override
+    public void process(List<Tweet> items, final Runnable onProcessed) {
+        final TweetRepository tweetRepository;
+        try {
+            tweetRepository = dependencyProvider.getTweetUi().getTweetRepository();
+        } catch (IllegalStateException e) {
+            // TweetUi kit instance not available, views will not render either
+            onProcessed.run();
+            return;
+        }
+        if (tweetRepository == null) {
+            // the kit has not finished initializing, rows will format on bind
+            onProcessed.run();
+            return;
+        }
+
+        final List<Tweet> tweets = new ArrayList<>(items);
+        try {
+            tweetRepository.executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        preformat(tweetRepository, tweets);
+                    } catch (RuntimeException e) {
+                        Fabric.getLogger().e(TAG, "Failed to preformat Tweets", e);
+                    } finally {
+                        tweetRepository.mainHandler.post(onProcessed);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            onProcessed.run();
+        }
+    }
+
+    void preformat(TweetRepository tweetRepository, List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            final Tweet displayTweet = TweetUtils.getDisplayTweet(tweet);
+            if (displayTweet == null) continue;
+
+            final boolean stripPhotoEntity = TweetTextUtils.hasPhotoUrl(displayTweet.entities);
+            tweetRepository.linkifyTweetText(displayTweet, stripPhotoEntity, linkColor);
+            tweetRepository.getCreatedAtMillis(displayTweet);
+        }
+    }
+}
@@ -17,8 +17,12 @@
 
 package com.twitter.sdk.android.tweetui;
 
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.os.Build;
 import android.os.Handler;
 import android.support.v4.util.LruCache;
+import android.text.SpannedString;
 import android.text.TextUtils;
 
 import io.fabric.sdk.android.Fabric;
@@ -29,30 +33,163 @@ import com.twitter.sdk.android.core.TwitterApiClient;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 /**
- * Encapsulates Tweet API access as a read through cache. The LruCache implementation we use handles
- * thread safe access.
+ * Encapsulates Tweet API access as a read through cache. Tweets are looked up in memory, then on
+ * disk, then from the API. The LruCache implementation we use handles thread safe access.
  */
 class TweetRepository extends Repository {
     private static final String TAG = TweetUi.LOGTAG;
     private static final String AUTH_ERROR = "Auth could not be obtained.";
+    static final String TWEET_NOT_FOUND = "Tweet %d could not be found.";
 
-    // Cache size units are in number of entries, an average Tweet is roughly 900 bytes in memory
-    private static final int DEFAULT_CACHE_SIZE = 20;
+    // single Tweet loads requested within this window are combined into one lookup request
+    static final long BATCH_WINDOW_MILLIS = 30L;
+    // statuses/lookup accepts at most 100 ids per request
+    static final int MAX_LOOKUP_SIZE = 100;
 
-    // leave this package accessible for testing
-    final LruCache<Long, Tweet> tweetCache;
-    final LruCache<Long, FormattedTweetText> formatCache;
+    // Cache size units are in estimated bytes, see CacheSizes. An average Tweet is roughly
+    // 900 bytes in memory so the default holds a few hundred Tweets.
+    static final int DEFAULT_MEMORY_CACHE_BYTES = 512 * 1024;
+    // Tweets get three fifths of the memory budget, formatted and linkified text a fifth each
+    private static final int TWEET_CACHE_SHARE = 3;
+    private static final int TOTAL_CACHE_SHARES = 5;
+    // parsed created_at times are a few dozen bytes each so they are capped by count instead
+    static final int MAX_CREATED_AT_ENTRIES = 512;
+
+    // leave this package accessible for testing, replaced when the memory budget changes
+    volatile LruCache<Long, Tweet> tweetCache;
+    volatile LruCache<Long, FormattedTweetText> formatCache;
+    volatile LruCache<LinkifiedTextKey, CharSequence> linkifiedCache;
+    final LruCache<Long, Long> createdAtCache;
+    // second cache tier, may be null in which case misses go straight to the API
+    final TweetDiskCache diskCache;
+    // single Tweet loads waiting for the batch window to close, guarded by batchLock
+    Map<Long, MultiLoadCallback> pendingBatch;
+    // loads which have not completed yet keyed by Tweet id, guarded by itself
+    final Map<Long, InFlightCallback> inFlight;
+
+    private final Object batchLock = new Object();
+    private final Runnable flushBatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushBatch();
+        }
+    };
 
     TweetRepository(TweetUi tweetUiKit, ExecutorService executorService,
             Handler mainHandler, AuthRequestQueue queue) {
+        this(tweetUiKit, executorService, mainHandler, queue, null, DEFAULT_MEMORY_CACHE_BYTES);
+    }
+
+    TweetRepository(TweetUi tweetUiKit, ExecutorService executorService,
+            Handler mainHandler, AuthRequestQueue queue, TweetDiskCache diskCache,
+            int memoryCacheBytes) {
         super(tweetUiKit, executorService, mainHandler, queue);
 
-        tweetCache = new LruCache<>(DEFAULT_CACHE_SIZE);
-        formatCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+        tweetCache = newTweetCache(tweetCacheBytes(memoryCacheBytes));
+        formatCache = newFormatCache(formatCacheBytes(memoryCacheBytes));
+        linkifiedCache = newLinkifiedCache(formatCacheBytes(memoryCacheBytes));
+        createdAtCache = new LruCache<>(MAX_CREATED_AT_ENTRIES);
+        this.diskCache = diskCache;
+        pendingBatch = new LinkedHashMap<>();
+        inFlight = new HashMap<>();
+    }
+
+    /**
+     * Changes the memory budget shared by the Tweet and formatted text caches. Entries are copied
+     * to the resized caches in least recently used order so the most recent entries survive a
+     * shrink.
+     * @param memoryCacheBytes memory budget in estimated bytes
+     */
+    void setMemoryCacheSize(int memoryCacheBytes) {
+        tweetCache = copyEntries(tweetCache, newTweetCache(tweetCacheBytes(memoryCacheBytes)));
+        formatCache = copyEntries(formatCache,
+                newFormatCache(formatCacheBytes(memoryCacheBytes)));
+        linkifiedCache = copyEntries(linkifiedCache,
+                newLinkifiedCache(formatCacheBytes(memoryCacheBytes)));
+    }
+
+    /**
+     * Releases cached entries in response to memory pressure. Everything is dropped when the
+     * process is likely to be killed or the device is critically low on memory, half of each
+     * cache is dropped at lower levels.
+     * @param level trim level from ComponentCallbacks2.onTrimMemory
+     */
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clearMemory();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            tweetCache.trimToSize(tweetCache.maxSize() / 2);
+            formatCache.trimToSize(formatCache.maxSize() / 2);
+            linkifiedCache.trimToSize(linkifiedCache.maxSize() / 2);
+        }
+    }
+
+    /**
+     * Drops every entry from the memory caches. The disk cache is left intact.
+     */
+    void clearMemory() {
+        tweetCache.evictAll();
+        formatCache.evictAll();
+        linkifiedCache.evictAll();
+        createdAtCache.evictAll();
+    }
+
+    static int tweetCacheBytes(int memoryCacheBytes) {
+        return Math.max(1, memoryCacheBytes / TOTAL_CACHE_SHARES * TWEET_CACHE_SHARE);
+    }
+
+    static int formatCacheBytes(int memoryCacheBytes) {
+        return Math.max(1, memoryCacheBytes / TOTAL_CACHE_SHARES);
+    }
+
+    static LruCache<Long, Tweet> newTweetCache(int maxBytes) {
+        return new LruCache<Long, Tweet>(maxBytes) {
+            @Override
+            protected int sizeOf(Long tweetId, Tweet tweet) {
+                return CacheSizes.sizeOf(tweet);
+            }
+        };
+    }
+
+    static LruCache<Long, FormattedTweetText> newFormatCache(int maxBytes) {
+        return new LruCache<Long, FormattedTweetText>(maxBytes) {
+            @Override
+            protected int sizeOf(Long tweetId, FormattedTweetText formatted) {
+                return CacheSizes.sizeOf(formatted);
+            }
+        };
+    }
+
+    static LruCache<LinkifiedTextKey, CharSequence> newLinkifiedCache(int maxBytes) {
+        return new LruCache<LinkifiedTextKey, CharSequence>(maxBytes) {
+            @Override
+            protected int sizeOf(LinkifiedTextKey key, CharSequence linkified) {
+                return CacheSizes.sizeOf(linkified);
+            }
+        };
+    }
+
+    private static <K, V> LruCache<K, V> copyEntries(LruCache<K, V> from, LruCache<K, V> to) {
+        // snapshot is ordered from least to most recently used
+        for (Map.Entry<K, V> entry : from.snapshot().entrySet()) {
+            to.put(entry.getKey(), entry.getValue());
+        }
+        return to;
     }
 
     /**
@@ -77,9 +214,60 @@ class TweetRepository extends Repository {
     }
 
     /**
-     * Queues and loads a Tweet from the API statuses/show endpoint. Queue ensures a guest or app
-     * auth token is obtained before performing the request. Adds the the Tweet from the response
-     * to the cache and provides the Tweet to the repository callback success method.
+     * Returns the linkified text for a Tweet, caching the result per Tweet id, link color, and
+     * photo stripping so rebinding a recycled view is a cache lookup. Spans in the cached text
+     * hold no reference to a view, clicks are handled by the enclosing BaseTweetView.
+     *
+     * @param tweet                 the Tweet that will be formatted and linkified
+     * @param stripLastPhotoEntity  if true the last photo entity is stripped from the text
+     * @param linkColor             the link color
+     * @return                      the linkified text suitable for display, can be null
+     */
+    CharSequence linkifyTweetText(final Tweet tweet, boolean stripLastPhotoEntity,
+            int linkColor) {
+        if (tweet == null) return null;
+
+        final LinkifiedTextKey key
+                = new LinkifiedTextKey(tweet.id, linkColor, stripLastPhotoEntity);
+        final CharSequence cached = linkifiedCache.get(key);
+
+        if (cached != null) return cached;
+
+        final CharSequence linkified = TweetTextLinkifier.linkifyUrls(formatTweetText(tweet),
+                null, stripLastPhotoEntity, linkColor);
+        if (TextUtils.isEmpty(linkified)) return linkified;
+
+        // immutable copy, callers must not be able to change the shared text
+        final CharSequence immutable = new SpannedString(linkified);
+        linkifiedCache.put(key, immutable);
+        return immutable;
+    }
+
+    /**
+     * Returns the Tweet created_at time in milliseconds, caching the parsed value per Tweet id.
+     *
+     * @param tweet the Tweet
+     * @return      the created at time or TweetDateUtils.INVALID_DATE if it cannot be parsed
+     */
+    long getCreatedAtMillis(final Tweet tweet) {
+        if (tweet == null) return TweetDateUtils.INVALID_DATE;
+
+        final Long cached = createdAtCache.get(tweet.id);
+
+        if (cached != null) return cached;
+
+        final long createdAt = TweetDateUtils.apiTimeToLong(tweet.createdAt);
+        if (createdAt != TweetDateUtils.INVALID_DATE) {
+            createdAtCache.put(tweet.id, createdAt);
+        }
+        return createdAt;
+    }
+
+    /**
+     * Loads a Tweet from the memory cache, the disk cache, or the API, in that order. Disk reads
+     * happen on the executor and Tweets read from disk are promoted to the memory cache. Callers
+     * asking for a Tweet id which is already being loaded are attached to the pending load rather
+     * than starting another one.
      * @param tweetId Tweet id
      * @param cb repository callback
      */
@@ -91,6 +279,109 @@ class TweetRepository extends Repository {
             return;
         }
 
+        final InFlightCallback flight;
+        synchronized (inFlight) {
+            final InFlightCallback pending = inFlight.get(tweetId);
+            if (pending != null) {
+                pending.add(cb);
+                return;
+            }
+            flight = new InFlightCallback(tweetId);
+            flight.add(cb);
+            inFlight.put(tweetId, flight);
+        }
+
+        if (diskCache == null) {
+            requestTweet(tweetId, flight);
+            return;
+        }
+
+        executorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                final Tweet diskTweet = diskCache.get(tweetId);
+                if (diskTweet != null) {
+                    tweetCache.put(tweetId, diskTweet);
+                    deliverTweet(diskTweet, flight);
+                } else {
+                    requestTweet(tweetId, flight);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a Tweet id to the pending batch. Loads requested within BATCH_WINDOW_MILLIS of each
+     * other are sent as a single lookup request, duplicate ids within a batch are only requested
+     * once. A full batch is sent immediately.
+     * @param tweetId Tweet id
+     * @param cb repository callback
+     */
+    void requestTweet(final long tweetId, final LoadCallback<Tweet> cb) {
+        final Map<Long, MultiLoadCallback> fullBatch;
+        synchronized (batchLock) {
+            final boolean batchWasEmpty = pendingBatch.isEmpty();
+            MultiLoadCallback callbacks = pendingBatch.get(tweetId);
+            if (callbacks == null) {
+                callbacks = new MultiLoadCallback();
+                pendingBatch.put(tweetId, callbacks);
+            }
+            callbacks.add(cb);
+
+            if (pendingBatch.size() < MAX_LOOKUP_SIZE) {
+                if (batchWasEmpty) {
+                    mainHandler.postDelayed(flushBatchRunnable, BATCH_WINDOW_MILLIS);
+                }
+                return;
+            }
+
+            mainHandler.removeCallbacks(flushBatchRunnable);
+            fullBatch = takeBatch();
+        }
+        sendBatch(fullBatch);
+    }
+
+    /**
+     * Sends every pending single Tweet load.
+     */
+    void flushBatch() {
+        final Map<Long, MultiLoadCallback> batch;
+        synchronized (batchLock) {
+            batch = takeBatch();
+        }
+        sendBatch(batch);
+    }
+
+    // callers must hold batchLock
+    private Map<Long, MultiLoadCallback> takeBatch() {
+        final Map<Long, MultiLoadCallback> batch = pendingBatch;
+        pendingBatch = new LinkedHashMap<>();
+        return batch;
+    }
+
+    /**
+     * Requests a batch of Tweets. A batch of one uses statuses/show, larger batches use a single
+     * statuses/lookup request whose results are fanned back out to each waiting callback.
+     */
+    void sendBatch(final Map<Long, MultiLoadCallback> batch) {
+        if (batch.isEmpty()) return;
+
+        if (batch.size() == 1) {
+            final Map.Entry<Long, MultiLoadCallback> entry = batch.entrySet().iterator().next();
+            showTweet(entry.getKey(), entry.getValue());
+        } else {
+            lookupTweets(new ArrayList<>(batch.keySet()), new BatchCallback(batch));
+        }
+    }
+
+    /**
+     * Queues and loads a Tweet from the API statuses/show endpoint. Queue ensures a guest or app
+     * auth token is obtained before performing the request. Adds the the Tweet from the response
+     * to the cache and provides the Tweet to the repository callback success method.
+     * @param tweetId Tweet id
+     * @param cb repository callback
+     */
+    void showTweet(final long tweetId, final LoadCallback<Tweet> cb) {
         queue.addRequest(new Callback<TwitterApiClient>() {
             @Override
             public void success(Result<TwitterApiClient> result) {
@@ -109,13 +400,82 @@ class TweetRepository extends Repository {
     }
 
     /**
-     * Queues and loads multiple Tweets from the API lookup endpoint. Queue ensures a guest or app
-     * auth token is obtained before performing the request. Orders the Tweets from the response
-     * and provides them to the repository callback success method.
+     * Loads multiple Tweets, resolving ids from the memory cache and then the disk cache before
+     * requesting only the missing ids from the API. Missing ids are split into lookup requests of
+     * at most MAX_LOOKUP_SIZE ids which are sent in parallel. Provides the Tweets in the order
+     * requested to the repository callback success method.
      * @param tweetIds list of Tweet ids
      * @param cb repository callback
      */
     void loadTweets(final List<Long> tweetIds, final LoadCallback<List<Tweet>> cb) {
+        if (tweetIds == null || tweetIds.isEmpty()) {
+            deliverTweets(Collections.<Long>emptyList(), Collections.<Tweet>emptyList(), cb);
+            return;
+        }
+
+        final List<Tweet> resolved = new ArrayList<>(tweetIds.size());
+        final Set<Long> missingIds = new LinkedHashSet<>();
+        for (Long tweetId : tweetIds) {
+            final Tweet cachedTweet = tweetCache.get(tweetId);
+            if (cachedTweet != null) {
+                resolved.add(cachedTweet);
+            } else {
+                missingIds.add(tweetId);
+            }
+        }
+
+        if (missingIds.isEmpty()) {
+            deliverTweets(tweetIds, resolved, cb);
+        } else if (diskCache == null) {
+            lookupMissingTweets(tweetIds, resolved, new ArrayList<>(missingIds), cb);
+        } else {
+            executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final List<Long> stillMissing = new ArrayList<>();
+                    for (Long tweetId : missingIds) {
+                        final Tweet diskTweet = diskCache.get(tweetId);
+                        if (diskTweet != null) {
+                            tweetCache.put(tweetId, diskTweet);
+                            resolved.add(diskTweet);
+                        } else {
+                            stillMissing.add(tweetId);
+                        }
+                    }
+
+                    if (stillMissing.isEmpty()) {
+                        deliverTweets(tweetIds, resolved, cb);
+                    } else {
+                        lookupMissingTweets(tweetIds, resolved, stillMissing, cb);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Requests the missing ids in pages of at most MAX_LOOKUP_SIZE and merges the results with
+     * the already resolved Tweets once every page has been received.
+     */
+    void lookupMissingTweets(List<Long> tweetIds, List<Tweet> resolved, List<Long> missingIds,
+            LoadCallback<List<Tweet>> cb) {
+        final int pageCount = (missingIds.size() + MAX_LOOKUP_SIZE - 1) / MAX_LOOKUP_SIZE;
+        final PagedLookupCallback pagedCallback
+                = new PagedLookupCallback(tweetIds, resolved, pageCount, cb);
+        for (int start = 0; start < missingIds.size(); start += MAX_LOOKUP_SIZE) {
+            final int end = Math.min(start + MAX_LOOKUP_SIZE, missingIds.size());
+            lookupTweets(new ArrayList<>(missingIds.subList(start, end)), pagedCallback);
+        }
+    }
+
+    /**
+     * Queues and loads multiple Tweets from the API lookup endpoint. Queue ensures a guest or app
+     * auth token is obtained before performing the request. Adds the Tweets from the response to
+     * the cache, orders them, and provides them to the repository callback success method.
+     * @param tweetIds list of at most MAX_LOOKUP_SIZE Tweet ids
+     * @param cb repository callback
+     */
+    void lookupTweets(final List<Long> tweetIds, final LoadCallback<List<Tweet>> cb) {
         queue.addRequest(new Callback<TwitterApiClient>() {
             @Override
             public void success(Result<TwitterApiClient> result) {
@@ -134,8 +494,21 @@ class TweetRepository extends Repository {
         });
     }
 
+    /**
+     * Adds the Tweet to the memory cache and writes it through to the disk cache in the
+     * background.
+     */
     protected void updateCache(final Tweet tweet) {
         tweetCache.put(tweet.id, tweet);
+
+        if (diskCache != null) {
+            executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    diskCache.put(tweet);
+                }
+            });
+        }
     }
 
     /*
@@ -151,6 +524,17 @@ class TweetRepository extends Repository {
         });
     }
 
+    private void deliverTweets(final List<Long> tweetIds, final List<Tweet> tweets,
+            final LoadCallback<List<Tweet>> cb) {
+        if (cb == null) return;
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                cb.success(Utils.orderTweets(tweetIds, tweets));
+            }
+        });
+    }
+
     class TweetApiCallback extends ApiCallback<Tweet> {
 
         TweetApiCallback(LoadCallback<Tweet> cb) {
@@ -183,10 +567,181 @@ class TweetRepository extends Repository {
 
         @Override
         public void success(Result<List<Tweet>> result) {
+            for (Tweet tweet : result.data) {
+                updateCache(tweet);
+            }
             if (cb != null) {
                 final List<Tweet> sorted = Utils.orderTweets(tweetIds, result.data);
                 cb.success(sorted);
             }
         }
     }
+
+    /**
+     * Fans a single Tweet load result out to every callback waiting on that Tweet id.
+     */
+    static class MultiLoadCallback implements LoadCallback<Tweet> {
+        final List<LoadCallback<Tweet>> callbacks = new ArrayList<>(1);
+
+        void add(LoadCallback<Tweet> cb) {
+            if (cb != null) {
+                callbacks.add(cb);
+            }
+        }
+
+        @Override
+        public void success(Tweet tweet) {
+            for (LoadCallback<Tweet> cb : callbacks) {
+                cb.success(tweet);
+            }
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            for (LoadCallback<Tweet> cb : callbacks) {
+                cb.failure(exception);
+            }
+        }
+    }
+
+    /**
+     * MultiLoadCallback registered for a Tweet id while its load is in flight. The id is removed
+     * from the in flight map before callbacks run so no caller can attach after completion.
+     */
+    class InFlightCallback extends MultiLoadCallback {
+        final long tweetId;
+
+        InFlightCallback(long tweetId) {
+            this.tweetId = tweetId;
+        }
+
+        @Override
+        public void success(Tweet tweet) {
+            complete();
+            super.success(tweet);
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            complete();
+            super.failure(exception);
+        }
+
+        private void complete() {
+            synchronized (inFlight) {
+                inFlight.remove(tweetId);
+            }
+        }
+    }
+
+    /**
+     * Collects the pages of a paged lookup. Once every page has succeeded the received Tweets are
+     * merged with the cached Tweets and ordered. The first failure is reported and later pages
+     * are ignored.
+     */
+    static class PagedLookupCallback implements LoadCallback<List<Tweet>> {
+        final List<Long> tweetIds;
+        final List<Tweet> tweets;
+        final LoadCallback<List<Tweet>> cb;
+        int remainingPages;
+        boolean failed;
+
+        PagedLookupCallback(List<Long> tweetIds, List<Tweet> resolved, int pageCount,
+                LoadCallback<List<Tweet>> cb) {
+            this.tweetIds = tweetIds;
+            this.tweets = resolved;
+            this.remainingPages = pageCount;
+            this.cb = cb;
+        }
+
+        @Override
+        public synchronized void success(List<Tweet> pageTweets) {
+            if (failed) return;
+
+            tweets.addAll(pageTweets);
+            remainingPages--;
+            if (remainingPages == 0 && cb != null) {
+                cb.success(Utils.orderTweets(tweetIds, tweets));
+            }
+        }
+
+        @Override
+        public synchronized void failure(TwitterException exception) {
+            if (failed) return;
+
+            failed = true;
+            if (cb != null) {
+                cb.failure(exception);
+            }
+        }
+    }
+
+    /**
+     * Distributes the Tweets from a batched lookup to the callbacks waiting on each id. Ids
+     * missing from the response are failed individually.
+     */
+    static class BatchCallback implements LoadCallback<List<Tweet>> {
+        final Map<Long, MultiLoadCallback> batch;
+
+        BatchCallback(Map<Long, MultiLoadCallback> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void success(List<Tweet> tweets) {
+            for (Tweet tweet : tweets) {
+                final MultiLoadCallback callbacks = batch.remove(tweet.id);
+                if (callbacks != null) {
+                    callbacks.success(tweet);
+                }
+            }
+            for (Map.Entry<Long, MultiLoadCallback> entry : batch.entrySet()) {
+                entry.getValue().failure(new TwitterException(
+                        String.format(Locale.US, TWEET_NOT_FOUND, entry.getKey())));
+            }
+            batch.clear();
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            for (MultiLoadCallback callbacks : batch.values()) {
+                callbacks.failure(exception);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Cache key for linkified Tweet text, the same Tweet renders differently depending on the
+     * link color and whether the last photo url is stripped.
+     */
+    static final class LinkifiedTextKey {
+        final long tweetId;
+        final int linkColor;
+        final boolean stripLastPhotoEntity;
+
+        LinkifiedTextKey(long tweetId, int linkColor, boolean stripLastPhotoEntity) {
+            this.tweetId = tweetId;
+            this.linkColor = linkColor;
+            this.stripLastPhotoEntity = stripLastPhotoEntity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final LinkifiedTextKey that = (LinkifiedTextKey) o;
+            return tweetId == that.tweetId && linkColor == that.linkColor
+                    && stripLastPhotoEntity == that.stripLastPhotoEntity;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (tweetId ^ (tweetId >>> 32));
+            result = 31 * result + linkColor;
+            result = 31 * result + (stripLastPhotoEntity ? 1 : 0);
+            return result;
+        }
+    }
 }
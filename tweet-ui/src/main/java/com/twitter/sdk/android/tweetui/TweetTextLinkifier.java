@@ -24,6 +24,7 @@ import android.text.TextUtils;
 import android.text.style.CharacterStyle;
 import android.text.style.ClickableSpan;
 import android.view.View;
+import android.view.ViewParent;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,7 +42,8 @@ final class TweetTextLinkifier {
      * value can be set directly onto a text view.
      *
      * @param tweetText             The formatted and adjusted tweet wrapper
-     * @param listener              A listener to handle link clicks
+     * @param listener              A listener to handle link clicks, if null clicks are handled
+     *                              by the BaseTweetView containing the clicked text view
      * @param stripLastPhotoEntity  If true will strip the last photo entity from the linkified text
      * @return                      The Tweet text with displayUrls substituted in
      */
@@ -144,19 +146,7 @@ final class TweetTextLinkifier {
                     end -= len;
                     offset += len;
 
-                    final CharacterStyle span = new ClickableSpan() {
-                        @Override
-                        public void onClick(View widget) {
-                            if (listener == null) return;
-                            listener.onUrlClicked(url.url);
-                        }
-
-                        @Override
-                        public void updateDrawState(TextPaint ds) {
-                            ds.setColor(linkColor);
-                            ds.setUnderlineText(false);  // Links should not be underlined
-                        }
-                    };
+                    final CharacterStyle span = new UrlSpan(url.url, listener, linkColor);
                     spannable.setSpan(span, start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
                 }
             }
@@ -180,4 +170,46 @@ final class TweetTextLinkifier {
         }
         return null;
     }
+
+    /**
+     * Span for a url entity. Spans created without a listener look up the listener of the
+     * enclosing BaseTweetView when clicked, so linkified text can be cached and shared between
+     * views.
+     */
+    static class UrlSpan extends ClickableSpan {
+        final String url;
+        final LinkClickListener listener;
+        final int linkColor;
+
+        UrlSpan(String url, LinkClickListener listener, int linkColor) {
+            this.url = url;
+            this.listener = listener;
+            this.linkColor = linkColor;
+        }
+
+        @Override
+        public void onClick(View widget) {
+            final LinkClickListener clickListener
+                    = listener != null ? listener : findLinkClickListener(widget);
+            if (clickListener == null) return;
+            clickListener.onUrlClicked(url);
+        }
+
+        @Override
+        public void updateDrawState(TextPaint ds) {
+            ds.setColor(linkColor);
+            ds.setUnderlineText(false);  // Links should not be underlined
+        }
+
+        static LinkClickListener findLinkClickListener(View widget) {
+            ViewParent parent = widget == null ? null : widget.getParent();
+            while (parent != null) {
+                if (parent instanceof BaseTweetView) {
+                    return ((BaseTweetView) parent).getLinkClickListener();
+                }
+                parent = parent.getParent();
+            }
+            return null;
+        }
+    }
 }
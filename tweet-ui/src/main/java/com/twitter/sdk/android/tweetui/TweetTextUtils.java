@@ -25,7 +25,6 @@ import com.twitter.sdk.android.core.models.TweetEntities;
 import com.twitter.sdk.android.core.models.UrlEntity;
 import com.twitter.sdk.android.tweetui.internal.util.HtmlEntities;
 
-import java.util.ArrayList;
 import java.util.List;
 
 final class TweetTextUtils {
@@ -88,56 +87,47 @@ final class TweetTextUtils {
         if (TextUtils.isEmpty(tweet.text)) return;
 
         final HtmlEntities.Unescaped u = HtmlEntities.HTML40.unescape(tweet.text);
-        final StringBuilder result = new StringBuilder(u.unescaped);
 
         adjustIndicesForEscapedChars(formattedTweetText.urlEntities, u.indices);
         adjustIndicesForEscapedChars(formattedTweetText.mediaEntities, u.indices);
-        adjustIndicesForSupplementaryChars(result, formattedTweetText);
-        formattedTweetText.text = result.toString();
+        adjustIndicesForSupplementaryChars(u.unescaped, formattedTweetText);
+        formattedTweetText.text = u.unescaped;
     }
 
     /**
      * Since the unescaping of html causes for example &amp; to turn into & we need to adjust
-     * the entity indices after that by 4 characters. This loops through the entities and adjusts
-     * them as necessary.
+     * the entity indices after that by 4 characters. This sweeps the entities and escapes once,
+     * relying on both being sorted, and adjusts them as necessary.
      *
      * @param entities The entities that need to be adjusted
-     * @param indices The indices of where there were escaped html chars that we unescaped
+     * @param indices The start/end index pairs of where there were escaped html chars that we
+     *                unescaped, as returned by HtmlEntities.Unescaped
      */
     static void adjustIndicesForEscapedChars(
             List<? extends FormattedUrlEntity> entities,
-            List<int[]> indices) {
-        if (entities == null || indices == null || indices.isEmpty()) {
+            int[] indices) {
+        if (entities == null || indices == null || indices.length == 0) {
             return;
         }
-        final int size = indices.size();
-        int m = 0; // marker
+        final int size = indices.length;
+        int m = 0; // marker, first escape which ends at or after the current entity start
         int diff = 0; // accumulated difference
         int inDiff; // end difference for escapes in range
-        int len; // escaped length
-        int start; // escaped start
-        int end; // escaped end
         int i; // reusable index
-        int[] index;
         // For each of the entities, update the start and end indices
-        // Note: tweet entities are sorted.
+        // Note: tweet entities and escapes are sorted.
 
         for (FormattedUrlEntity entity : entities) {
-            inDiff = 0;
-            // Go through the escaped entities' indices
-            for (i = m; i < size; i++) {
-                index = indices.get(i);
-                start = index[0];
-                end = index[1];
+            // escapes ending before the entity shift both its start and end
+            while (m < size && indices[m + 1] < entity.start) {
                 // len is actually (end - start + 1) - 1
-                len = end - start;
-                if (end < entity.start) {
-                    // bump position of the next marker
-                    diff += len;
-                    m++;
-                } else if (end < entity.end) {
-                    inDiff += len;
-                }
+                diff += indices[m + 1] - indices[m];
+                m += 2;
+            }
+            // escapes ending within the entity only shift its end
+            inDiff = 0;
+            for (i = m; i < size && indices[i + 1] < entity.end; i += 2) {
+                inDiff += indices[i + 1] - indices[i];
             }
             // Once we've accumulated diffs, calc the offset
             entity.start = entity.start - diff;
@@ -153,14 +143,25 @@ final class TweetTextUtils {
      * @param content The content of the tweet
      * @param formattedTweetText The formatted tweet text with entities that we need to adjust
      */
-    static void adjustIndicesForSupplementaryChars(StringBuilder content,
+    static void adjustIndicesForSupplementaryChars(CharSequence content,
             FormattedTweetText formattedTweetText) {
-        final List<Integer> highSurrogateIndices = new ArrayList<>();
         final int len = content.length() - 1;
+        int count = 0;
+        for (int i = 0; i < len; ++i) {
+            if (isSurrogatePair(content, i)) {
+                count++;
+                i++;
+            }
+        }
+        // most Tweets have no supplementary chars, nothing to adjust
+        if (count == 0) return;
+
+        final int[] highSurrogateIndices = new int[count];
+        int n = 0;
         for (int i = 0; i < len; ++i) {
-            if (Character.isHighSurrogate(content.charAt(i))
-                    && Character.isLowSurrogate(content.charAt(i + 1))) {
-                highSurrogateIndices.add(i);
+            if (isSurrogatePair(content, i)) {
+                highSurrogateIndices[n++] = i;
+                i++;
             }
         }
 
@@ -168,26 +169,34 @@ final class TweetTextUtils {
         adjustEntitiesWithOffsets(formattedTweetText.mediaEntities, highSurrogateIndices);
     }
 
+    private static boolean isSurrogatePair(CharSequence content, int i) {
+        return Character.isHighSurrogate(content.charAt(i))
+                && Character.isLowSurrogate(content.charAt(i + 1));
+    }
+
     /**
      * Shifts indices by 1 since the Twitter REST Api does not count them correctly for our language
-     * runtime.
+     * runtime. The offset carries over from one entity to the next, so sorted entities are
+     * adjusted in a single sweep.
      *
      * @param entities The entities that need to be adjusted
-     * @param indices The indices in the string where there are supplementary chars
+     * @param indices The sorted indices in the string where there are supplementary chars
      */
     static void adjustEntitiesWithOffsets(List<? extends FormattedUrlEntity> entities,
-            List<Integer> indices) {
+            int[] indices) {
         if (entities == null || indices == null) return;
+        int offset = 0;
+        int previousStart = Integer.MIN_VALUE;
         for (FormattedUrlEntity entity : entities) {
             // find all indices <= start and update offsets by that much
             final int start = entity.start;
-            int offset = 0;
-            for (Integer index : indices) {
-                if (index - offset <= start) {
-                    offset += 1;
-                } else {
-                    break;
-                }
+            if (start < previousStart) {
+                // entities out of order, count again from the beginning
+                offset = 0;
+            }
+            previousStart = start;
+            while (offset < indices.length && indices[offset] - offset <= start) {
+                offset += 1;
             }
             entity.start = entity.start + offset;
             entity.end = entity.end + offset;
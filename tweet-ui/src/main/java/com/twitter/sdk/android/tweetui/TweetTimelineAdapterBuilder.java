@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+/**
+ * Options shared by the TweetTimelineListAdapter and TweetTimelineRecyclerAdapter Builders.
+ * @param <B> the concrete Builder type, returned by the setters
+ */
+abstract class TweetTimelineAdapterBuilder<B extends TweetTimelineAdapterBuilder<B>> {
+    final Context context;
+    Timeline<Tweet> timeline;
+    int styleResId = BaseTweetView.DEFAULT_STYLE;
+    boolean saveSnapshot;
+    boolean windowed;
+
+    TweetTimelineAdapterBuilder(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Sets the Timeline<Tweet> providing access to Tweet data items.
+     * @param timeline the Tweet timeline
+     */
+    public B timeline(Timeline<Tweet> timeline) {
+        this.timeline = timeline;
+        return self();
+    }
+
+    /**
+     * Sets the style of the Tweet rows. Defaults to R.style.tw__TweetLightStyle.
+     * @param styleResId resource id of the Tweet view style
+     */
+    public B viewStyle(int styleResId) {
+        this.styleResId = styleResId;
+        return self();
+    }
+
+    /**
+     * Sets whether to save and restore a snapshot of the first Tweets. Defaults to false.
+     * @param saveSnapshot true to save and restore a snapshot of the first Tweets.
+     */
+    public B saveSnapshot(boolean saveSnapshot) {
+        this.saveSnapshot = saveSnapshot;
+        return self();
+    }
+
+    /**
+     * Sets whether the timeline is windowed. Defaults to false, which loads at most 200
+     * Tweets. A windowed timeline is not limited in length, Tweets far from the visible rows
+     * are released to the Tweet cache and loaded back when scrolled to again. While a Tweet
+     * is being loaded back getItem returns null for it, so overrides which bind rows, getView
+     * or onBindViewHolder, must handle a null Tweet.
+     * @param windowed true to release and load back Tweets far from the visible rows.
+     */
+    public B windowed(boolean windowed) {
+        this.windowed = windowed;
+        return self();
+    }
+
+    @SuppressWarnings("unchecked")
+    private B self() {
+        return (B) this;
+    }
+}
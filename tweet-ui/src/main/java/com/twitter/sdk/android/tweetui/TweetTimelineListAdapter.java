@@ -28,34 +28,85 @@ import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
  * TweetTimelineListAdapter is a ListAdapter which can provide Timeline Tweets to ListViews.
  */
 public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
+    private final int styleResId;
 
     /**
-     * Constructs a TweetTimelineListAdapter for the given Tweet Timeline.
+     * Constructs a TweetTimelineListAdapter for the given Tweet Timeline. Text and timestamps of
+     * received Tweets are prepared in the background before the rows are updated. At most
+     * 200 Tweets are loaded, use Builder#windowed for longer timelines.
      * @param context the context for row views.
      * @param timeline a Timeline<Tweet> providing access to Tweet data items.
      * @throws java.lang.IllegalArgumentException if timeline is null
      */
     public TweetTimelineListAdapter(Context context, Timeline<Tweet> timeline) {
-        super(context, timeline);
+        this(context, timeline, false);
+    }
+
+    /**
+     * Constructs a TweetTimelineListAdapter for the given Tweet Timeline, optionally saving a
+     * snapshot of the first Tweets. When a snapshot was saved for the same user, list, search,
+     * or collection timeline, its Tweets are shown at once and then brought up to date.
+     * @param context the context for row views.
+     * @param timeline a Timeline<Tweet> providing access to Tweet data items.
+     * @param saveSnapshot true to save and restore a snapshot of the first Tweets.
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TweetTimelineListAdapter(Context context, Timeline<Tweet> timeline,
+            boolean saveSnapshot) {
+        this(context, timeline, BaseTweetView.DEFAULT_STYLE, saveSnapshot, false);
+    }
+
+    TweetTimelineListAdapter(Context context, Timeline<Tweet> timeline, int styleResId,
+            boolean saveSnapshot, boolean windowed) {
+        super(context, new TimelineDelegate<>(timeline,
+                new TweetPreformatter(BaseTweetView.getActionColor(context, styleResId)),
+                windowed ? new TweetItemCache() : null,
+                saveSnapshot ? TweetTimelineSnapshotStore.forTimeline(timeline) : null));
+        this.styleResId = styleResId;
     }
 
       /* for testing */
     TweetTimelineListAdapter(Context context, TimelineDelegate<Tweet> delegate) {
         super(context, delegate);
+        styleResId = BaseTweetView.DEFAULT_STYLE;
     }
 
     /**
-     * Returns a CompactTweetView by default. Override to provide another view for the Tweet item.
+     * Returns a CompactTweetView in the adapter's view style by default. Override to provide
+     * another view for the Tweet item.
      */
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
         View rowView = convertView;
         final Tweet tweet = getItem(position);
         if (rowView == null) {
-            rowView = new CompactTweetView(context, tweet);
+            rowView = new CompactTweetView(context, tweet, styleResId);
         } else {
             ((BaseTweetView) rowView).setTweet(tweet);
         }
         return rowView;
     }
+
+    /**
+     * TweetTimelineListAdapter Builder.
+     */
+    public static class Builder extends TweetTimelineAdapterBuilder<Builder> {
+        /**
+         * Constructs a Builder.
+         * @param context the context for row views.
+         */
+        public Builder(Context context) {
+            super(context);
+        }
+
+        /**
+         * Builds a TweetTimelineListAdapter from the Builder parameters.
+         * @return a TweetTimelineListAdapter
+         * @throws java.lang.IllegalArgumentException if timeline is null
+         */
+        public TweetTimelineListAdapter build() {
+            return new TweetTimelineListAdapter(context, timeline, styleResId, saveSnapshot,
+                    windowed);
+        }
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
+
+/**
+ * TweetTimelineRecyclerAdapter is a RecyclerView Adapter which can provide Timeline Tweets to
+ * RecyclerViews. Tweets with a photo use their own view type, so photo rows are only recycled
+ * into photo rows.
+ */
+public class TweetTimelineRecyclerAdapter
+        extends TimelineRecyclerAdapter<Tweet, TweetTimelineRecyclerAdapter.TweetViewHolder> {
+    /**
+     * View type of rows for Tweets without a photo.
+     */
+    public static final int VIEW_TYPE_TEXT = 0;
+    /**
+     * View type of rows for Tweets with a photo.
+     */
+    public static final int VIEW_TYPE_PHOTO = 1;
+    // recycled rows kept per view type by shared pools, enough to refill a screen of rows
+    static final int MAX_RECYCLED_VIEWS = 10;
+
+    private final int styleResId;
+
+    /**
+     * Constructs a TweetTimelineRecyclerAdapter for the given Tweet Timeline. Text and timestamps
+     * of received Tweets are prepared in the background before the rows are bound. At most 200
+     * Tweets are loaded, use Builder#windowed for longer timelines.
+     * @param context the context for row views.
+     * @param timeline a Timeline<Tweet> providing access to Tweet data items.
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TweetTimelineRecyclerAdapter(Context context, Timeline<Tweet> timeline) {
+        this(context, timeline, false);
+    }
+
+    /**
+     * Constructs a TweetTimelineRecyclerAdapter for the given Tweet Timeline, optionally saving a
+     * snapshot of the first Tweets. When a snapshot was saved for the same user, list, search,
+     * or collection timeline, its Tweets are shown at once and then brought up to date.
+     * @param context the context for row views.
+     * @param timeline a Timeline<Tweet> providing access to Tweet data items.
+     * @param saveSnapshot true to save and restore a snapshot of the first Tweets.
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TweetTimelineRecyclerAdapter(Context context, Timeline<Tweet> timeline,
+            boolean saveSnapshot) {
+        this(context, timeline, BaseTweetView.DEFAULT_STYLE, saveSnapshot, false);
+    }
+
+    TweetTimelineRecyclerAdapter(Context context, Timeline<Tweet> timeline, int styleResId,
+            boolean saveSnapshot, boolean windowed) {
+        super(context, new TimelineDelegate<>(timeline,
+                new TweetPreformatter(BaseTweetView.getActionColor(context, styleResId)),
+                windowed ? new TweetItemCache() : null,
+                saveSnapshot ? TweetTimelineSnapshotStore.forTimeline(timeline) : null));
+        this.styleResId = styleResId;
+    }
+
+    /* for testing */
+    TweetTimelineRecyclerAdapter(Context context, TimelineDelegate<Tweet> delegate) {
+        super(context, delegate);
+        styleResId = BaseTweetView.DEFAULT_STYLE;
+    }
+
+    /**
+     * Creates a RecycledViewPool for Tweet rows. Setting the same pool on the RecyclerViews of
+     * several TweetTimelineRecyclerAdapters in one Activity, with
+     * RecyclerView#setRecycledViewPool, lets the timelines reuse each other's rows instead of
+     * inflating their own. Only share a pool between adapters which create the same views for
+     * each view type.
+     * @return a new pool
+     */
+    public static RecyclerView.RecycledViewPool newRecycledViewPool() {
+        final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(VIEW_TYPE_TEXT, MAX_RECYCLED_VIEWS);
+        pool.setMaxRecycledViews(VIEW_TYPE_PHOTO, MAX_RECYCLED_VIEWS);
+        return pool;
+    }
+
+    /**
+     * Returns VIEW_TYPE_PHOTO for Tweets with a photo and VIEW_TYPE_TEXT otherwise. Tweets which
+     * are being loaded back use VIEW_TYPE_TEXT until they are loaded.
+     */
+    @Override
+    public int getItemViewType(int position) {
+        // peek since RecyclerView asks for view types of rows it is not about to bind
+        final Tweet displayTweet = TweetUtils.getDisplayTweet(peekItem(position));
+        if (displayTweet != null && TweetTextUtils.hasPhotoUrl(displayTweet.entities)) {
+            return VIEW_TYPE_PHOTO;
+        }
+        return VIEW_TYPE_TEXT;
+    }
+
+    /**
+     * Creates a holder for a CompactTweetView in the adapter's view style by default, with its
+     * photo shown for VIEW_TYPE_PHOTO rows and hidden for VIEW_TYPE_TEXT rows, so binding a
+     * row never switches it between the two layouts. Override to provide another view for Tweet
+     * items.
+     */
+    @Override
+    public TweetViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        final BaseTweetView tweetView = new CompactTweetView(context, (Tweet) null,
+                styleResId);
+        tweetView.mediaPhotoView.setVisibility(
+                viewType == VIEW_TYPE_PHOTO ? View.VISIBLE : View.GONE);
+        tweetView.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        return new TweetViewHolder(tweetView);
+    }
+
+    @Override
+    public void onBindViewHolder(TweetViewHolder holder, int position) {
+        holder.tweetView.setTweet(getItem(position));
+    }
+
+    /**
+     * ViewHolder for a Tweet row.
+     */
+    public static class TweetViewHolder extends RecyclerView.ViewHolder {
+        public final BaseTweetView tweetView;
+
+        public TweetViewHolder(BaseTweetView tweetView) {
+            super(tweetView);
+            this.tweetView = tweetView;
+        }
+    }
+
+    /**
+     * TweetTimelineRecyclerAdapter Builder.
+     */
+    public static class Builder extends TweetTimelineAdapterBuilder<Builder> {
+        /**
+         * Constructs a Builder.
+         * @param context the context for row views.
+         */
+        public Builder(Context context) {
+            super(context);
+        }
+
+        /**
+         * Builds a TweetTimelineRecyclerAdapter from the Builder parameters.
+         * @return a TweetTimelineRecyclerAdapter
+         * @throws java.lang.IllegalArgumentException if timeline is null
+         */
+        public TweetTimelineRecyclerAdapter build() {
+            return new TweetTimelineRecyclerAdapter(context, timeline, styleResId, saveSnapshot,
+                    windowed);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.twitter.sdk.android.core.models.SafeListAdapter;
+import com.twitter.sdk.android.core.models.SafeMapAdapter;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineSnapshot;
+import com.twitter.sdk.android.tweetui.internal.TimelineSnapshotStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.fabric.sdk.android.Fabric;
+import io.fabric.sdk.android.services.common.CommonUtils;
+import io.fabric.sdk.android.services.persistence.FileStore;
+import io.fabric.sdk.android.services.persistence.FileStoreImpl;
+
+/**
+ * Stores the snapshot of one Tweet timeline in a gzipped binary file, named by a key identifying
+ * the timeline. The file holds the cursors followed by length prefixed json Tweets.
+ *
+ * Snapshots are written on the executor, only the most recent pending snapshot is written.
+ * Writes are serialized, the executor may start a write while the previous one is still running.
+ */
+class TweetTimelineSnapshotStore implements TimelineSnapshotStore<Tweet> {
+    private static final String TAG = TweetUi.LOGTAG;
+    static final String SNAPSHOT_DIR_NAME = "timeline_snapshots";
+    static final String TEMP_FILE_EXTENSION = ".tmp";
+    static final int FORMAT_VERSION = 1;
+    // bounds which a valid snapshot never exceeds, larger values mean the file is corrupt
+    static final int MAX_ITEMS = 1000;
+    static final int MAX_TWEET_BYTES = 64 * 1024;
+    private static final String CHARSET = "UTF-8";
+    // held while writing, shared by all stores since two stores may have the same key
+    private static final Object WRITE_LOCK = new Object();
+
+    private final FileStore fileStore;
+    private final ExecutorService executorService;
+    private final String key;
+    private final Gson gson;
+    // snapshot waiting to be written, null once the executor has taken it
+    private final AtomicReference<TimelineSnapshot<Tweet>> pendingSnapshot =
+            new AtomicReference<>();
+
+    TweetTimelineSnapshotStore(FileStore fileStore, ExecutorService executorService, String key) {
+        this.fileStore = fileStore;
+        this.executorService = executorService;
+        this.key = key;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SafeListAdapter())
+                .registerTypeAdapterFactory(new SafeMapAdapter())
+                .create();
+    }
+
+    /**
+     * Creates a store for the snapshot of a timeline.
+     * @param timeline the timeline
+     * @return the store, or null if the timeline cannot be identified or the TweetUi kit
+     * instance is not available
+     */
+    static TweetTimelineSnapshotStore forTimeline(Timeline<Tweet> timeline) {
+        final String key = keyOf(timeline);
+        if (key == null) return null;
+
+        try {
+            final TweetUi tweetUi = TweetUi.getInstance();
+            return new TweetTimelineSnapshotStore(new FileStoreImpl(tweetUi),
+                    tweetUi.getFabric().getExecutorService(), key);
+        } catch (IllegalStateException e) {
+            // TweetUi kit instance not available
+            return null;
+        }
+    }
+
+    /**
+     * Returns a key identifying the Tweets shown by the timeline, or null for timeline types
+     * which are not known.
+     */
+    static String keyOf(Timeline<Tweet> timeline) {
+        if (timeline instanceof UserTimeline) {
+            final UserTimeline userTimeline = (UserTimeline) timeline;
+            return "user:" + (userTimeline.userId != null ? userTimeline.userId
+                    : lowerCase(userTimeline.screenName))
+                    + ":" + userTimeline.includeReplies + ":" + userTimeline.includeRetweets;
+        } else if (timeline instanceof TwitterListTimeline) {
+            final TwitterListTimeline listTimeline = (TwitterListTimeline) timeline;
+            return "list:" + (listTimeline.listId != null ? listTimeline.listId
+                    : listTimeline.slug + ":" + (listTimeline.ownerId != null
+                            ? listTimeline.ownerId : lowerCase(listTimeline.ownerScreenName)))
+                    + ":" + listTimeline.includeRetweets;
+        } else if (timeline instanceof SearchTimeline) {
+            final SearchTimeline searchTimeline = (SearchTimeline) timeline;
+            return "search:" + searchTimeline.languageCode + ":" + searchTimeline.query;
+        } else if (timeline instanceof CollectionTimeline) {
+            return "collection:" + ((CollectionTimeline) timeline).collectionIdentifier;
+        }
+        return null;
+    }
+
+    private static String lowerCase(String string) {
+        return string == null ? null : string.toLowerCase(Locale.US);
+    }
+
+    @Override
+    public TimelineSnapshot<Tweet> load() {
+        final File file = getSnapshotFile();
+        if (file == null || !file.exists()) return null;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(new FileInputStream(file))));
+            return read(in);
+        } catch (IOException | JsonParseException e) {
+            Fabric.getLogger().e(TAG, "Failed to read timeline snapshot", e);
+            return null;
+        } finally {
+            CommonUtils.closeQuietly(in);
+        }
+    }
+
+    @Override
+    public void save(TimelineSnapshot<Tweet> snapshot) {
+        if (pendingSnapshot.getAndSet(snapshot) != null) {
+            // a write is already queued and will pick up this snapshot
+            return;
+        }
+        executorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                // the snapshot is taken under the lock, so an older one is never written last
+                synchronized (WRITE_LOCK) {
+                    write(pendingSnapshot.getAndSet(null));
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and renames it over the previous snapshot, so a
+     * crash never leaves a partially written snapshot behind. Must be called holding
+     * WRITE_LOCK, writes share the temporary file.
+     */
+    void write(TimelineSnapshot<Tweet> snapshot) {
+        final File file = getSnapshotFile();
+        if (snapshot == null || file == null) return;
+
+        final File temp = new File(file.getPath() + TEMP_FILE_EXTENSION);
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(temp))));
+            write(out, snapshot);
+            out.close();
+            out = null;
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            Fabric.getLogger().e(TAG, "Failed to write timeline snapshot", e);
+            temp.delete();
+        } finally {
+            CommonUtils.closeQuietly(out);
+        }
+    }
+
+    private void write(DataOutputStream out, TimelineSnapshot<Tweet> snapshot)
+            throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key);
+        writeCursor(out, snapshot.nextCursor);
+        writeCursor(out, snapshot.previousCursor);
+        out.writeInt(snapshot.items.size());
+        for (Tweet tweet : snapshot.items) {
+            final byte[] json = gson.toJson(tweet, Tweet.class).getBytes(CHARSET);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    private TimelineSnapshot<Tweet> read(DataInputStream in) throws IOException {
+        // snapshots of an older format, or of another timeline with the same hashed file name,
+        // are ignored and replaced by the next write
+        if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) return null;
+
+        final TimelineCursor nextCursor = readCursor(in);
+        final TimelineCursor previousCursor = readCursor(in);
+        final int count = readLength(in, MAX_ITEMS);
+        final List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final byte[] json = new byte[readLength(in, MAX_TWEET_BYTES)];
+            in.readFully(json);
+            final Tweet tweet = gson.fromJson(new String(json, CHARSET), Tweet.class);
+            if (tweet != null) {
+                tweets.add(tweet);
+            }
+        }
+        return new TimelineSnapshot<>(tweets, nextCursor, previousCursor);
+    }
+
+    private static int readLength(DataInputStream in, int max) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > max) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void writeCursor(DataOutputStream out, TimelineCursor cursor)
+            throws IOException {
+        writePosition(out, cursor == null ? null : cursor.minPosition);
+        writePosition(out, cursor == null ? null : cursor.maxPosition);
+    }
+
+    private static TimelineCursor readCursor(DataInputStream in) throws IOException {
+        final Long minPosition = readPosition(in);
+        final Long maxPosition = readPosition(in);
+        if (minPosition == null && maxPosition == null) return null;
+        return new TimelineCursor(minPosition, maxPosition);
+    }
+
+    private static void writePosition(DataOutputStream out, Long position) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            out.writeLong(position);
+        }
+    }
+
+    private static Long readPosition(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    /**
+     * Deletes the stored snapshot.
+     */
+    void clear() {
+        final File file = getSnapshotFile();
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    private File getSnapshotFile() {
+        final File filesDir = fileStore.getFilesDir();
+        if (filesDir == null) return null;
+
+        final File dir = new File(filesDir, SNAPSHOT_DIR_NAME);
+        if (!dir.exists() && !dir.mkdirs()) return null;
+        // keys may hold any characters, the key is also stored in the file to detect collisions
+        return new File(dir, Integer.toHexString(key.hashCode()));
+    }
+}
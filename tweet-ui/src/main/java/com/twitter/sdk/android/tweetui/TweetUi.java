@@ -17,9 +17,15 @@
 
 package com.twitter.sdk.android.tweetui;
 
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Build;
+
 import io.fabric.sdk.android.Fabric;
 import io.fabric.sdk.android.Kit;
 import io.fabric.sdk.android.services.concurrency.DependsOn;
+import io.fabric.sdk.android.services.persistence.FileStoreImpl;
 
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
@@ -55,6 +61,7 @@ public class TweetUi extends Kit<Boolean> {
     private TweetRepository tweetRepository;
     private AuthRequestQueue queue;
     private Picasso imageLoader;
+    private volatile int memoryCacheBytes = TweetRepository.DEFAULT_MEMORY_CACHE_BYTES;
 
     // Singleton class, should only be created using getInstance()
     public TweetUi() {
@@ -91,7 +98,9 @@ public class TweetUi extends Kit<Boolean> {
 
         queue = new AuthRequestQueue(twitterCore, activeSessionProvider);
         tweetRepository = new TweetRepository(this, getFabric().getExecutorService(),
-                getFabric().getMainHandler(), queue);
+                getFabric().getMainHandler(), queue, new TweetDiskCache(new FileStoreImpl(this)),
+                memoryCacheBytes);
+        registerMemoryCallbacks();
         return true;
     }
 
@@ -163,6 +172,49 @@ public class TweetUi extends Kit<Boolean> {
         return queue;
     }
 
+    /**
+     * Sets the memory budget for cached Tweets and their formatted text. Cached entries are
+     * sized by an estimate of the heap they retain. Caches are also trimmed automatically when
+     * the system reports memory pressure. May be called before or after the kit is started.
+     * @param maxBytes memory budget in bytes, the default is 512 KB
+     * @throws IllegalArgumentException if maxBytes is not positive
+     */
+    public void setMemoryCacheSize(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Memory cache size must be positive");
+        }
+        memoryCacheBytes = maxBytes;
+        if (tweetRepository != null) {
+            tweetRepository.setMemoryCacheSize(maxBytes);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    private void registerMemoryCallbacks() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) return;
+
+        getContext().getApplicationContext().registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (tweetRepository != null) {
+                    tweetRepository.trimMemory(level);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+                // intentionally blank
+            }
+
+            @Override
+            public void onLowMemory() {
+                if (tweetRepository != null) {
+                    tweetRepository.clearMemory();
+                }
+            }
+        });
+    }
+
     // Testing purposes only
     void setTweetRepository(TweetRepository tweetRepository) {
         this.tweetRepository = tweetRepository;
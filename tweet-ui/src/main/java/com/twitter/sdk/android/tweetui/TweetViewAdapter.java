@@ -71,9 +71,12 @@ public class TweetViewAdapter<T extends BaseTweetView> extends BaseAdapter {
         return tweets.get(position);
     }
 
+    /**
+     * Returns the id of the Tweet at the given position.
+     */
     @Override
     public long getItemId(int position) {
-        return position;
+        return getItem(position).id;
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import android.database.Observable;
+
+/**
+ * An Observable of ItemRangeObservers, the ranged counterpart of DataSetObservable.
+ */
+public class ItemRangeObservable extends Observable<ItemRangeObserver> {
+
+    /**
+     * Invokes ItemRangeObserver#onChanged on each observer.
+     */
+    public void notifyChanged() {
+        synchronized (mObservers) {
+            // iterate backwards in case an observer unregisters itself
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onChanged();
+            }
+        }
+    }
+
+    /**
+     * Invokes ItemRangeObserver#onItemRangeChanged on each observer.
+     */
+    public void notifyItemRangeChanged(int positionStart, int itemCount) {
+        synchronized (mObservers) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeChanged(positionStart, itemCount);
+            }
+        }
+    }
+
+    /**
+     * Invokes ItemRangeObserver#onItemRangeInserted on each observer.
+     */
+    public void notifyItemRangeInserted(int positionStart, int itemCount) {
+        synchronized (mObservers) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+    }
+
+    /**
+     * Invokes ItemRangeObserver#onItemRangeRemoved on each observer.
+     */
+    public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        synchronized (mObservers) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+/**
+ * Receives fine grained callbacks when the items managed by a TimelineDelegate change, so that
+ * adapters which support it, such as RecyclerView adapters, only rebind the affected rows.
+ * Methods are called on the main thread.
+ */
+public abstract class ItemRangeObserver {
+
+    /**
+     * Called when the items may have changed in any way.
+     */
+    public void onChanged() {
+        // do nothing
+    }
+
+    /**
+     * Called when itemCount items starting at positionStart have been replaced.
+     */
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        // do nothing
+    }
+
+    /**
+     * Called when itemCount items have been inserted, the first at positionStart.
+     */
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        // do nothing
+    }
+
+    /**
+     * Called when itemCount items starting at positionStart have been removed.
+     */
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        // do nothing
+    }
+}
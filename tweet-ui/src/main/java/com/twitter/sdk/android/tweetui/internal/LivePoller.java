@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.TwitterApiException;
+import com.twitter.sdk.android.core.TwitterException;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import io.fabric.sdk.android.ActivityLifecycleManager;
+import retrofit.client.Header;
+import retrofit.client.Response;
+
+/**
+ * LivePoller runs a poll on the main thread on a schedule driven by the rate limit headers of
+ * the previous poll response. Polls use at most half of the requests remaining in the rate limit
+ * window, spread evenly until the window resets, and back off exponentially on failures. A
+ * stale response served from the response cache, marked by a 110 Warning, counts as a failure.
+ *
+ * Polling pauses while the activity showing the timeline is stopped, or while no activity is
+ * started if that activity is not known, and stops for good once the activity is destroyed, or
+ * once every activity is destroyed if that activity is not known.
+ */
+class LivePoller implements Runnable {
+    static final String REMAINING_KEY = "x-rate-limit-remaining";
+    static final String RESET_KEY = "x-rate-limit-reset";
+    static final String WARNING_KEY = "Warning";
+    // warn-code of a stale response, served from a cache since the request failed
+    static final String STALE_WARNING_CODE = "110";
+    // polls are never closer together than this, even with plenty of requests remaining
+    static final long MIN_INTERVAL_MILLIS = 15 * 1000L;
+    // interval used when the response has no rate limit headers
+    static final long DEFAULT_INTERVAL_MILLIS = 60 * 1000L;
+    // polls are never further apart than this, a rate limit window is 15 minutes
+    static final long MAX_INTERVAL_MILLIS = 15 * 60 * 1000L;
+    // polls use one out of this many remaining requests, leaving the rest for other requests
+    static final int REMAINING_SHARE = 2;
+
+    final Handler handler;
+    final Runnable poll;
+    boolean started;
+    boolean paused;
+    boolean monitoringLifecycle;
+    // number of failed polls in a row
+    int failureCount;
+
+    /**
+     * @param handler handler for the main thread
+     * @param poll runs a poll, the result must be reported with onSuccess, onFailure or
+     *             onRejected for polling to go on
+     */
+    LivePoller(Handler handler, Runnable poll) {
+        this.handler = handler;
+        this.poll = poll;
+    }
+
+    /**
+     * Starts polling, the first poll runs after MIN_INTERVAL_MILLIS.
+     */
+    void start() {
+        if (started) return;
+
+        started = true;
+        failureCount = 0;
+        schedule(MIN_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Stops polling, a poll in flight is still reported but does not schedule another.
+     */
+    void stop() {
+        started = false;
+        handler.removeCallbacks(this);
+    }
+
+    void pause() {
+        paused = true;
+        handler.removeCallbacks(this);
+    }
+
+    /**
+     * Resumes polling, polling right away since new items may have been missed while paused.
+     */
+    void resume() {
+        if (!paused) return;
+
+        paused = false;
+        schedule(0);
+    }
+
+    /**
+     * Pauses and resumes polling as the activity is stopped and started, and stops it when the
+     * activity is destroyed. With a null activity, polling pauses while no activity of the
+     * application is started and stops once every activity is destroyed. Callbacks are only
+     * registered once and hold the poller and activity weakly, since they cannot be unregistered.
+     * @param lifecycleManager the Fabric activity lifecycle manager
+     * @param activity the activity showing the timeline, may be null
+     */
+    void monitorActivityLifecycle(ActivityLifecycleManager lifecycleManager, Activity activity) {
+        if (monitoringLifecycle || lifecycleManager == null) return;
+
+        monitoringLifecycle = lifecycleManager.registerCallbacks(
+                new LifecycleCallbacks(this, activity));
+    }
+
+    @Override
+    public void run() {
+        if (started && !paused) {
+            poll.run();
+        }
+    }
+
+    /**
+     * Schedules the next poll from the rate limit headers of the response, or as onFailure does
+     * if the response is stale since its rate limit headers are those of an earlier request.
+     * @param response the poll response, may be null
+     */
+    void onSuccess(Response response) {
+        final List<Header> headers = response == null ? null : response.getHeaders();
+        if (isStale(headers)) {
+            onFailure(null);
+            return;
+        }
+        failureCount = 0;
+        schedule(successDelay(headers, System.currentTimeMillis()));
+    }
+
+    /**
+     * Schedules the next poll after an exponential backoff, or after the rate limit window
+     * resets if that is later.
+     * @param exception the failure, may be null
+     */
+    void onFailure(TwitterException exception) {
+        failureCount++;
+        long delay = failureDelay(failureCount);
+        if (exception instanceof TwitterApiException) {
+            final Response response =
+                    ((TwitterApiException) exception).getRetrofitError().getResponse();
+            if (response != null) {
+                delay = Math.max(delay,
+                        successDelay(response.getHeaders(), System.currentTimeMillis()));
+            }
+        }
+        schedule(delay);
+    }
+
+    /**
+     * Schedules the next poll for a poll which was not started, for instance because a refresh
+     * was in flight.
+     */
+    void onRejected() {
+        schedule(MIN_INTERVAL_MILLIS);
+    }
+
+    void schedule(long delayMillis) {
+        handler.removeCallbacks(this);
+        if (started && !paused) {
+            handler.postDelayed(this, delayMillis);
+        }
+    }
+
+    /**
+     * Returns the delay until the next poll given the rate limit headers of the last response.
+     * @param headers response headers, may be null
+     * @param nowMillis current time in milliseconds
+     */
+    static long successDelay(List<Header> headers, long nowMillis) {
+        int remaining = -1;
+        long resetSeconds = -1;
+        if (headers != null) {
+            try {
+                for (Header header : headers) {
+                    if (REMAINING_KEY.equalsIgnoreCase(header.getName())) {
+                        remaining = Integer.parseInt(header.getValue());
+                    } else if (RESET_KEY.equalsIgnoreCase(header.getName())) {
+                        resetSeconds = Long.parseLong(header.getValue());
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return DEFAULT_INTERVAL_MILLIS;
+            }
+        }
+        if (remaining < 0 || resetSeconds < 0) return DEFAULT_INTERVAL_MILLIS;
+
+        final long windowMillis = resetSeconds * 1000L - nowMillis;
+        if (windowMillis <= 0) return MIN_INTERVAL_MILLIS;
+        if (remaining == 0) return clamp(windowMillis);
+
+        return clamp(windowMillis * REMAINING_SHARE / remaining);
+    }
+
+    /**
+     * Returns true if the headers carry a stale response Warning.
+     * @param headers response headers, may be null
+     */
+    static boolean isStale(List<Header> headers) {
+        if (headers == null) return false;
+
+        for (Header header : headers) {
+            if (WARNING_KEY.equalsIgnoreCase(header.getName()) && header.getValue() != null
+                    && header.getValue().startsWith(STALE_WARNING_CODE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns DEFAULT_INTERVAL_MILLIS doubled for each failure after the first, at most
+     * MAX_INTERVAL_MILLIS.
+     */
+    static long failureDelay(int failureCount) {
+        final int doublings = Math.min(Math.max(failureCount - 1, 0), 4);
+        return clamp(DEFAULT_INTERVAL_MILLIS << doublings);
+    }
+
+    private static long clamp(long delayMillis) {
+        return Math.max(MIN_INTERVAL_MILLIS, Math.min(MAX_INTERVAL_MILLIS, delayMillis));
+    }
+
+    static class LifecycleCallbacks extends ActivityLifecycleManager.Callbacks {
+        final WeakReference<LivePoller> pollerRef;
+        final WeakReference<Activity> activityRef;
+        final boolean anyActivity;
+        // started activities when the activity is not known, counted from start and stop events
+        // only, since registering may come before or after the current activity starts
+        int startedCount;
+        // created activities when the activity is not known, the current one is assumed created
+        // since callbacks are registered from it
+        int createdCount = 1;
+
+        LifecycleCallbacks(LivePoller poller, Activity activity) {
+            pollerRef = new WeakReference<>(poller);
+            activityRef = new WeakReference<>(activity);
+            anyActivity = activity == null;
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle bundle) {
+            if (anyActivity) {
+                createdCount++;
+            }
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+            final LivePoller poller = pollerRef.get();
+            if (poller == null) return;
+
+            if (anyActivity) {
+                startedCount++;
+                poller.resume();
+            } else if (activity == activityRef.get()) {
+                poller.resume();
+            }
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            final LivePoller poller = pollerRef.get();
+            if (poller == null) return;
+
+            if (anyActivity) {
+                startedCount = Math.max(0, startedCount - 1);
+                if (startedCount == 0) {
+                    poller.pause();
+                }
+            } else if (activity == activityRef.get()) {
+                poller.pause();
+            }
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            final LivePoller poller = pollerRef.get();
+            if (poller == null) return;
+
+            if (anyActivity) {
+                createdCount = Math.max(0, createdCount - 1);
+                if (createdCount == 0) {
+                    poller.stop();
+                }
+            } else if (activity == activityRef.get()) {
+                poller.stop();
+            }
+        }
+    }
+}
@@ -17,33 +17,113 @@
 
 package com.twitter.sdk.android.tweetui.internal;
 
+import android.app.Activity;
+import android.content.Context;
 import android.database.DataSetObservable;
 import android.database.DataSetObserver;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Identifiable;
+import com.twitter.sdk.android.tweetui.LoadCallback;
+import com.twitter.sdk.android.tweetui.NewItemsListener;
 import com.twitter.sdk.android.tweetui.Timeline;
+import com.twitter.sdk.android.tweetui.TimelineCursor;
 import com.twitter.sdk.android.tweetui.TimelineResult;
+import com.twitter.sdk.android.tweetui.TweetUi;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.fabric.sdk.android.ActivityLifecycleManager;
 
 /**
  * TimelineDelegate manages timeline data items and loads items from a Timeline. This logic is
  * common to TimelineListAdapter and TimelineRecyclerAdapter.
+ *
+ * Without an item cache, at most CAPACITY items are loaded. With an item cache the timeline is
+ * windowed: any number of items may be loaded, but only about WINDOW_SIZE items around the most
+ * recently requested position are held in memory. Items further away are handed to the cache and
+ * evicted, keeping their ids and positions, and are loaded back when they are requested again.
+ * A windowed delegate also keeps its items on refresh.
+ *
+ * When a page of next items comes back full, or the latest items of a windowed refresh do not
+ * reach the loaded items, there may be items missing between the received items and the loaded
+ * items. A gap is marked below the last received item and filled with previous items once a
+ * position near it is requested.
+ *
+ * With a snapshot store, the first items and the cursors are saved whenever a page is received,
+ * as long as there are at most MAX_SNAPSHOT_ITEMS items, and can be restored before the first
+ * refresh to show items without waiting for the network.
+ *
+ * In live mode next items are polled on a schedule which keeps within the rate limit. Polled
+ * items are held back as new items, so rows do not move under the user, until showNewItems is
+ * called. At most MAX_NEW_ITEMS are held back, polling skips while there are that many.
  * @param <T> the item type
  */
 public class TimelineDelegate<T extends Identifiable> {
-    // once capacity is exceeded, additional items will not be loaded
+    // once capacity is exceeded, additional items will not be loaded, unless windowed
     static final long CAPACITY = 200L;
+    // number of items held in memory by a windowed delegate
+    static final int WINDOW_SIZE = 200;
+    // requesting a position this close to an evicted item loads evicted items back
+    static final int HYDRATE_DISTANCE = 25;
+    // evicted items up to this far on either side of the requested position are loaded back
+    static final int HYDRATE_RADIUS = 50;
+    // previous items are requested once a position this close to the end is requested
+    static final int DEFAULT_PREFETCH_DISTANCE = 10;
+    // snapshots are restored on the main thread, so only the first few pages are saved
+    static final int MAX_SNAPSHOT_ITEMS = 50;
+    // live polls are skipped while this many polled items are waiting to be shown
+    static final int MAX_NEW_ITEMS = 100;
     // timeline that next and previous items are loaded from
     final Timeline<T> timeline;
     // Observable for Adapter DataSetObservers (for ListViews)
     final DataSetObservable listAdapterObservable;
+    // Observable for ItemRangeObservers (for RecyclerViews)
+    final ItemRangeObservable itemRangeObservable = new ItemRangeObservable();
     final TimelineStateHolder timelineStateHolder;
+    // optional stage which prepares received items before they are added, may be null
+    final TimelineItemProcessor<T> itemProcessor;
+    // optional cache for evicted items which enables windowing, may be null
+    final TimelineItemCache<T> itemCache;
+    // optional store for a snapshot of the first items, may be null
+    final TimelineSnapshotStore<T> snapshotStore;
 
-    LinkedList<T> itemList;
+    // items in timeline order, addressable by position and by item id
+    final TimelineItemList<T> itemList;
+    // position most recently requested through getItem, the window is kept around it
+    int anchorPosition;
+    boolean hydrateInFlight;
+    // failed loads back in a row, and the time before which evicted items are not requested again
+    int hydrateFailureCount;
+    long hydrateRetryMillis;
+    int prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+    // true if previous items should be requested as soon as a request in flight finishes
+    boolean previousQueued;
+    // latest position which queued previous items, rechecked before they are requested
+    int queuedPosition;
+    // gaps in the timeline, from the id of the item above a gap to the position which previous
+    // items are requested from to fill it
+    final Map<Long, Long> gaps = new HashMap<>();
+    boolean gapFillInFlight;
+    // largest number of items received in one page, a page this large may have left a gap
+    int largestPageSize;
+    // polls next items in live mode, created when live mode is first started
+    LivePoller livePoller;
+    // polled items which have not been shown yet, newest first
+    final List<T> newItems = new ArrayList<>();
+    // cursor of a full page of polled items, which may not reach the items below the new items
+    TimelineCursor newItemsGapCursor;
+    NewItemsListener newItemsListener;
 
     /**
      * Constructs a TimelineDelegate with a timeline for requesting data.
@@ -51,14 +131,72 @@ public class TimelineDelegate<T extends Identifiable> {
      * @throws java.lang.IllegalArgumentException if timeline is null
      */
     public TimelineDelegate(Timeline<T> timeline) {
-        this(timeline, null, null);
+        this(timeline, null, null, null, null);
     }
 
-    TimelineDelegate(Timeline<T> timeline, DataSetObservable observable, LinkedList<T> items) {
+    /**
+     * Constructs a TimelineDelegate with a timeline for requesting data and a processor which
+     * prepares each received page before it is added and observers are notified.
+     * @param timeline Timeline source
+     * @param itemProcessor processor for received items, may be null
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TimelineDelegate(Timeline<T> timeline, TimelineItemProcessor<T> itemProcessor) {
+        this(timeline, null, null, itemProcessor, null);
+    }
+
+    /**
+     * Constructs a windowed TimelineDelegate which is not limited to CAPACITY items. Items far
+     * from the most recently requested position are put into the item cache and evicted, then
+     * loaded back from it when they are requested again.
+     * @param timeline Timeline source
+     * @param itemProcessor processor for received items, may be null
+     * @param itemCache cache for evicted items, may be null to load at most CAPACITY items
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TimelineDelegate(Timeline<T> timeline, TimelineItemProcessor<T> itemProcessor,
+            TimelineItemCache<T> itemCache) {
+        this(timeline, null, null, itemProcessor, itemCache);
+    }
+
+    /**
+     * Constructs a windowed TimelineDelegate which saves a snapshot of its first items to the
+     * snapshot store, see restoreSnapshot.
+     * @param timeline Timeline source
+     * @param itemProcessor processor for received items, may be null
+     * @param itemCache cache for evicted items, may be null to load at most CAPACITY items
+     * @param snapshotStore store for the snapshot of this timeline, may be null
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    public TimelineDelegate(Timeline<T> timeline, TimelineItemProcessor<T> itemProcessor,
+            TimelineItemCache<T> itemCache, TimelineSnapshotStore<T> snapshotStore) {
+        this(timeline, null, null, itemProcessor, itemCache, snapshotStore);
+    }
+
+    TimelineDelegate(Timeline<T> timeline, DataSetObservable observable, List<T> items) {
+        this(timeline, observable, items, null);
+    }
+
+    TimelineDelegate(Timeline<T> timeline, DataSetObservable observable, List<T> items,
+            TimelineItemProcessor<T> itemProcessor) {
+        this(timeline, observable, items, itemProcessor, null);
+    }
+
+    TimelineDelegate(Timeline<T> timeline, DataSetObservable observable, List<T> items,
+            TimelineItemProcessor<T> itemProcessor, TimelineItemCache<T> itemCache) {
+        this(timeline, observable, items, itemProcessor, itemCache, null);
+    }
+
+    TimelineDelegate(Timeline<T> timeline, DataSetObservable observable, List<T> items,
+            TimelineItemProcessor<T> itemProcessor, TimelineItemCache<T> itemCache,
+            TimelineSnapshotStore<T> snapshotStore) {
         if (timeline == null) {
             throw new IllegalArgumentException("Timeline must not be null");
         }
         this.timeline = timeline;
+        this.itemProcessor = itemProcessor;
+        this.itemCache = itemCache;
+        this.snapshotStore = snapshotStore;
         this.timelineStateHolder = new TimelineStateHolder();
         if (observable == null) {
             listAdapterObservable = new DataSetObservable();
@@ -67,28 +205,70 @@ public class TimelineDelegate<T extends Identifiable> {
         }
 
         if (items == null) {
-            itemList = new LinkedList<>();
+            itemList = new TimelineItemList<>();
         } else {
-            itemList = items;
+            itemList = new TimelineItemList<>(items);
         }
     }
 
     /**
-     * Triggers loading the latest items and calls through to the developer callback. If items are
-     * received, they replace existing items.
+     * Triggers loading the latest items and calls through to the developer callback. Existing
+     * items which are received again are updated in place and newer items are inserted above
+     * them. Otherwise received items replace existing items, except that a windowed delegate
+     * keeps existing items below the latest items, with a gap between them if they do not meet.
      */
     public void refresh(Callback<TimelineResult<T>> developerCb) {
-        // reset scrollStateHolder cursors to be null, loadNext will get latest items
-        timelineStateHolder.resetCursors();
-        // load latest timeline items and replace existing items
-        loadNext(timelineStateHolder.positionForNext(),
-                new RefreshCallback(developerCb, timelineStateHolder));
+        // polled items go first, the latest items are reconciled with them
+        showNewItems();
+        // an explicit refresh also retries evicted items which failed to load back
+        hydrateRetryMillis = 0L;
+        if (itemCache == null) {
+            // reset scrollStateHolder cursors to be null, loadNext will get latest items
+            timelineStateHolder.resetCursors();
+        }
+        // load latest timeline items
+        loadNext(null, new RefreshCallback(developerCb, timelineStateHolder));
+    }
+
+    /**
+     * Restores the items and cursors saved to the snapshot store and notifies observers of the
+     * restored items. Does nothing if there is no snapshot store or snapshot, or if items have
+     * already been loaded. Call refresh afterwards to bring the restored items up to date.
+     */
+    public void restoreSnapshot() {
+        if (snapshotStore == null || !itemList.isEmpty()) return;
+
+        final TimelineSnapshot<T> snapshot = snapshotStore.load();
+        if (snapshot == null || snapshot.items.isEmpty()) return;
+
+        itemList.addAll(snapshot.items);
+        timelineStateHolder.setNextCursor(snapshot.nextCursor);
+        timelineStateHolder.setPreviousCursor(snapshot.previousCursor);
+        notifyItemRangeInserted(0, snapshot.items.size());
+    }
+
+    /**
+     * Saves the items and cursors to the snapshot store, if there is one and all items are held
+     * and fit in MAX_SNAPSHOT_ITEMS. Larger timelines keep the snapshot taken before they grew,
+     * since the cursor for the end of the first items is no longer known. Timelines with gaps
+     * are not saved, the gaps would be lost, nor are timelines with new items which have not been
+     * shown, since the next cursor is already past them.
+     */
+    void saveSnapshot() {
+        if (snapshotStore == null || itemList.size() > MAX_SNAPSHOT_ITEMS
+                || itemList.materializedCount() < itemList.size() || !gaps.isEmpty()
+                || !newItems.isEmpty()) {
+            return;
+        }
+        snapshotStore.save(new TimelineSnapshot<>(new ArrayList<>(itemList),
+                timelineStateHolder.nextCursor, timelineStateHolder.previousCursor));
     }
 
     /**
      * Triggers loading next items and calls through to the developer callback.
      */
     public void next(Callback<TimelineResult<T>> developerCb) {
+        showNewItems();
         loadNext(timelineStateHolder.positionForNext(),
                 new NextCallback(developerCb, timelineStateHolder));
     }
@@ -101,6 +281,109 @@ public class TimelineDelegate<T extends Identifiable> {
                 new PreviousCallback(timelineStateHolder));
     }
 
+    /**
+     * Starts polling for next items, which are held back as new items until showNewItems is
+     * called. Polling pauses while the activity is stopped and stops when it is destroyed.
+     * Without a lifecycle manager or an activity, call stopLive once the timeline is no longer
+     * shown.
+     * @param lifecycleManager the Fabric activity lifecycle manager, may be null to never pause
+     *                         or stop
+     * @param activity the activity showing the timeline, may be null to pause while no activity
+     *                 of the application is started and stop once every activity is destroyed
+     */
+    public void startLive(ActivityLifecycleManager lifecycleManager, Activity activity) {
+        if (livePoller == null) {
+            livePoller = new LivePoller(new Handler(Looper.getMainLooper()), new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            });
+        }
+        livePoller.monitorActivityLifecycle(lifecycleManager, activity);
+        livePoller.start();
+    }
+
+    /**
+     * Starts polling for next items with the TweetUi activity lifecycle manager, pausing and
+     * stopping with the context if it is an Activity.
+     * @param context the context of the rows showing the timeline
+     * @throws java.lang.IllegalStateException if TweetUi has not been initialized
+     */
+    public void startLive(Context context) {
+        final Activity activity = context instanceof Activity ? (Activity) context : null;
+        startLive(TweetUi.getInstance().getFabric().getActivityLifecycleManager(), activity);
+    }
+
+    /**
+     * Stops polling for next items. New items which were already received are kept.
+     */
+    public void stopLive() {
+        if (livePoller != null) {
+            livePoller.stop();
+        }
+    }
+
+    /**
+     * Returns true if next items are being polled.
+     */
+    public boolean isLive() {
+        return livePoller != null && livePoller.started;
+    }
+
+    /**
+     * Requests next items for live mode, unless too many new items are waiting to be shown.
+     */
+    void poll() {
+        if (newItems.size() >= MAX_NEW_ITEMS) {
+            livePoller.onRejected();
+            return;
+        }
+        loadNext(timelineStateHolder.positionForNext(), new PollCallback(timelineStateHolder));
+    }
+
+    /**
+     * Returns the number of polled items waiting to be shown.
+     */
+    public int getNewItemCount() {
+        return newItems.size();
+    }
+
+    /**
+     * Prepends the polled items waiting to be shown and notifies observers of the inserted
+     * items. Does nothing if there are none.
+     */
+    public void showNewItems() {
+        if (newItems.isEmpty()) return;
+
+        final List<T> items = new ArrayList<>(newItems);
+        final boolean gap = newItemsGapCursor != null && !itemList.isEmpty();
+        newItems.clear();
+        itemList.prependAll(items);
+        if (gap) {
+            addGap(items, newItemsGapCursor);
+        }
+        newItemsGapCursor = null;
+        trimWindow();
+        notifyItemRangeInserted(0, items.size());
+        saveSnapshot();
+        notifyNewItems();
+    }
+
+    /**
+     * Sets the listener told how many polled items are waiting to be shown.
+     * @param listener the listener, may be null
+     */
+    public void setNewItemsListener(NewItemsListener listener) {
+        newItemsListener = listener;
+    }
+
+    void notifyNewItems() {
+        if (newItemsListener != null) {
+            newItemsListener.onNewItems(newItems.size());
+        }
+    }
+
     /**
      * Returns the number of items in the data set.
      * @return Count of items.
@@ -112,73 +395,406 @@ public class TimelineDelegate<T extends Identifiable> {
     /**
      * Gets the data item associated with the specified position in the data set.
      * @param position The position of the item within the adapter's data set.
-     * @return The data at the specified position.
+     * @return The data at the specified position, or null if the delegate is windowed and the
+     * item is being loaded back. Observers are notified once it has been loaded.
      */
     public T getItem(int position) {
-        if (isLastPosition(position)) {
-            previous();
+        if (isPrefetchPosition(position)) {
+            prefetchPrevious(position);
+        }
+        if (itemCache != null) {
+            anchorPosition = position;
+            hydrateAround(position);
         }
+        fillGapNear(position);
         return itemList.get(position);
     }
 
+    /**
+     * Gets the data item at the specified position without prefetching, loading back evicted
+     * items, or filling gaps, for callers which may look at rows which are not being shown.
+     * @param position The position of the item within the adapter's data set.
+     * @return The data at the specified position, or null if it has been evicted.
+     */
+    public T peekItem(int position) {
+        return itemList.get(position);
+    }
+
+    /**
+     * Returns true if items may be missing below the item at the position, until the gap is
+     * filled.
+     * @param position The position of the item within the adapter's data set.
+     */
+    public boolean hasGapAfter(int position) {
+        return gaps.containsKey(itemList.getId(position));
+    }
+
     /**
      * Gets the row id associated with the specified position in the list.
      * @param position The position of the item within the adapter's data set.
      * @return The id of the item at the specified position.
      */
     public long getItemId(int position) {
-        final Identifiable item = itemList.get(position);
-        return item.getId();
+        return itemList.getId(position);
+    }
+
+    /**
+     * Gets a row id for the specified position which, unlike the item id, is unique even when
+     * the timeline holds the same item twice. A row keeps its id while its item is updated in
+     * place or items are inserted or removed around it.
+     * @param position The position of the item within the adapter's data set.
+     * @return The row id of the item at the specified position.
+     */
+    public long getRowId(int position) {
+        return itemList.getRowId(position);
+    }
+
+    /**
+     * Gets the position of the item with the given id.
+     * @param itemId The id of the item.
+     * @return The position of the item within the adapter's data set or -1 if it is not present.
+     */
+    public int getItemPosition(long itemId) {
+        return itemList.positionOf(itemId);
+    }
+
+    /**
+     * Replaces the item with the same id as the given item and notifies observers. Does nothing
+     * if no item has that id.
+     * @param item The updated item.
+     */
+    public void updateItem(T item) {
+        if (item == null) return;
+
+        final int position = itemList.positionOf(item.getId());
+        if (position < 0) return;
+
+        itemList.set(position, item);
+        notifyItemRangeChanged(position, 1);
     }
 
 
     /**
-     * Returns true if the itemList size is below the MAX_ITEMS capacity, false otherwise.
+     * Returns true if the delegate is windowed or the itemList size is below the CAPACITY, false
+     * otherwise.
      */
     boolean withinMaxCapacity() {
-        return itemList.size() < CAPACITY;
+        return itemCache != null || itemList.size() < CAPACITY;
+    }
+
+    /**
+     * Sets how close to the end of the loaded items a requested position must be to start
+     * loading previous items. Larger distances let fast scrolling run into fewer loading stalls
+     * at the cost of loading items which may never be shown.
+     * @param prefetchDistance number of items from the last item, 0 to only load previous items
+     *                         once the last item is requested.
+     * @throws java.lang.IllegalArgumentException if prefetchDistance is negative
+     */
+    public void setPrefetchDistance(int prefetchDistance) {
+        if (prefetchDistance < 0) {
+            throw new IllegalArgumentException("Prefetch distance must not be negative");
+        }
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    /**
+     * Returns true if the position is within prefetchDistance of the last item in itemList,
+     * false otherwise.
+     */
+    boolean isPrefetchPosition(int position) {
+        return position >= itemList.size() - 1 - prefetchDistance;
+    }
+
+    /**
+     * Loads previous items. If previous items are already loading, or a refresh is in flight and
+     * the cursor for previous items is not known yet, previous items are instead requested once
+     * a request succeeds, if the position is then still within prefetchDistance of the last
+     * item. So a second page is only loaded if the first one did not move the last item far
+     * enough from the requested positions.
+     * @param position the requested position
+     */
+    void prefetchPrevious(int position) {
+        if (timelineStateHolder.previousRequestInFlight.get()
+                || (timelineStateHolder.nextRequestInFlight.get()
+                        && timelineStateHolder.positionForPrevious() == null)) {
+            previousQueued = true;
+            queuedPosition = position;
+        } else {
+            previous();
+        }
+    }
+
+    /**
+     * Loads back the evicted items around the position if the position is within
+     * HYDRATE_DISTANCE of an evicted item. Only one load is in flight at a time, and after a
+     * failed load none is started until its backoff delay has passed.
+     */
+    void hydrateAround(int position) {
+        if (hydrateInFlight || System.currentTimeMillis() < hydrateRetryMillis) return;
+
+        final int last = itemList.size() - 1;
+        if (!itemList.isEvicted(position)
+                && !itemList.isEvicted(Math.max(0, position - HYDRATE_DISTANCE))
+                && !itemList.isEvicted(Math.min(last, position + HYDRATE_DISTANCE))) {
+            return;
+        }
+
+        final int from = Math.max(0, position - HYDRATE_RADIUS);
+        final int to = Math.min(last, position + HYDRATE_RADIUS);
+        final List<Long> ids = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            if (itemList.isEvicted(i)) {
+                ids.add(itemList.getId(i));
+            }
+        }
+        hydrateInFlight = true;
+        itemCache.load(ids, new HydrateCallback(ids));
+    }
+
+    /**
+     * Puts items more than half a window away from the anchor position into the item cache and
+     * evicts them, once more than WINDOW_SIZE items are held.
+     */
+    void trimWindow() {
+        if (itemCache == null || itemList.materializedCount() <= WINDOW_SIZE) return;
+
+        final int size = itemList.size();
+        final int from = Math.max(0, Math.min(anchorPosition - WINDOW_SIZE / 2,
+                size - WINDOW_SIZE));
+        final int to = Math.min(size, from + WINDOW_SIZE);
+        final List<T> evicted = new ArrayList<>();
+        for (int i = 0; i < from; i++) {
+            evict(i, evicted);
+        }
+        for (int i = to; i < size; i++) {
+            evict(i, evicted);
+        }
+        if (!evicted.isEmpty()) {
+            itemCache.put(evicted);
+        }
+    }
+
+    private void evict(int position, List<T> evicted) {
+        final T item = itemList.evict(position);
+        if (item != null) {
+            evicted.add(item);
+        }
+    }
+
+    /**
+     * Requests previous items to fill the gap nearest the position if the position is within
+     * prefetchDistance of it. Gaps whose item has been removed are dropped. Only one fill is in
+     * flight at a time.
+     */
+    void fillGapNear(int position) {
+        if (gapFillInFlight || gaps.isEmpty()) return;
+
+        final Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Long, Long> gap = iterator.next();
+            final int gapPosition = itemList.positionOf(gap.getKey());
+            if (gapPosition < 0) {
+                iterator.remove();
+            } else if (position >= gapPosition - prefetchDistance
+                    && position <= gapPosition + 1 + prefetchDistance && withinMaxCapacity()) {
+                gapFillInFlight = true;
+                timeline.previous(gap.getValue(), processItems(new GapCallback(gap.getKey())));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks a gap below the last of the items, previous items are requested from the cursor
+     * minPosition to fill it.
+     */
+    void addGap(List<T> items, TimelineCursor timelineCursor) {
+        if (items.isEmpty() || timelineCursor == null) return;
+        gaps.put(items.get(items.size() - 1).getId(), timelineCursor.minPosition);
     }
 
     /**
-     * Returns true if the position is for the last item in itemList, false otherwise.
+     * Returns true if any of the items is already loaded.
      */
-    boolean isLastPosition(int position) {
-        return position == (itemList.size() - 1);
+    boolean containsAny(List<T> items) {
+        for (T item : items) {
+            if (itemList.positionOf(item.getId()) >= 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Handles previous items received to fill a gap. Items are inserted below the item above the
+     * gap up to the first item which is already loaded, which closes the gap. If none of them is
+     * loaded, the gap moves below the inserted items.
+     */
+    class GapCallback extends Callback<TimelineResult<T>> {
+        // id of the item above the gap
+        final long gapId;
+
+        GapCallback(long gapId) {
+            this.gapId = gapId;
+        }
+
+        @Override
+        public void success(Result<TimelineResult<T>> result) {
+            gapFillInFlight = false;
+            final Long fillPosition = gaps.remove(gapId);
+            final int position = itemList.positionOf(gapId);
+            // the gap was dropped while loading, for instance by a refresh replacing the items
+            if (fillPosition == null || position < 0) return;
+
+            final List<T> items = result.data.items;
+            largestPageSize = Math.max(largestPageSize, items.size());
+            int newCount = items.size();
+            for (int i = 0; i < items.size(); i++) {
+                if (itemList.positionOf(items.get(i).getId()) >= 0) {
+                    newCount = i;
+                    break;
+                }
+            }
+            if (newCount == 0) return;
+
+            final List<T> newItems = items.subList(0, newCount);
+            itemList.addAll(position + 1, newItems);
+            if (newCount == items.size()) {
+                addGap(newItems, result.data.timelineCursor);
+            }
+            trimWindow();
+            notifyItemRangeInserted(position + 1, newCount);
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            // the gap stays and is filled again on the next getItem near it
+            gapFillInFlight = false;
+        }
+    }
+
+    /**
+     * Handles loaded back items. Items are placed by id since positions may have shifted while
+     * they were loading. Items which could no longer be found, such as deleted Tweets, are
+     * removed.
+     */
+    class HydrateCallback implements LoadCallback<List<T>> {
+        final List<Long> ids;
+
+        HydrateCallback(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public void success(List<T> items) {
+            hydrateInFlight = false;
+            hydrateFailureCount = 0;
+            final Set<Long> loadedIds = new HashSet<>();
+            for (T item : items) {
+                loadedIds.add(item.getId());
+                final int position = itemList.positionOf(item.getId());
+                if (position >= 0 && itemList.isEvicted(position)) {
+                    itemList.set(position, item);
+                    itemRangeObservable.notifyItemRangeChanged(position, 1);
+                }
+            }
+            for (Long id : ids) {
+                if (loadedIds.contains(id)) continue;
+
+                final int position = itemList.positionOf(id);
+                if (position >= 0 && itemList.isEvicted(position)) {
+                    itemList.remove(position);
+                    itemRangeObservable.notifyItemRangeRemoved(position, 1);
+                }
+            }
+            trimWindow();
+            listAdapterObservable.notifyChanged();
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            // evicted items stay in place and are requested again by a getItem once the backoff
+            // delay has passed, or by a refresh
+            hydrateInFlight = false;
+            hydrateFailureCount++;
+            hydrateRetryMillis = System.currentTimeMillis()
+                    + LivePoller.failureDelay(hydrateFailureCount);
+        }
     }
 
     /**
-     * Checks the capacity and sets requestInFlight before calling timeline.next.
+     * Checks the capacity and sets nextRequestInFlight before calling timeline.next. A rejected
+     * request leaves the request in flight untouched.
      */
-    void loadNext(Long minPosition, Callback<TimelineResult<T>> cb) {
+    void loadNext(Long minPosition, DefaultCallback cb) {
         if (withinMaxCapacity()) {
-            if (timelineStateHolder.startTimelineRequest()) {
-                timeline.next(minPosition, cb);
+            if (timelineStateHolder.startNextRequest()) {
+                timeline.next(minPosition, processItems(cb));
             } else {
-                cb.failure(new TwitterException("Request already in flight"));
+                cb.reject(new TwitterException("Request already in flight"));
             }
         } else {
-            cb.failure(new TwitterException("Max capacity reached"));
+            cb.reject(new TwitterException("Max capacity reached"));
         }
     }
 
     /**
-     * Checks the capacity and sets requestInFlight before calling timeline.previous.
+     * Checks the capacity and sets previousRequestInFlight before calling timeline.previous. A
+     * rejected request leaves the request in flight untouched.
      */
-    void loadPrevious(Long maxPosition, Callback<TimelineResult<T>> cb) {
+    void loadPrevious(Long maxPosition, DefaultCallback cb) {
         if (withinMaxCapacity()) {
-            if (timelineStateHolder.startTimelineRequest()) {
-                timeline.previous(maxPosition, cb);
+            if (timelineStateHolder.startPreviousRequest()) {
+                timeline.previous(maxPosition, processItems(cb));
             } else {
-                cb.failure(new TwitterException("Request already in flight"));
+                cb.reject(new TwitterException("Request already in flight"));
             }
         } else {
-            cb.failure(new TwitterException("Max capacity reached"));
+            cb.reject(new TwitterException("Max capacity reached"));
         }
     }
 
     /**
-     * TimelineDelegate.DefaultCallback is a Callback which handles setting requestInFlight to
-     * false on both success and failure and calling through to a wrapped developer Callback.
+     * Wraps the callback so received items pass through the item processor first, if one is set.
+     */
+    Callback<TimelineResult<T>> processItems(Callback<TimelineResult<T>> cb) {
+        if (itemProcessor == null) return cb;
+        return new ProcessItemsCallback(cb);
+    }
+
+    /**
+     * Hands received items to the item processor and calls through to the wrapped callback once
+     * they have been processed. Failures are passed through immediately.
+     */
+    class ProcessItemsCallback extends Callback<TimelineResult<T>> {
+        final Callback<TimelineResult<T>> cb;
+
+        ProcessItemsCallback(Callback<TimelineResult<T>> cb) {
+            this.cb = cb;
+        }
+
+        @Override
+        public void success(final Result<TimelineResult<T>> result) {
+            if (result.data.items.isEmpty()) {
+                cb.success(result);
+                return;
+            }
+            itemProcessor.process(result.data.items, new Runnable() {
+                @Override
+                public void run() {
+                    cb.success(result);
+                }
+            });
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            cb.failure(exception);
+        }
+    }
+
+    /**
+     * TimelineDelegate.DefaultCallback is a Callback which handles finishing the request on both
+     * success and failure and calling through to a wrapped developer Callback. On success it
+     * requests queued previous items if they are still needed.
      * Subclass methods must call through to the parent method after their custom implementation.
      */
     class DefaultCallback extends Callback<TimelineResult<T>> {
@@ -193,24 +809,46 @@ public class TimelineDelegate<T extends Identifiable> {
 
         @Override
         public void success(Result<TimelineResult<T>> result) {
-            timelineStateHolder.finishTimelineRequest();
+            finishRequest();
             if (developerCallback != null) {
                 developerCallback.success(result);
             }
+            if (previousQueued) {
+                previousQueued = false;
+                if (isPrefetchPosition(queuedPosition)) {
+                    prefetchPrevious(queuedPosition);
+                }
+            }
         }
 
         @Override
         public void failure(TwitterException exception) {
-            timelineStateHolder.finishTimelineRequest();
+            finishRequest();
+            if (developerCallback != null) {
+                developerCallback.failure(exception);
+            }
+        }
+
+        /**
+         * Calls through to the developer Callback for a request which was not started.
+         */
+        void reject(TwitterException exception) {
             if (developerCallback != null) {
                 developerCallback.failure(exception);
             }
         }
+
+        /**
+         * Clears the in flight flag of the request, subclasses clear the flag for their end.
+         */
+        void finishRequest() {
+            // intentionally blank
+        }
     }
 
     /**
      * Handles receiving next timeline items. Prepends received items to listItems, update the
-     * scrollStateHolder nextCursor, and calls notifyDataSetChanged.
+     * scrollStateHolder nextCursor, and notifies observers of the inserted items.
      */
     class NextCallback extends DefaultCallback {
 
@@ -219,24 +857,46 @@ public class TimelineDelegate<T extends Identifiable> {
             super(developerCb, timelineStateHolder);
         }
 
+        @Override
+        void finishRequest() {
+            timelineStateHolder.finishNextRequest();
+        }
+
         @Override
         public void success(Result<TimelineResult<T>> result) {
             if (result.data.items.size() > 0) {
-                final LinkedList<T> receivedItems = new LinkedList<>(result.data.items);
-                receivedItems.addAll(itemList);
-                itemList = receivedItems;
-                notifyDataSetChanged();
+                addItems(result.data.items, result.data.timelineCursor);
+                largestPageSize = Math.max(largestPageSize, result.data.items.size());
                 timelineStateHolder.setNextCursor(result.data.timelineCursor);
+                saveSnapshot();
             }
             // do nothing when zero items are received. Subsequent 'next' call does not change.
             super.success(result);
         }
+
+        void addItems(List<T> items, TimelineCursor timelineCursor) {
+            // a full page of items newer than the first item may not reach it
+            final boolean gap = !itemList.isEmpty() && largestPageSize > 0
+                    && items.size() >= largestPageSize;
+            itemList.prependAll(items);
+            if (gap) {
+                addGap(items, timelineCursor);
+            }
+            trimWindow();
+            notifyItemRangeInserted(0, items.size());
+        }
     }
 
     /**
-     * Handles receiving latest timeline items. If timeline items are received, clears listItems,
-     * sets received items, updates the scrollStateHolder nextCursor, and calls
-     * notifyDataSetChanged. If the results have no items, does nothing.
+     * Handles receiving latest timeline items. If timeline items are received, they replace
+     * listItems, the scrollStateHolder nextCursor is updated, and observers are notified. If the
+     * results have no items, does nothing.
+     *
+     * The latest items usually end with the items which were already at the top of listItems, in
+     * that case those items are kept in place and ItemRangeObservers are only notified of the
+     * newer items inserted above them and the older items removed below them. A windowed delegate
+     * keeps the older items, and when none of the latest items are loaded yet it keeps all items
+     * below the latest items and a gap.
      */
     class RefreshCallback extends NextCallback {
 
@@ -246,33 +906,161 @@ public class TimelineDelegate<T extends Identifiable> {
         }
 
         @Override
-        public void success(Result<TimelineResult<T>> result) {
-            if (result.data.items.size() > 0) {
+        void addItems(List<T> items, TimelineCursor timelineCursor) {
+            final int newCount = countNewItems(items);
+            if (newCount < 0 && itemCache != null && !itemList.isEmpty() && !containsAny(items)) {
+                itemList.prependAll(items);
+                addGap(items, timelineCursor);
+                trimWindow();
+                notifyItemRangeInserted(0, items.size());
+                return;
+            }
+            if (newCount < 0) {
+                if (itemCache != null) {
+                    // cursors were kept for the existing items, which are replaced
+                    timelineStateHolder.resetCursors();
+                }
+                gaps.clear();
                 itemList.clear();
+                itemList.addAll(items);
+                trimWindow();
+                notifyDataSetChanged();
+                return;
+            }
+
+            // refresh the retained items in place, their rows already show them
+            final int retainedCount = items.size() - newCount;
+            for (int i = 0; i < retainedCount; i++) {
+                itemList.set(i, items.get(newCount + i));
             }
+            final int removedCount = itemList.size() - retainedCount;
+            if (removedCount > 0 && itemCache == null) {
+                itemList.subList(retainedCount, itemList.size()).clear();
+                itemRangeObservable.notifyItemRangeRemoved(retainedCount, removedCount);
+            }
+            itemList.prependAll(items.subList(0, newCount));
+            trimWindow();
+            if (newCount > 0) {
+                itemRangeObservable.notifyItemRangeInserted(0, newCount);
+            }
+            listAdapterObservable.notifyChanged();
+        }
+
+        /**
+         * Returns the number of received items before the current first item, provided the
+         * received items after it match the current items in order, or -1 otherwise.
+         */
+        int countNewItems(List<T> items) {
+            if (itemList.isEmpty()) return items.size();
+
+            final long firstId = itemList.getId(0);
+            int newCount = -1;
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getId() == firstId) {
+                    newCount = i;
+                    break;
+                }
+            }
+            if (newCount < 0 || items.size() - newCount > itemList.size()) return -1;
+
+            for (int i = newCount; i < items.size(); i++) {
+                if (items.get(i).getId() != itemList.getId(i - newCount)) return -1;
+            }
+            return newCount;
+        }
+    }
+
+    /**
+     * Handles polled next items in live mode. Items are held back as new items, unless there
+     * are no items shown yet, and the next poll is scheduled. A full page of polled items may not
+     * reach the new items held back before it, which are then dropped, the gap below the page is
+     * marked once it is shown.
+     */
+    class PollCallback extends NextCallback {
+
+        PollCallback(TimelineStateHolder timelineStateHolder) {
+            super(null, timelineStateHolder);
+        }
+
+        @Override
+        public void success(Result<TimelineResult<T>> result) {
             super.success(result);
+            livePoller.onSuccess(result.response);
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            super.failure(exception);
+            livePoller.onFailure(exception);
+        }
+
+        @Override
+        void reject(TwitterException exception) {
+            super.reject(exception);
+            livePoller.onRejected();
+        }
+
+        @Override
+        void addItems(List<T> items, TimelineCursor timelineCursor) {
+            if (itemList.isEmpty() && newItems.isEmpty()) {
+                super.addItems(items, timelineCursor);
+                return;
+            }
+            if (largestPageSize > 0 && items.size() >= largestPageSize) {
+                newItems.clear();
+                newItemsGapCursor = timelineCursor;
+            }
+            newItems.addAll(0, items);
+            notifyNewItems();
         }
     }
 
     /**
-     * Handles appending listItems and updating the scrollStateHolder previousCursor.
+     * Handles appending listItems and updating the scrollStateHolder previousCursor. Items are
+     * dropped if the end of listItems changed while they were loading, as a refresh does, since
+     * they would no longer follow the last item.
      */
     class PreviousCallback extends DefaultCallback {
+        // position the items were requested with
+        final Long requestedPosition;
 
         PreviousCallback(TimelineStateHolder timelineStateHolder) {
             super(null, timelineStateHolder);
+            requestedPosition = timelineStateHolder.positionForPrevious();
+        }
+
+        @Override
+        void finishRequest() {
+            timelineStateHolder.finishPreviousRequest();
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            // queued previous items would fail the same way
+            previousQueued = false;
+            super.failure(exception);
         }
 
         @Override
         public void success(Result<TimelineResult<T>> result) {
-            if (result.data.items.size() > 0) {
+            if (result.data.items.size() > 0 && isRequestedPosition()) {
+                largestPageSize = Math.max(largestPageSize, result.data.items.size());
+                final int positionStart = itemList.size();
                 itemList.addAll(result.data.items);
-                notifyDataSetChanged();
+                trimWindow();
+                notifyItemRangeInserted(positionStart, result.data.items.size());
                 timelineStateHolder.setPreviousCursor(result.data.timelineCursor);
+                saveSnapshot();
             }
             // do nothing when zero items are received. Subsequent 'next' call does not change.
             super.success(result);
         }
+
+        boolean isRequestedPosition() {
+            final Long position = timelineStateHolder.positionForPrevious();
+            return requestedPosition == null ? position == null
+                    : requestedPosition.equals(position);
+        }
     }
 
     /* Support Adapter DataSetObservers, based on BaseAdapter */
@@ -300,6 +1088,7 @@ public class TimelineDelegate<T extends Identifiable> {
      */
     public void notifyDataSetChanged() {
         listAdapterObservable.notifyChanged();
+        itemRangeObservable.notifyChanged();
     }
 
     /**
@@ -309,4 +1098,40 @@ public class TimelineDelegate<T extends Identifiable> {
     public void notifyDataSetInvalidated() {
         listAdapterObservable.notifyInvalidated();
     }
+
+    /* Support ranged ItemRangeObservers, based on RecyclerView.Adapter */
+
+    /**
+     * Registers an observer that is told which items changed when changes happen to the managed
+     * data items.
+     * @param observer The object that will be notified when items change.
+     */
+    public void registerItemRangeObserver(ItemRangeObserver observer) {
+        itemRangeObservable.registerObserver(observer);
+    }
+
+    /**
+     * Unregister an observer that has previously been registered via
+     * registerItemRangeObserver(ItemRangeObserver).
+     * @param observer The object to unregister.
+     */
+    public void unregisterItemRangeObserver(ItemRangeObserver observer) {
+        itemRangeObservable.unregisterObserver(observer);
+    }
+
+    /**
+     * Notifies DataSetObservers of a change and ItemRangeObservers of the changed items.
+     */
+    void notifyItemRangeChanged(int positionStart, int itemCount) {
+        listAdapterObservable.notifyChanged();
+        itemRangeObservable.notifyItemRangeChanged(positionStart, itemCount);
+    }
+
+    /**
+     * Notifies DataSetObservers of a change and ItemRangeObservers of the inserted items.
+     */
+    void notifyItemRangeInserted(int positionStart, int itemCount) {
+        listAdapterObservable.notifyChanged();
+        itemRangeObservable.notifyItemRangeInserted(positionStart, itemCount);
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.models.Identifiable;
+import com.twitter.sdk.android.tweetui.LoadCallback;
+
+import java.util.List;
+
+/**
+ * Keeps timeline items which a windowed TimelineDelegate evicts from memory and loads them back
+ * by id when they are scrolled to again.
+ * @param <T> the item type
+ */
+public interface TimelineItemCache<T extends Identifiable> {
+
+    /**
+     * Stores items which are about to be evicted.
+     * @param items the evicted items
+     */
+    void put(List<T> items);
+
+    /**
+     * Loads items by id, from the cache or the network.
+     * @param ids the ids of the items to load
+     * @param cb called on the main thread with the items found, in the order of the ids. Ids
+     *           which could not be found are left out.
+     */
+    void load(List<Long> ids, LoadCallback<List<T>> cb);
+}
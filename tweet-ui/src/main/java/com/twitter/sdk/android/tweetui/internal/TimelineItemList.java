@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.models.Identifiable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TimelineItemList holds timeline items in a ring buffer, giving constant time positional access
+ * and prepending or appending a page in time proportional to the page. A secondary index maps
+ * item ids to positions so items can be found and updated by id.
+ *
+ * Items may be evicted to release memory while keeping their id and position, an evicted item
+ * reads as null until it is set again. Items must not be null. Item ids need not be unique, each
+ * added item is also given a row id which is.
+ *
+ * Inserting or removing anywhere other than at either end moves the items on the shorter side
+ * of the position and reindexes them, which is cheap for gaps filled near the top.
+ * @param <T> the item type
+ */
+class TimelineItemList<T extends Identifiable> extends AbstractList<T> {
+    private static final int MIN_CAPACITY = 16;
+
+    // capacity is always a power of two so positions wrap with a mask
+    private Object[] elements = new Object[MIN_CAPACITY];
+    // item ids, parallel to elements, kept when an item is evicted
+    private long[] ids = new long[MIN_CAPACITY];
+    // row ids, parallel to elements, unique to each added item and kept when it is set or evicted
+    private long[] rowIds = new long[MIN_CAPACITY];
+    private long nextRowId;
+    // array index of the item at position 0
+    private int head;
+    private int size;
+    // items are numbered in sequence as they are added, the position of an item is its sequence
+    // minus the sequence of the first item, so prepending does not touch the index
+    private int firstSequence;
+    private final Map<Long, Integer> idToSequence = new HashMap<>();
+    // number of items sharing an id with another item, only those need a scan on removal
+    private int duplicates;
+    private int evictedCount;
+
+    TimelineItemList() {
+    }
+
+    TimelineItemList(Collection<? extends T> items) {
+        addAll(items);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        checkPosition(position, size);
+        return (T) elements[arrayIndex(position)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int position, T item) {
+        checkPosition(position, size);
+        checkItem(item);
+        final int index = arrayIndex(position);
+        final T previous = (T) elements[index];
+        if (previous == null) {
+            evictedCount--;
+        }
+        unindex(ids[index], firstSequence + position);
+        elements[index] = item;
+        ids[index] = item.getId();
+        index(ids[index], firstSequence + position);
+        return previous;
+    }
+
+    @Override
+    public void add(int position, T item) {
+        checkPosition(position, size + 1);
+        checkItem(item);
+        if (position == size) {
+            addAll(size, Collections.singletonList(item));
+        } else if (position == 0) {
+            prependAll(Collections.singletonList(item));
+        } else {
+            insert(position, Collections.singletonList(item));
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        return addAll(size, items);
+    }
+
+    @Override
+    public boolean addAll(int position, Collection<? extends T> items) {
+        checkPosition(position, size + 1);
+        if (items.isEmpty()) return false;
+        checkItems(items);
+
+        if (position == 0 && size > 0) {
+            prependAll(items);
+        } else if (position == size) {
+            ensureCapacity(size + items.size());
+            for (T item : items) {
+                store(size, item);
+                size++;
+            }
+            modCount++;
+        } else {
+            insert(position, items);
+        }
+        return true;
+    }
+
+    /**
+     * Inserts items, in order, before the current first item.
+     * @param items the items to prepend
+     */
+    void prependAll(Collection<? extends T> items) {
+        final int count = items.size();
+        if (count == 0) return;
+        checkItems(items);
+
+        ensureCapacity(size + count);
+        head = (head - count) & (elements.length - 1);
+        firstSequence -= count;
+        size += count;
+        int position = 0;
+        for (T item : items) {
+            store(position, item);
+            position++;
+        }
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int position) {
+        checkPosition(position, size);
+        final int index = arrayIndex(position);
+        final T removed = (T) elements[index];
+        if (position == 0) {
+            release(index, firstSequence);
+            head = (head + 1) & (elements.length - 1);
+            firstSequence++;
+            size--;
+            modCount++;
+        } else if (position == size - 1) {
+            release(index, firstSequence + position);
+            size--;
+            modCount++;
+        } else {
+            removeMiddle(position);
+        }
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromPosition, int toPosition) {
+        if (fromPosition == 0) {
+            for (int i = fromPosition; i < toPosition; i++) {
+                remove(0);
+            }
+        } else if (toPosition == size) {
+            for (int i = fromPosition; i < toPosition; i++) {
+                remove(size - 1);
+            }
+        } else {
+            // one at a time so a released item is never picked to hold the index of its id
+            for (int position = toPosition - 1; position >= fromPosition; position--) {
+                removeMiddle(position);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        firstSequence = 0;
+        idToSequence.clear();
+        duplicates = 0;
+        evictedCount = 0;
+        modCount++;
+    }
+
+    /**
+     * Releases the item at the given position, keeping its id and position.
+     * @param position the position of the item
+     * @return the evicted item or null if it was already evicted
+     */
+    @SuppressWarnings("unchecked")
+    T evict(int position) {
+        checkPosition(position, size);
+        final int index = arrayIndex(position);
+        final T evicted = (T) elements[index];
+        if (evicted != null) {
+            elements[index] = null;
+            evictedCount++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns true if the item at the given position has been evicted.
+     */
+    boolean isEvicted(int position) {
+        checkPosition(position, size);
+        return elements[arrayIndex(position)] == null;
+    }
+
+    /**
+     * Returns the number of items which are held, that is not evicted.
+     */
+    int materializedCount() {
+        return size - evictedCount;
+    }
+
+    /**
+     * Returns the id of the item at the given position, whether or not it has been evicted.
+     */
+    long getId(int position) {
+        checkPosition(position, size);
+        return ids[arrayIndex(position)];
+    }
+
+    /**
+     * Returns the row id of the item at the given position. No two items added to the list are
+     * given the same row id, even if they share an item id, and an item keeps its row id when
+     * it is set, evicted, or moved by changes elsewhere in the list.
+     */
+    long getRowId(int position) {
+        checkPosition(position, size);
+        return rowIds[arrayIndex(position)];
+    }
+
+    /**
+     * Returns the position of the item with the given id. If several items share the id, the
+     * position of the most recently added one is returned.
+     * @param id the item id
+     * @return the position of the item, or -1 if there is no item with that id
+     */
+    int positionOf(long id) {
+        final Integer sequence = idToSequence.get(id);
+        return sequence == null ? -1 : sequence - firstSequence;
+    }
+
+    private int arrayIndex(int position) {
+        return (head + position) & (elements.length - 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length) return;
+
+        int newCapacity = elements.length;
+        while (newCapacity < capacity) {
+            newCapacity <<= 1;
+        }
+        final Object[] newElements = new Object[newCapacity];
+        final long[] newIds = new long[newCapacity];
+        final long[] newRowIds = new long[newCapacity];
+        for (int position = 0; position < size; position++) {
+            newElements[position] = elements[arrayIndex(position)];
+            newIds[position] = ids[arrayIndex(position)];
+            newRowIds[position] = rowIds[arrayIndex(position)];
+        }
+        elements = newElements;
+        ids = newIds;
+        rowIds = newRowIds;
+        head = 0;
+    }
+
+    private void insert(int position, Collection<? extends T> items) {
+        final int count = items.size();
+        ensureCapacity(size + count);
+        final int mask = elements.length - 1;
+        if (position < size - position) {
+            // move the items before the position towards the front
+            head = (head - count) & mask;
+            firstSequence -= count;
+            for (int p = 0; p < position; p++) {
+                moveSlot((head + p + count) & mask, (head + p) & mask,
+                        firstSequence + p + count, firstSequence + p);
+            }
+        } else {
+            // move the items from the position towards the back
+            for (int p = size - 1; p >= position; p--) {
+                moveSlot((head + p) & mask, (head + p + count) & mask,
+                        firstSequence + p, firstSequence + p + count);
+            }
+        }
+        size += count;
+        int p = position;
+        for (T item : items) {
+            store(p, item);
+            p++;
+        }
+        modCount++;
+    }
+
+    private void removeMiddle(int position) {
+        release(arrayIndex(position), firstSequence + position);
+        final int mask = elements.length - 1;
+        if (position < size - position - 1) {
+            // move the items before the position towards the back
+            for (int p = position - 1; p >= 0; p--) {
+                moveSlot((head + p) & mask, (head + p + 1) & mask,
+                        firstSequence + p, firstSequence + p + 1);
+            }
+            elements[head] = null;
+            head = (head + 1) & mask;
+            firstSequence++;
+        } else {
+            // move the items after the position towards the front
+            for (int p = position + 1; p < size; p++) {
+                moveSlot((head + p) & mask, (head + p - 1) & mask,
+                        firstSequence + p, firstSequence + p - 1);
+            }
+            elements[(head + size - 1) & mask] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Moves an item, or an evicted item's ids, to another array index and sequence.
+     */
+    private void moveSlot(int fromIndex, int toIndex, int fromSequence, int toSequence) {
+        elements[toIndex] = elements[fromIndex];
+        ids[toIndex] = ids[fromIndex];
+        rowIds[toIndex] = rowIds[fromIndex];
+        final Integer indexed = idToSequence.get(ids[toIndex]);
+        // only update the index if this item, not another with the same id, holds it
+        if (indexed != null && indexed == fromSequence) {
+            idToSequence.put(ids[toIndex], toSequence);
+        }
+    }
+
+    private void store(int position, T item) {
+        final int index = arrayIndex(position);
+        elements[index] = item;
+        ids[index] = item.getId();
+        rowIds[index] = nextRowId++;
+        index(ids[index], firstSequence + position);
+    }
+
+    private void release(int index, int sequence) {
+        if (elements[index] == null) {
+            evictedCount--;
+        }
+        unindex(ids[index], sequence);
+        elements[index] = null;
+    }
+
+    private void index(long id, int sequence) {
+        if (idToSequence.put(id, sequence) != null) {
+            duplicates++;
+        }
+    }
+
+    private void unindex(long id, int sequence) {
+        final Integer indexed = idToSequence.get(id);
+        if (indexed == null) return;
+
+        if (indexed != sequence) {
+            // another item with the same id holds the index
+            duplicates--;
+            return;
+        }
+        idToSequence.remove(id);
+        if (duplicates > 0) {
+            reindexDuplicate(id, sequence);
+        }
+    }
+
+    private void reindexDuplicate(long id, int removedSequence) {
+        // the most recently added copy is not known, prefer the one nearest the end
+        for (int position = size - 1; position >= 0; position--) {
+            final int sequence = firstSequence + position;
+            if (sequence != removedSequence && ids[arrayIndex(position)] == id) {
+                idToSequence.put(id, sequence);
+                duplicates--;
+                return;
+            }
+        }
+    }
+
+    private static void checkItem(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+    }
+
+    private static void checkItems(Collection<?> items) {
+        for (Object item : items) {
+            checkItem(item);
+        }
+    }
+
+    private static void checkPosition(int position, int limit) {
+        if (position < 0 || position >= limit) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import java.util.List;
+
+/**
+ * Prepares received timeline items for display before a TimelineDelegate adds them and notifies
+ * its observers. Implementations should do their work off the main thread.
+ * @param <T> the item type
+ */
+public interface TimelineItemProcessor<T> {
+
+    /**
+     * Processes a page of received items.
+     * @param items the received items, must not be modified
+     * @param onProcessed must be run on the main thread once processing finishes, whether or not
+     *                    it succeeded
+     */
+    void process(List<T> items, Runnable onProcessed);
+}
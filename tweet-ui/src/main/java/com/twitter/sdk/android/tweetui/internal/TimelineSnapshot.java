@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.models.Identifiable;
+import com.twitter.sdk.android.tweetui.TimelineCursor;
+
+import java.util.List;
+
+/**
+ * TimelineSnapshot holds the most recent items of a timeline together with the cursors needed to
+ * continue loading it.
+ * @param <T> the item type
+ */
+public class TimelineSnapshot<T extends Identifiable> {
+    public final List<T> items;
+    public final TimelineCursor nextCursor;
+    public final TimelineCursor previousCursor;
+
+    /**
+     * Constructs a TimelineSnapshot.
+     * @param items items in timeline order
+     * @param nextCursor cursor for loading items newer than the first item, may be null
+     * @param previousCursor cursor for loading items older than the last item, may be null
+     */
+    public TimelineSnapshot(List<T> items, TimelineCursor nextCursor,
+            TimelineCursor previousCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.models.Identifiable;
+
+/**
+ * Persists a snapshot of one timeline so a TimelineDelegate constructed for the same timeline,
+ * for instance after the process is restarted, can show its items before the network responds.
+ * @param <T> the item type
+ */
+public interface TimelineSnapshotStore<T extends Identifiable> {
+
+    /**
+     * Reads the stored snapshot. Called on the main thread while an adapter is constructed, so
+     * implementations should keep snapshots small.
+     * @return the snapshot, or null if there is none or it cannot be read
+     */
+    TimelineSnapshot<T> load();
+
+    /**
+     * Stores a snapshot, replacing the previous one. Implementations should write in the
+     * background.
+     * @param snapshot the snapshot to store
+     */
+    void save(TimelineSnapshot<T> snapshot);
+}
@@ -22,16 +22,19 @@ import com.twitter.sdk.android.tweetui.TimelineCursor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Component which holds a TimelineAdapter's data about whether a request is in flight and the
- * scroll position TimelineCursors.
+ * Component which holds a TimelineAdapter's data about whether requests are in flight and the
+ * scroll position TimelineCursors. Requests for next and previous items are tracked separately
+ * so the head and the tail of a timeline can load at the same time.
  */
 public class TimelineStateHolder {
     // cursor for Timeline 'next' calls
     TimelineCursor nextCursor;
     // cursor for Timeline 'previous' calls
     TimelineCursor previousCursor;
-    // true while a request is in flight, false otherwise
-    public final AtomicBoolean requestInFlight = new AtomicBoolean(false);
+    // true while a request for next items is in flight, false otherwise
+    public final AtomicBoolean nextRequestInFlight = new AtomicBoolean(false);
+    // true while a request for previous items is in flight, false otherwise
+    public final AtomicBoolean previousRequestInFlight = new AtomicBoolean(false);
 
     public TimelineStateHolder() {
         // intentionally blank
@@ -96,17 +99,32 @@ public class TimelineStateHolder {
     }
 
     /**
-     * Returns true if a timeline request is not in flight, false otherwise. If true, a caller
-     * must later call finishTimelineRequest to remove the requestInFlight lock.
+     * Returns true if a request for next items is not in flight, false otherwise. If true, a
+     * caller must later call finishNextRequest to remove the nextRequestInFlight lock.
      */
-    public boolean startTimelineRequest() {
-        return requestInFlight.compareAndSet(false, true);
+    public boolean startNextRequest() {
+        return nextRequestInFlight.compareAndSet(false, true);
     }
 
     /**
-     * Unconditionally sets requestInFlight to false.
+     * Unconditionally sets nextRequestInFlight to false.
      */
-    public void finishTimelineRequest() {
-        requestInFlight.set(false);
+    public void finishNextRequest() {
+        nextRequestInFlight.set(false);
+    }
+
+    /**
+     * Returns true if a request for previous items is not in flight, false otherwise. If true, a
+     * caller must later call finishPreviousRequest to remove the previousRequestInFlight lock.
+     */
+    public boolean startPreviousRequest() {
+        return previousRequestInFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Unconditionally sets previousRequestInFlight to false.
+     */
+    public void finishPreviousRequest() {
+        previousRequestInFlight.set(false);
     }
 }
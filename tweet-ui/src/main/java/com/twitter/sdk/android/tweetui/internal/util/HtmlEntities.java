@@ -16,11 +16,6 @@
 
 package com.twitter.sdk.android.tweetui.internal.util;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeMap;
-
 /**
  * <p>
  * Provides HTML and XML entity utilities.
@@ -887,7 +882,17 @@ public class HtmlEntities {
     };
 
     // package scoped for testing
-    final EntityMap map = new HtmlEntities.LookupEntityMap();
+    final TableEntityMap map = new HtmlEntities.TableEntityMap();
+
+    // reused output buffer, unescaping only ever shortens the input so it grows to the longest
+    // text seen on each thread
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[INITIAL_BUFFER_SIZE];
+        }
+    };
+    private static final int INITIAL_BUFFER_SIZE = 256;
 
     /*
      * static { XML = new Entities(); XML.addEntities(BASIC_ARRAY);
@@ -916,41 +921,28 @@ public class HtmlEntities {
         int value(String name);
     }
 
-    static class PrimitiveEntityMap implements EntityMap {
-        @SuppressWarnings("unchecked")
-        private final Map mapNameToValue = new HashMap();
+    /**
+     * Maps names to values with an open addressing table of names and values, and values to names
+     * with a primitive int map. Names can be looked up by a region of a larger string so
+     * unescaping does not create a substring for each candidate entity.
+     */
+    static class TableEntityMap implements EntityMap {
+        private static final int INITIAL_CAPACITY = 16;
 
-        private final IntHashMap mapValueToName = new IntHashMap();
+        private String[] names = new String[INITIAL_CAPACITY];
 
-        @SuppressWarnings("unchecked")
-        public void add(String name, int value) {
-            mapNameToValue.put(name, value);
-            mapValueToName.put(value, name);
-        }
+        private int[] values = new int[INITIAL_CAPACITY];
 
-        public String name(int value) {
-            return (String) mapValueToName.get(value);
-        }
+        private int size = 0;
 
-        public int value(String name) {
-            final Object value = mapNameToValue.get(name);
-            if (value == null) {
-                return -1;
-            }
-            return ((Integer) value).intValue();
-        }
-    }
-
-    abstract static class MapIntMap implements EntityMap {
-        @SuppressWarnings("unchecked")
-        protected Map mapNameToValue;
-
-        @SuppressWarnings("unchecked")
-        protected Map mapValueToName;
+        private final IntHashMap mapValueToName = new IntHashMap();
 
-        @SuppressWarnings("unchecked")
         public void add(String name, int value) {
-            mapNameToValue.put(name, value);
+            // keep the table at most half full so probe sequences stay short
+            if (2 * (size + 1) > names.length) {
+                resize(2 * names.length);
+            }
+            insert(name, value);
             mapValueToName.put(value, name);
         }
 
@@ -959,184 +951,92 @@ public class HtmlEntities {
         }
 
         public int value(String name) {
-            final Object value = mapNameToValue.get(name);
-            if (value == null) {
+            if (name == null) {
                 return -1;
             }
-            return ((Integer) value).intValue();
-        }
-    }
-
-    static class HashEntityMap extends MapIntMap {
-        @SuppressWarnings("unchecked")
-        public HashEntityMap() {
-            mapNameToValue = new HashMap();
-            mapValueToName = new HashMap();
-        }
-    }
-
-    static class TreeEntityMap extends MapIntMap {
-        @SuppressWarnings("unchecked")
-        public TreeEntityMap() {
-            mapNameToValue = new TreeMap();
-            mapValueToName = new TreeMap();
-        }
-    }
-
-    static class LookupEntityMap extends PrimitiveEntityMap {
-        private static final int LOOKUP_TABLE_SIZE = 256;
-
-        private String[] lookupTable;
-
-        @Override
-        public String name(int value) {
-            if (value < LOOKUP_TABLE_SIZE) {
-                return lookupTable()[value];
-            }
-            return super.name(value);
-        }
-
-        private String[] lookupTable() {
-            if (lookupTable == null) {
-                createLookupTable();
-            }
-            return lookupTable;
-        }
-
-        private void createLookupTable() {
-            lookupTable = new String[LOOKUP_TABLE_SIZE];
-            for (int i = 0; i < LOOKUP_TABLE_SIZE; ++i) {
-                lookupTable[i] = super.name(i);
-            }
-        }
-    }
-
-    static class ArrayEntityMap implements EntityMap {
-        protected int growBy = 100;
-
-        protected int size = 0;
-
-        protected String[] names;
-
-        protected int[] values;
-
-        public ArrayEntityMap() {
-            names = new String[growBy];
-            values = new int[growBy];
-        }
-
-        public ArrayEntityMap(int growBy) {
-            this.growBy = growBy;
-            names = new String[growBy];
-            values = new int[growBy];
-        }
-
-        public void add(String name, int value) {
-            ensureCapacity(size + 1);
-            names[size] = name;
-            values[size] = value;
-            size++;
-        }
-
-        protected void ensureCapacity(int capacity) {
-            if (capacity > names.length) {
-                final int newSize = Math.max(capacity, size + growBy);
-                final String[] newNames = new String[newSize];
-                System.arraycopy(names, 0, newNames, 0, size);
-                names = newNames;
-                final int[] newValues = new int[newSize];
-                System.arraycopy(values, 0, newValues, 0, size);
-                values = newValues;
-            }
-        }
-
-        public String name(int value) {
-            for (int i = 0; i < size; ++i) {
-                if (values[i] == value) {
-                    return names[i];
-                }
-            }
-            return null;
+            return value(name, 0, name.length());
         }
 
-        public int value(String name) {
-            for (int i = 0; i < size; ++i) {
-                if (names[i].equals(name)) {
-                    return values[i];
+        /**
+         * @param str string containing the entity name
+         * @param start index of the first character of the name
+         * @param end index after the last character of the name
+         * @return the entity value or -1 if there is no entity with that name
+         */
+        int value(String str, int start, int end) {
+            final int length = end - start;
+            final int mask = names.length - 1;
+            int slot = hash(str, start, end) & mask;
+            String name;
+            while ((name = names[slot]) != null) {
+                if (name.length() == length && str.regionMatches(start, name, 0, length)) {
+                    return values[slot];
                 }
+                slot = (slot + 1) & mask;
             }
             return -1;
         }
-    }
-
-    static class BinaryEntityMap extends ArrayEntityMap {
-
-        public BinaryEntityMap() {}
-
-        public BinaryEntityMap(int growBy) {
-            super(growBy);
-        }
-
-        // based on code in java.util.Arrays
-        private int binarySearch(int key) {
-            int low = 0;
-            int high = size - 1;
 
-            while (low <= high) {
-                final int mid = (low + high) >>> 1;
-                final int midVal = values[mid];
-
-                if (midVal < key) {
-                    low = mid + 1;
-                } else if (midVal > key) {
-                    high = mid - 1;
-                } else {
-                    return mid; // key found
+        private void insert(String name, int value) {
+            final int mask = names.length - 1;
+            int slot = hash(name, 0, name.length()) & mask;
+            while (names[slot] != null) {
+                if (names[slot].equals(name)) {
+                    values[slot] = value;
+                    return;
                 }
+                slot = (slot + 1) & mask;
             }
-            return -(low + 1); // key not found.
+            names[slot] = name;
+            values[slot] = value;
+            size++;
         }
 
-        @Override
-        public void add(String name, int value) {
-            ensureCapacity(size + 1);
-            int insertAt = binarySearch(value);
-            if (insertAt > 0) {
-                return; // note: this means you can't insert the same value
-                // twice
+        private void resize(int capacity) {
+            final String[] oldNames = names;
+            final int[] oldValues = values;
+            names = new String[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldNames.length; ++i) {
+                if (oldNames[i] != null) {
+                    insert(oldNames[i], oldValues[i]);
+                }
             }
-            insertAt = -(insertAt + 1); // binarySearch returns it negative and
-            // off-by-one
-            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
-            values[insertAt] = value;
-            System.arraycopy(names, insertAt, names, insertAt + 1, size - insertAt);
-            names[insertAt] = name;
-            size++;
         }
 
-        @Override
-        public String name(int value) {
-            final int index = binarySearch(value);
-            if (index < 0) {
-                return null;
+        private static int hash(String str, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; ++i) {
+                h = 31 * h + str.charAt(i);
             }
-            return names[index];
+            // spread the high bits since only the low bits select a slot
+            return h ^ (h >>> 16);
         }
     }
 
     /**
-     * The result of an unescape. Keeps an array of indices[start][end] on the original input that
-     * was escaped.
+     * The result of an unescape. Keeps the start and end indices on the original input of each
+     * entity that was unescaped, flattened into a single array of pairs.
      */
     public static final class Unescaped {
+        static final int[] NO_INDICES = new int[0];
+
         public final String unescaped;
-        // An ordered list of start/end indices
-        public final ArrayList<int[]> indices;
+        // Ordered start/end index pairs, entity n spans indices[2 * n] to indices[2 * n + 1]
+        public final int[] indices;
 
-        public Unescaped(String unescaped, ArrayList<int[]> indices) {
+        public Unescaped(String unescaped, int[] indices) {
             this.unescaped = unescaped;
             this.indices = indices;
         }
+
+        /**
+         * @return the number of entities that were unescaped
+         */
+        public int size() {
+            return indices.length / 2;
+        }
     }
 
     public void addEntities(String[][] entityArray) {
@@ -1165,61 +1065,136 @@ public class HtmlEntities {
      * For example, if you have called addEntity(&quot;foo&quot;, 0xA1),
      * unescape(&quot;&amp;foo;&quot;) will return &quot;\u00A1&quot;
      * </p>
+     * <p>
+     * A string without an ampersand is returned as is. Otherwise the only allocations are the
+     * resulting string and, if any entity was unescaped, its indices.
+     * </p>
      *
      * @param str The <code>String</code> to escape.
      * @return A new escaped <code>String</code>.
      */
     public Unescaped unescape(String str) {
+        final int firstAmp = str.indexOf('&');
+        if (firstAmp == -1) {
+            return new Unescaped(str, Unescaped.NO_INDICES);
+        }
+
         final int length = str.length();
-        final StringBuilder buf = new StringBuilder(length);
-        final ArrayList<int[]> indices = new ArrayList<>(5);
+        final char[] buf = buffer(length);
+        str.getChars(0, firstAmp, buf, 0);
+        int count = firstAmp;
+        int[] indices = null;
+        int indicesCount = 0;
+        int semi = str.indexOf(';', firstAmp + 1);
         int i;
-        for (i = 0; i < length; ++i) {
+        for (i = firstAmp; i < length; ++i) {
             final char ch = str.charAt(i);
-            if (ch == '&') {
-                final int semi = str.indexOf(';', i + 1);
-                if (semi == -1) {
-                    buf.append(ch);
-                    continue;
-                }
-                final String entityName = str.substring(i + 1, semi);
-                final int entityNameLength = entityName.length();
-                int entityValue = -1;
-                if (entityNameLength > 0) {
-                    if (entityName.charAt(0) == '#' && entityNameLength > 1) {
-                        final char charAt1 = entityName.charAt(1);
-                        try {
-                            if (charAt1 == 'x' || charAt1 == 'X') {
-                                if (entityNameLength > 2) {
-                                    entityValue = Integer.valueOf(entityName.substring(2), 16)
-                                            .intValue();
-                                }
-                            } else {
-                                entityValue = Integer.parseInt(entityName.substring(1));
-                            }
-                        } catch (Exception ignore) {
-                        }
-                    } else {
-                        entityValue = this.entityValue(entityName);
-                    }
-                }
-                if (entityValue == -1) {
-                    buf.append('&');
-                    final int amp = entityName.indexOf('&');
-                    if (amp == -1) {
-                        buf.append(entityName);
-                        buf.append(';');
-                        i = semi;
-                    }
-                } else {
-                    buf.append((char) (entityValue));
-                    indices.add(new int[] { i, semi });
+            if (ch != '&') {
+                buf[count++] = ch;
+                continue;
+            }
+            if (semi != -1 && semi < i) {
+                semi = str.indexOf(';', i + 1);
+            }
+            if (semi == -1) {
+                // no entity can be terminated, copy the rest as is
+                str.getChars(i, length, buf, count);
+                count += length - i;
+                break;
+            }
+            final int entityValue = entityValue(str, i + 1, semi);
+            if (entityValue == -1) {
+                buf[count++] = '&';
+                if (indexOf(str, '&', i + 1, semi) == -1) {
+                    str.getChars(i + 1, semi + 1, buf, count);
+                    count += semi - i;
                     i = semi;
                 }
             } else {
-                buf.append(ch);
+                buf[count++] = (char) (entityValue);
+                if (indices == null) {
+                    // each remaining ampersand can start at most one entity
+                    indices = new int[2 * countOf(str, '&', i, length)];
+                }
+                indices[indicesCount++] = i;
+                indices[indicesCount++] = semi;
+                i = semi;
             }
         }
-        return new Unescaped(buf.toString(), indices);
+        return new Unescaped(new String(buf, 0, count), trim(indices, indicesCount));
+    }
+
+    private int entityValue(String str, int start, int end) {
+        final int entityNameLength = end - start;
+        if (entityNameLength == 0) {
+            return -1;
+        }
+        if (str.charAt(start) == '#' && entityNameLength > 1) {
+            final char charAt1 = str.charAt(start + 1);
+            if (charAt1 == 'x' || charAt1 == 'X') {
+                return entityNameLength > 2 ? parseCodePoint(str, start + 2, end, 16) : -1;
+            }
+            return parseCodePoint(str, start + 1, end, 10);
+        }
+        return map.value(str, start, end);
+    }
+
+    /**
+     * @return the number in the given region, or -1 if it is not a number or is larger than the
+     * largest code point
+     */
+    static int parseCodePoint(String str, int start, int end, int radix) {
+        int value = 0;
+        for (int i = start; i < end; ++i) {
+            final int digit = Character.digit(str.charAt(i), radix);
+            if (digit == -1) {
+                return -1;
+            }
+            value = value * radix + digit;
+            if (value > Character.MAX_CODE_POINT) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private static int indexOf(String str, char ch, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            if (str.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int countOf(String str, char ch, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; ++i) {
+            if (str.charAt(i) == ch) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int[] trim(int[] indices, int count) {
+        if (indices == null) {
+            return Unescaped.NO_INDICES;
+        }
+        if (count == indices.length) {
+            return indices;
+        }
+        final int[] trimmed = new int[count];
+        System.arraycopy(indices, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    private static char[] buffer(int length) {
+        char[] buf = BUFFER.get();
+        if (buf.length < length) {
+            buf = new char[length];
+            BUFFER.set(buf);
+        }
+        return buf;
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CacheSizesTest {
+
+    @Test
+    public void testSizeOf_nullValues() {
+        assertEquals(0, CacheSizes.sizeOf((String) null));
+        assertEquals(0, CacheSizes.sizeOf((Tweet) null));
+        assertEquals(0, CacheSizes.sizeOf((FormattedTweetText) null));
+    }
+
+    @Test
+    public void testSizeOf_string() {
+        assertEquals(CacheSizes.STRING_OVERHEAD, CacheSizes.sizeOf(""));
+        assertEquals(CacheSizes.STRING_OVERHEAD + 8, CacheSizes.sizeOf("abcd"));
+    }
+
+    @Test
+    public void testSizeOf_tweetGrowsWithText() {
+        final Tweet shortTweet = TestFixtures.createTweet(1L, null, "a", "");
+        final Tweet longTweet = TestFixtures.createTweet(1L, null, "abcdefghij", "");
+        assertEquals(18, CacheSizes.sizeOf(longTweet) - CacheSizes.sizeOf(shortTweet));
+    }
+
+    @Test
+    public void testSizeOf_tweetIncludesUser() {
+        final Tweet withoutUser = TestFixtures.createTweet(1L, null, TestFixtures.TEST_STATUS,
+                TestFixtures.TEST_TIMESTAMP);
+        assertEquals(CacheSizes.sizeOf(TestFixtures.TEST_USER),
+                CacheSizes.sizeOf(TestFixtures.TEST_TWEET) - CacheSizes.sizeOf(withoutUser));
+    }
+
+    @Test
+    public void testSizeOf_retweetIncludesRetweetedStatus() {
+        assertTrue(CacheSizes.sizeOf(TestFixtures.TEST_RETWEET)
+                > CacheSizes.sizeOf(TestFixtures.TEST_TWEET));
+    }
+
+    @Test
+    public void testSizeOf_photoTweetIncludesMedia() {
+        assertTrue(CacheSizes.sizeOf(TestFixtures.TEST_PHOTO_TWEET)
+                > CacheSizes.sizeOf(TestFixtures.TEST_TWEET));
+    }
+
+    @Test
+    public void testSizeOf_formattedTweetText() {
+        final FormattedTweetText formatted = new FormattedTweetText();
+        formatted.text = "abcd";
+        final int baseSize = CacheSizes.sizeOf(formatted);
+        formatted.urlEntities.add(new FormattedUrlEntity(
+                EntityFactory.newUrlEntity("abcd", "https://t.co", "t.co")));
+        assertTrue(CacheSizes.sizeOf(formatted) > baseSize);
+    }
+}
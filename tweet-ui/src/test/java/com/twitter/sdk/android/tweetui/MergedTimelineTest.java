@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class MergedTimelineTest {
+    private static final TwitterException TEST_TWITTER_EXCEPTION
+            = new TwitterException("Some exception");
+
+    private FakeTweetTimeline timelineA;
+    private FakeTweetTimeline timelineB;
+    private MergedTimeline mergedTimeline;
+    private CapturingCallback callback;
+
+    @Before
+    public void setUp() throws Exception {
+        timelineA = new FakeTweetTimeline(900, 700, 500, 300, 100);
+        timelineB = new FakeTweetTimeline(950, 800, 700, 600, 400, 200);
+        mergedTimeline = new MergedTimeline.Builder().add(timelineA).add(timelineB).build();
+        callback = new CapturingCallback();
+    }
+
+    @Test
+    public void testBuilder_noTimelines() {
+        try {
+            new MergedTimeline.Builder().build();
+            fail("Expected IllegalStateException to be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("must add at least one timeline", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBuilder_nullTimeline() {
+        try {
+            new MergedTimeline.Builder().add(null);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Timeline must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNext_newestMergesDownToHighestOldestTweet() {
+        timelineA.pageSize = 2;
+        timelineB.pageSize = 3;
+        mergedTimeline.next(null, callback);
+
+        // A reached 700 and B reached 700, nothing is missing above 700
+        final TimelineResult<Tweet> result = callback.result;
+        assertIds(result.items, 950, 900, 800, 700);
+        assertEquals(Long.valueOf(700), result.timelineCursor.minPosition);
+        assertEquals(Long.valueOf(950), result.timelineCursor.maxPosition);
+    }
+
+    @Test
+    public void testPrevious_usesHeldTweets() {
+        timelineA.pageSize = 1;
+        timelineB.pageSize = 3;
+        mergedTimeline.next(null, callback);
+        // A only reached 900, B's 800 and 700 are held
+        assertIds(callback.result.items, 950, 900);
+
+        mergedTimeline.previous(900L, callback);
+        // only A is requested, from its own position
+        assertEquals(Long.valueOf(900), timelineA.lastPreviousPosition);
+        assertNull(timelineB.lastPreviousPosition);
+        assertIds(callback.result.items, 800, 700);
+    }
+
+    @Test
+    public void testPrevious_runsOutOfTimelines() {
+        mergedTimeline.next(null, callback);
+        // B may have Tweets below 200, A's 100 is held
+        assertIds(callback.result.items, 950, 900, 800, 700, 600, 500, 400, 300, 200);
+
+        mergedTimeline.previous(200L, callback);
+        assertIds(callback.result.items, 100);
+        assertEquals(Long.valueOf(200), timelineB.lastPreviousPosition);
+
+        timelineB.lastPreviousPosition = null;
+        mergedTimeline.previous(100L, callback);
+        assertTrue(callback.result.items.isEmpty());
+        // B ran out and is not requested again
+        assertNull(timelineB.lastPreviousPosition);
+    }
+
+    @Test
+    public void testPrevious_unknownPositionIsPassedThrough() {
+        mergedTimeline.previous(650L, callback);
+        assertEquals(Long.valueOf(650), timelineA.lastPreviousPosition);
+        assertEquals(Long.valueOf(650), timelineB.lastPreviousPosition);
+    }
+
+    @Test
+    public void testNext_usesPositionOfEachTimeline() {
+        timelineA.pageSize = 2;
+        timelineB.pageSize = 1;
+        mergedTimeline.next(null, callback);
+        assertIds(callback.result.items, 950);
+
+        timelineA.add(1000);
+        timelineB.add(1000);
+        mergedTimeline.next(950L, callback);
+        assertEquals(Long.valueOf(900), timelineA.lastNextPosition);
+        assertEquals(Long.valueOf(950), timelineB.lastNextPosition);
+        // the Tweet in both timelines is included once
+        assertIds(callback.result.items, 1000);
+    }
+
+    @Test
+    public void testNext_failure() {
+        timelineB.failure = TEST_TWITTER_EXCEPTION;
+        mergedTimeline.next(null, callback);
+        assertEquals(TEST_TWITTER_EXCEPTION, callback.exception);
+        assertNull(callback.result);
+    }
+
+    private static void assertIds(List<Tweet> tweets, long... ids) {
+        assertEquals(ids.length, tweets.size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], tweets.get(i).id);
+        }
+    }
+
+    /**
+     * Callback which keeps the last result or exception.
+     */
+    static class CapturingCallback extends Callback<TimelineResult<Tweet>> {
+        TimelineResult<Tweet> result;
+        TwitterException exception;
+
+        @Override
+        public void success(Result<TimelineResult<Tweet>> result) {
+            this.result = result.data;
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Timeline of Tweets with the given ids, newest first, which returns at most pageSize Tweets
+     * per request.
+     */
+    static class FakeTweetTimeline implements Timeline<Tweet> {
+        final List<Tweet> tweets = new ArrayList<>();
+        int pageSize = 10;
+        TwitterException failure;
+        Long lastNextPosition;
+        Long lastPreviousPosition;
+
+        FakeTweetTimeline(long... ids) {
+            for (long id : ids) {
+                tweets.add(new TweetBuilder().setId(id).build());
+            }
+        }
+
+        void add(long id) {
+            tweets.add(0, new TweetBuilder().setId(id).build());
+        }
+
+        @Override
+        public void next(Long minPosition, Callback<TimelineResult<Tweet>> cb) {
+            lastNextPosition = minPosition;
+            final List<Tweet> page = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (page.size() == pageSize || minPosition != null && tweet.id <= minPosition) {
+                    break;
+                }
+                page.add(tweet);
+            }
+            deliver(page, cb);
+        }
+
+        @Override
+        public void previous(Long maxPosition, Callback<TimelineResult<Tweet>> cb) {
+            lastPreviousPosition = maxPosition;
+            final List<Tweet> page = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (page.size() == pageSize) break;
+                if (tweet.id < maxPosition) {
+                    page.add(tweet);
+                }
+            }
+            deliver(page, cb);
+        }
+
+        private void deliver(List<Tweet> page, Callback<TimelineResult<Tweet>> cb) {
+            if (failure != null) {
+                cb.failure(failure);
+            } else {
+                cb.success(new TimelineResult<>(new TimelineCursor(page), page), null);
+            }
+        }
+    }
+}
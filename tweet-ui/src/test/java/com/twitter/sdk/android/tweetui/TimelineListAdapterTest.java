@@ -76,6 +76,13 @@ public class TimelineListAdapterTest {
         verify(mockTimelineDelegate).refresh(mockCallback);
     }
 
+    @Test
+    public void testSetPrefetchDistance() {
+        listAdapter = new TestTimelineListAdapter<>(context, mockTimelineDelegate);
+        listAdapter.setPrefetchDistance(TEST_POSITION);
+        verify(mockTimelineDelegate).setPrefetchDistance(TEST_POSITION);
+    }
+
     @Test
     public void testGetCount() {
         listAdapter = new TestTimelineListAdapter<>(context, mockTimelineDelegate);
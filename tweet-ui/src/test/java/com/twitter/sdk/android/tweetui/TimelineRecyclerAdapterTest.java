@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.models.Identifiable;
+import com.twitter.sdk.android.tweetui.internal.ItemRangeObserver;
+import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TimelineRecyclerAdapterTest {
+    private static final int TEST_POSITION = 10;
+    private static final int TEST_COUNT = 3;
+    private TimelineRecyclerAdapter<TestItem, RecyclerView.ViewHolder> recyclerAdapter;
+    private TimelineDelegate<TestItem> mockTimelineDelegate;
+    private RecyclerView.AdapterDataObserver mockDataObserver;
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        mockTimelineDelegate = mock(TimelineListAdapterTest.TestTimelineDelegate.class);
+        mockDataObserver = mock(RecyclerView.AdapterDataObserver.class);
+        context = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void testConstructor() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        verify(mockTimelineDelegate).registerItemRangeObserver(any(ItemRangeObserver.class));
+        verify(mockTimelineDelegate).refresh(null);
+        assertTrue(recyclerAdapter.hasStableIds());
+    }
+
+    @Test
+    public void testConstructor_nullTimeline() {
+        try {
+            new TestTimelineRecyclerAdapter<>(context, (Timeline) null);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Timeline must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRefresh() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
+        recyclerAdapter.refresh(mockCallback);
+        verify(mockTimelineDelegate).refresh(mockCallback);
+    }
+
+    @Test
+    public void testSetPrefetchDistance() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.setPrefetchDistance(TEST_POSITION);
+        verify(mockTimelineDelegate).setPrefetchDistance(TEST_POSITION);
+    }
+
+    @Test
+    public void testGetItemCount() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.getItemCount();
+        verify(mockTimelineDelegate).getCount();
+    }
+
+    @Test
+    public void testGetItem() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.getItem(TEST_POSITION);
+        verify(mockTimelineDelegate).getItem(TEST_POSITION);
+    }
+
+    @Test
+    public void testPeekItem() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.peekItem(TEST_POSITION);
+        verify(mockTimelineDelegate).peekItem(TEST_POSITION);
+        verify(mockTimelineDelegate, never()).getItem(TEST_POSITION);
+    }
+
+    @Test
+    public void testGetItemId() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.getItemId(TEST_POSITION);
+        verify(mockTimelineDelegate).getRowId(TEST_POSITION);
+    }
+
+    @Test
+    public void testItemRangeObserver_forwardsRanges() {
+        recyclerAdapter = new TestTimelineRecyclerAdapter<>(context, mockTimelineDelegate);
+        recyclerAdapter.registerAdapterDataObserver(mockDataObserver);
+        final ItemRangeObserver observer = captureItemRangeObserver();
+
+        observer.onItemRangeInserted(0, TEST_COUNT);
+        verify(mockDataObserver).onItemRangeInserted(0, TEST_COUNT);
+        observer.onItemRangeRemoved(TEST_POSITION, TEST_COUNT);
+        verify(mockDataObserver).onItemRangeRemoved(TEST_POSITION, TEST_COUNT);
+        observer.onItemRangeChanged(TEST_POSITION, 1);
+        verify(mockDataObserver).onItemRangeChanged(TEST_POSITION, 1);
+        observer.onChanged();
+        verify(mockDataObserver).onChanged();
+    }
+
+    private ItemRangeObserver captureItemRangeObserver() {
+        final ArgumentCaptor<ItemRangeObserver> observerCaptor
+                = ArgumentCaptor.forClass(ItemRangeObserver.class);
+        verify(mockTimelineDelegate).registerItemRangeObserver(observerCaptor.capture());
+        return observerCaptor.getValue();
+    }
+
+    /**
+     * Implement abstract methods to create a concrete subclass TestTimelineRecyclerAdapter so
+     * that TimelineRecyclerAdapter non-view related behavior can be tested.
+     */
+    public class TestTimelineRecyclerAdapter<T extends Identifiable>
+            extends TimelineRecyclerAdapter<T, RecyclerView.ViewHolder> {
+
+        TestTimelineRecyclerAdapter(Context context, Timeline<T> timeline) {
+            super(context, timeline);
+        }
+
+        TestTimelineRecyclerAdapter(Context context, TimelineDelegate<T> delegate) {
+            super(context, delegate);
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(context)) { };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            // intentionally blank
+        }
+    }
+}
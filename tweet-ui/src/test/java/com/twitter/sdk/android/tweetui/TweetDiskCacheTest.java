@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+
+import io.fabric.sdk.android.services.common.CurrentTimeProvider;
+import io.fabric.sdk.android.services.persistence.FileStore;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TweetDiskCacheTest {
+    private static final long TEST_TTL_MILLIS = 1000L;
+    private static final long TEST_MAX_BYTES = 1024L * 1024L;
+
+    private File filesDir;
+    private FileStore mockFileStore;
+    private CurrentTimeProvider mockTimeProvider;
+    private TweetDiskCache diskCache;
+
+    @Before
+    public void setUp() throws Exception {
+        filesDir = new File(RuntimeEnvironment.application.getCacheDir(), "disk_cache_test");
+        filesDir.mkdirs();
+        mockFileStore = mock(FileStore.class);
+        when(mockFileStore.getFilesDir()).thenReturn(filesDir);
+        mockTimeProvider = mock(CurrentTimeProvider.class);
+        when(mockTimeProvider.getCurrentTimeMillis()).thenReturn(System.currentTimeMillis());
+        diskCache = new TweetDiskCache(mockFileStore, mockTimeProvider, TEST_TTL_MILLIS,
+                TEST_MAX_BYTES);
+    }
+
+    @After
+    public void tearDown() {
+        diskCache.clear();
+    }
+
+    @Test
+    public void testGet_missing() {
+        assertNull(diskCache.get(TestFixtures.TEST_TWEET_ID));
+    }
+
+    @Test
+    public void testPutGet() {
+        diskCache.put(TestFixtures.TEST_TWEET);
+
+        final Tweet cached = diskCache.get(TestFixtures.TEST_TWEET.id);
+        assertNotNull(cached);
+        assertEquals(TestFixtures.TEST_TWEET.id, cached.id);
+        assertEquals(TestFixtures.TEST_TWEET.text, cached.text);
+        assertEquals(TestFixtures.TEST_TWEET.user.screenName, cached.user.screenName);
+    }
+
+    @Test
+    public void testGet_expired() {
+        diskCache.put(TestFixtures.TEST_TWEET);
+        when(mockTimeProvider.getCurrentTimeMillis())
+                .thenReturn(System.currentTimeMillis() + TEST_TTL_MILLIS * 10);
+
+        assertNull(diskCache.get(TestFixtures.TEST_TWEET.id));
+        assertFalse(new File(diskCache.getCacheDir(),
+                Long.toString(TestFixtures.TEST_TWEET.id)).exists());
+    }
+
+    @Test
+    public void testPut_evictsOldestOverBudget() {
+        final Tweet oldest = TestFixtures.createTweet(100L);
+        final Tweet older = TestFixtures.createTweet(101L);
+        final Tweet newest = TestFixtures.createTweet(102L);
+
+        diskCache.put(oldest);
+        final File oldestFile = new File(diskCache.getCacheDir(), Long.toString(oldest.id));
+        final long entryBytes = oldestFile.length();
+        diskCache.clear();
+
+        // budget for two and a half equally sized entries, trimmed down to two
+        diskCache = new TweetDiskCache(mockFileStore, mockTimeProvider, TEST_TTL_MILLIS,
+                entryBytes * 5 / 2);
+        final long now = System.currentTimeMillis();
+        diskCache.put(oldest);
+        oldestFile.setLastModified(now - 200L);
+        diskCache.put(older);
+        new File(diskCache.getCacheDir(), Long.toString(older.id)).setLastModified(now - 100L);
+        diskCache.put(newest);
+
+        assertNull(diskCache.get(oldest.id));
+        assertNotNull(diskCache.get(older.id));
+        assertNotNull(diskCache.get(newest.id));
+    }
+
+    @Test
+    public void testPut_trimsToLowWaterMark() {
+        final Tweet oldest = TestFixtures.createTweet(100L);
+        final Tweet older = TestFixtures.createTweet(101L);
+        final Tweet newest = TestFixtures.createTweet(102L);
+
+        diskCache.put(oldest);
+        final File oldestFile = new File(diskCache.getCacheDir(), Long.toString(oldest.id));
+        final long entryBytes = oldestFile.length();
+        diskCache.clear();
+
+        // two entries fit the budget but not the low-water mark it is trimmed down to
+        final long maxBytes = entryBytes * 2 + entryBytes / 10;
+        diskCache = new TweetDiskCache(mockFileStore, mockTimeProvider, TEST_TTL_MILLIS,
+                maxBytes);
+        final long now = System.currentTimeMillis();
+        diskCache.put(oldest);
+        oldestFile.setLastModified(now - 200L);
+        diskCache.put(older);
+        new File(diskCache.getCacheDir(), Long.toString(older.id)).setLastModified(now - 100L);
+        diskCache.put(newest);
+
+        assertNull(diskCache.get(oldest.id));
+        assertNull(diskCache.get(older.id));
+        assertNotNull(diskCache.get(newest.id));
+        long bytes = 0L;
+        for (File file : diskCache.getCacheDir().listFiles()) {
+            bytes += file.length();
+        }
+        assertTrue(bytes <= maxBytes * TweetDiskCache.TRIM_PERCENT / 100);
+    }
+
+    @Test
+    public void testPut_nullTweet() {
+        diskCache.put(null);
+        assertEquals(0, diskCache.getCacheDir().listFiles().length);
+    }
+
+    @Test
+    public void testGetCacheDir_nullFilesDir() {
+        when(mockFileStore.getFilesDir()).thenReturn(null);
+        diskCache = new TweetDiskCache(mockFileStore, mockTimeProvider, TEST_TTL_MILLIS,
+                TEST_MAX_BYTES);
+
+        assertNull(diskCache.getCacheDir());
+        assertNull(diskCache.get(TestFixtures.TEST_TWEET_ID));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TweetItemCacheTest {
+    private TweetRepository mockTweetRepository;
+    private BaseTweetView.DependencyProvider mockDependencyProvider;
+    private TweetItemCache itemCache;
+
+    @Before
+    public void setUp() throws Exception {
+        mockTweetRepository = mock(TweetRepository.class);
+        final TweetUi mockTweetUi = mock(TweetUi.class);
+        when(mockTweetUi.getTweetRepository()).thenReturn(mockTweetRepository);
+        mockDependencyProvider = mock(BaseTweetView.DependencyProvider.class);
+        when(mockDependencyProvider.getTweetUi()).thenReturn(mockTweetUi);
+        itemCache = new TweetItemCache(mockDependencyProvider);
+    }
+
+    @Test
+    public void testPut() {
+        itemCache.put(Collections.singletonList(TestFixtures.TEST_TWEET));
+        verify(mockTweetRepository).updateCache(TestFixtures.TEST_TWEET);
+    }
+
+    @Test
+    public void testPut_tweetUiNotStarted() {
+        when(mockDependencyProvider.getTweetUi()).thenThrow(new IllegalStateException());
+        itemCache.put(Collections.singletonList(TestFixtures.TEST_TWEET));
+        verifyZeroInteractions(mockTweetRepository);
+    }
+
+    @Test
+    public void testLoad() {
+        final List<Long> ids = Collections.singletonList(TestFixtures.TEST_TWEET_ID);
+        final LoadCallback<List<Tweet>> mockCallback = mock(LoadCallback.class);
+        itemCache.load(ids, mockCallback);
+        verify(mockTweetRepository).loadTweets(ids, mockCallback);
+    }
+
+    @Test
+    public void testLoad_tweetUiNotStarted() {
+        when(mockDependencyProvider.getTweetUi()).thenThrow(new IllegalStateException());
+        final LoadCallback<List<Tweet>> mockCallback = mock(LoadCallback.class);
+        itemCache.load(Collections.singletonList(TestFixtures.TEST_TWEET_ID), mockCallback);
+        verify(mockCallback).failure(any(TwitterException.class));
+        verifyZeroInteractions(mockTweetRepository);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TweetPreformatterTest {
+    private static final int TEST_LINK_COLOR = 0xff0000;
+
+    private ExecutorService mockExecutorService;
+    private Handler mockHandler;
+    private TweetRepository tweetRepository;
+    private BaseTweetView.DependencyProvider mockDependencyProvider;
+    private TweetPreformatter preformatter;
+    private List<Tweet> tweets;
+
+    @Before
+    public void setUp() throws Exception {
+        mockExecutorService = mock(ExecutorService.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(mockExecutorService).execute(any(Runnable.class));
+        mockHandler = mock(Handler.class);
+        tweetRepository = new TweetRepository(mock(TweetUi.class), mockExecutorService,
+                mockHandler, mock(AuthRequestQueue.class));
+        final TweetUi mockTweetUi = mock(TweetUi.class);
+        when(mockTweetUi.getTweetRepository()).thenReturn(tweetRepository);
+        mockDependencyProvider = mock(BaseTweetView.DependencyProvider.class);
+        when(mockDependencyProvider.getTweetUi()).thenReturn(mockTweetUi);
+        preformatter = new TweetPreformatter(TEST_LINK_COLOR, mockDependencyProvider);
+        tweets = new ArrayList<>();
+        tweets.add(TestFixtures.TEST_TWEET);
+    }
+
+    @Test
+    public void testProcess_warmsCaches() {
+        final Runnable mockOnProcessed = mock(Runnable.class);
+        preformatter.process(tweets, mockOnProcessed);
+
+        assertNotNull(tweetRepository.formatCache.get(TestFixtures.TEST_TWEET.id));
+        assertEquals(1, tweetRepository.linkifiedCache.size());
+        assertNotNull(tweetRepository.createdAtCache.get(TestFixtures.TEST_TWEET.id));
+        verify(mockHandler).post(mockOnProcessed);
+    }
+
+    @Test
+    public void testProcess_matchesViewLinkifiedText() {
+        preformatter.process(tweets, mock(Runnable.class));
+
+        final CharSequence cached = tweetRepository.linkifiedCache.snapshot().values()
+                .iterator().next();
+        assertSame(cached, tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                TweetTextUtils.hasPhotoUrl(TestFixtures.TEST_TWEET.entities), TEST_LINK_COLOR));
+    }
+
+    @Test
+    public void testProcess_tweetUiNotStarted() {
+        when(mockDependencyProvider.getTweetUi()).thenThrow(new IllegalStateException());
+        final Runnable mockOnProcessed = mock(Runnable.class);
+
+        preformatter.process(tweets, mockOnProcessed);
+
+        verify(mockOnProcessed).run();
+        verifyZeroInteractions(mockExecutorService);
+    }
+
+    @Test
+    public void testProcess_tweetRepositoryNotInitialized() {
+        when(mockTweetUi.getTweetRepository()).thenReturn(null);
+        final Runnable mockOnProcessed = mock(Runnable.class);
+
+        preformatter.process(tweets, mockOnProcessed);
+
+        verify(mockOnProcessed).run();
+        verifyZeroInteractions(mockExecutorService);
+    }
+
+    @Test
+    public void testProcess_executorRejects() {
+        doThrow(new RejectedExecutionException()).when(mockExecutorService)
+                .execute(any(Runnable.class));
+        final Runnable mockOnProcessed = mock(Runnable.class);
+
+        preformatter.process(tweets, mockOnProcessed);
+
+        verify(mockOnProcessed).run();
+        assertEquals(0, tweetRepository.linkifiedCache.size());
+    }
+}
@@ -17,18 +17,61 @@
 
 package com.twitter.sdk.android.tweetui;
 
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterApiClient;
+import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.services.StatusesService;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, emulateSdk = 21)
 public class TweetRepositoryTest {
+    private Handler mockHandler;
+    private AuthRequestQueue mockQueue;
+    private StatusesService mockStatusesService;
+    private TweetRepository tweetRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        mockHandler = mock(Handler.class);
+        mockStatusesService = mock(StatusesService.class);
+        final TwitterApiClient mockApiClient = mock(TwitterApiClient.class);
+        when(mockApiClient.getStatusesService()).thenReturn(mockStatusesService);
+        mockQueue = mock(AuthRequestQueue.class);
+        when(mockQueue.addRequest(any(Callback.class))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                final Callback<TwitterApiClient> cb
+                        = (Callback<TwitterApiClient>) invocation.getArguments()[0];
+                cb.success(new Result<>(mockApiClient, null));
+                return true;
+            }
+        });
+        tweetRepository = new TweetRepository(mock(TweetUi.class), mock(ExecutorService.class),
+                mockHandler, mockQueue);
+    }
 
     @Test
     public void testDefaultApiCallbackRunnableSuccess_updateCache() {
@@ -40,4 +83,308 @@ public class TweetRepositoryTest {
 
         verify(mockRepo, times(1)).updateCache(any(Tweet.class));
     }
+
+    @Test
+    public void testRequestTweet_schedulesBatchOnce() {
+        tweetRepository.requestTweet(1L, mock(LoadCallback.class));
+        tweetRepository.requestTweet(2L, mock(LoadCallback.class));
+        tweetRepository.requestTweet(1L, mock(LoadCallback.class));
+
+        verify(mockHandler, times(1)).postDelayed(any(Runnable.class),
+                eq(TweetRepository.BATCH_WINDOW_MILLIS));
+        assertEquals(2, tweetRepository.pendingBatch.size());
+        verifyZeroInteractions(mockQueue);
+    }
+
+    @Test
+    public void testFlushBatch_singleIdUsesShow() {
+        tweetRepository.requestTweet(1L, mock(LoadCallback.class));
+        tweetRepository.flushBatch();
+
+        verify(mockStatusesService).show(eq(1L), any(Boolean.class), any(Boolean.class),
+                any(Boolean.class), any(Callback.class));
+        assertTrue(tweetRepository.pendingBatch.isEmpty());
+    }
+
+    @Test
+    public void testFlushBatch_multipleIdsUseOneLookup() {
+        tweetRepository.requestTweet(1L, mock(LoadCallback.class));
+        tweetRepository.requestTweet(2L, mock(LoadCallback.class));
+        tweetRepository.requestTweet(1L, mock(LoadCallback.class));
+        tweetRepository.flushBatch();
+
+        verify(mockStatusesService, times(1)).lookup(eq("1,2"), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+        verify(mockStatusesService, never()).show(anyLong(), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+    }
+
+    @Test
+    public void testRequestTweet_fullBatchSentImmediately() {
+        for (long id = 0; id < TweetRepository.MAX_LOOKUP_SIZE; id++) {
+            tweetRepository.requestTweet(id, null);
+        }
+
+        verify(mockStatusesService, times(1)).lookup(anyString(), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+        verify(mockHandler).removeCallbacks(any(Runnable.class));
+        assertTrue(tweetRepository.pendingBatch.isEmpty());
+    }
+
+    @Test
+    public void testBatchCallback_success() {
+        final LoadCallback<Tweet> first = mock(LoadCallback.class);
+        final LoadCallback<Tweet> duplicate = mock(LoadCallback.class);
+        final LoadCallback<Tweet> missing = mock(LoadCallback.class);
+        final Tweet tweet = TestFixtures.createTweet(1L);
+
+        final Map<Long, TweetRepository.MultiLoadCallback> batch = new LinkedHashMap<>();
+        batch.put(1L, new TweetRepository.MultiLoadCallback());
+        batch.get(1L).add(first);
+        batch.get(1L).add(duplicate);
+        batch.put(2L, new TweetRepository.MultiLoadCallback());
+        batch.get(2L).add(missing);
+
+        final List<Tweet> tweets = new ArrayList<>();
+        tweets.add(tweet);
+        new TweetRepository.BatchCallback(batch).success(tweets);
+
+        verify(first).success(tweet);
+        verify(duplicate).success(tweet);
+        verify(missing).failure(any(TwitterException.class));
+        verify(missing, never()).success(any(Tweet.class));
+    }
+
+    @Test
+    public void testBatchCallback_failure() {
+        final LoadCallback<Tweet> cb = mock(LoadCallback.class);
+        final TwitterException exception = new TwitterException("error");
+        final Map<Long, TweetRepository.MultiLoadCallback> batch = new LinkedHashMap<>();
+        batch.put(1L, new TweetRepository.MultiLoadCallback());
+        batch.get(1L).add(cb);
+
+        new TweetRepository.BatchCallback(batch).failure(exception);
+
+        verify(cb).failure(exception);
+    }
+
+    @Test
+    public void testLoadTweet_attachesToInFlightLoad() {
+        final LoadCallback<Tweet> first = mock(LoadCallback.class);
+        final LoadCallback<Tweet> second = mock(LoadCallback.class);
+        final Tweet tweet = TestFixtures.createTweet(1L);
+
+        tweetRepository.loadTweet(1L, first);
+        tweetRepository.loadTweet(1L, second);
+        tweetRepository.flushBatch();
+
+        verify(mockStatusesService, times(1)).show(eq(1L), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+        assertEquals(1, tweetRepository.inFlight.size());
+
+        tweetRepository.inFlight.get(1L).success(tweet);
+
+        verify(first).success(tweet);
+        verify(second).success(tweet);
+        assertTrue(tweetRepository.inFlight.isEmpty());
+    }
+
+    @Test
+    public void testLoadTweet_failureClearsInFlightLoad() {
+        final LoadCallback<Tweet> cb = mock(LoadCallback.class);
+        final TwitterException exception = new TwitterException("error");
+
+        tweetRepository.loadTweet(1L, cb);
+        tweetRepository.inFlight.get(1L).failure(exception);
+
+        verify(cb).failure(exception);
+        assertTrue(tweetRepository.inFlight.isEmpty());
+    }
+
+    @Test
+    public void testLoadTweets_allCached() {
+        tweetRepository.tweetCache.put(100L, TestFixtures.createTweet(100L));
+        tweetRepository.tweetCache.put(101L, TestFixtures.createTweet(101L));
+        tweetRepository.tweetCache.put(102L, TestFixtures.createTweet(102L));
+
+        tweetRepository.loadTweets(TestFixtures.TWEET_IDS, mock(LoadCallback.class));
+
+        verifyZeroInteractions(mockQueue);
+        verify(mockHandler).post(any(Runnable.class));
+    }
+
+    @Test
+    public void testLoadTweets_onlyLooksUpMissingIds() {
+        tweetRepository.tweetCache.put(101L, TestFixtures.createTweet(101L));
+
+        tweetRepository.loadTweets(TestFixtures.TWEET_IDS, mock(LoadCallback.class));
+
+        verify(mockStatusesService, times(1)).lookup(eq("100,102"), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+    }
+
+    @Test
+    public void testLoadTweets_pagesLargeLookups() {
+        final List<Long> tweetIds = new ArrayList<>();
+        for (long id = 0; id < TweetRepository.MAX_LOOKUP_SIZE + 1; id++) {
+            tweetIds.add(id);
+        }
+
+        tweetRepository.loadTweets(tweetIds, mock(LoadCallback.class));
+
+        verify(mockStatusesService, times(2)).lookup(anyString(), any(Boolean.class),
+                any(Boolean.class), any(Boolean.class), any(Callback.class));
+    }
+
+    @Test
+    public void testPagedLookupCallback_mergesInOrder() {
+        final LoadCallback<List<Tweet>> cb = mock(LoadCallback.class);
+        final List<Tweet> resolved = new ArrayList<>();
+        resolved.add(TestFixtures.createTweet(101L));
+        final TweetRepository.PagedLookupCallback pagedCallback
+                = new TweetRepository.PagedLookupCallback(TestFixtures.TWEET_IDS, resolved, 2, cb);
+
+        final List<Tweet> firstPage = new ArrayList<>();
+        firstPage.add(TestFixtures.createTweet(102L));
+        pagedCallback.success(firstPage);
+        verifyZeroInteractions(cb);
+
+        final List<Tweet> secondPage = new ArrayList<>();
+        secondPage.add(TestFixtures.createTweet(100L));
+        pagedCallback.success(secondPage);
+
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(cb).success(captor.capture());
+        final List<Tweet> ordered = captor.getValue();
+        assertEquals(TestFixtures.TWEET_IDS.size(), ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            assertEquals((long) TestFixtures.TWEET_IDS.get(i), ordered.get(i).id);
+        }
+    }
+
+    @Test
+    public void testPagedLookupCallback_reportsFirstFailureOnly() {
+        final LoadCallback<List<Tweet>> cb = mock(LoadCallback.class);
+        final TweetRepository.PagedLookupCallback pagedCallback
+                = new TweetRepository.PagedLookupCallback(TestFixtures.TWEET_IDS,
+                        new ArrayList<Tweet>(), 2, cb);
+
+        pagedCallback.failure(new TwitterException("error"));
+        pagedCallback.failure(new TwitterException("error"));
+        pagedCallback.success(TestFixtures.ORDERED_TWEETS);
+
+        verify(cb, times(1)).failure(any(TwitterException.class));
+        verify(cb, never()).success(anyList());
+    }
+
+    @Test
+    public void testSetMemoryCacheSize_keepsEntries() {
+        tweetRepository.tweetCache.put(1L, TestFixtures.TEST_TWEET);
+
+        tweetRepository.setMemoryCacheSize(TweetRepository.DEFAULT_MEMORY_CACHE_BYTES * 2);
+
+        assertEquals(TestFixtures.TEST_TWEET, tweetRepository.tweetCache.get(1L));
+        final int expectedBytes
+                = TweetRepository.tweetCacheBytes(TweetRepository.DEFAULT_MEMORY_CACHE_BYTES * 2);
+        assertEquals(expectedBytes, tweetRepository.tweetCache.maxSize());
+    }
+
+    @Test
+    public void testSetMemoryCacheSize_shrinkEvictsLeastRecentlyUsed() {
+        final Tweet older = TestFixtures.createTweet(1L);
+        final Tweet newer = TestFixtures.createTweet(2L);
+        tweetRepository.tweetCache.put(older.id, older);
+        tweetRepository.tweetCache.put(newer.id, newer);
+
+        // room for a single Tweet in the Tweet cache
+        final int budget = CacheSizes.sizeOf(newer) * 2 + 8;
+        tweetRepository.setMemoryCacheSize(budget);
+
+        assertNull(tweetRepository.tweetCache.get(older.id));
+        assertEquals(newer, tweetRepository.tweetCache.get(newer.id));
+    }
+
+    @Test
+    public void testTrimMemory_completeClearsCaches() {
+        tweetRepository.tweetCache.put(1L, TestFixtures.TEST_TWEET);
+        tweetRepository.formatTweetText(TestFixtures.TEST_TWEET);
+        tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET, false, 0);
+
+        tweetRepository.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(0, tweetRepository.tweetCache.size());
+        assertEquals(0, tweetRepository.formatCache.size());
+        assertEquals(0, tweetRepository.linkifiedCache.size());
+    }
+
+    @Test
+    public void testTrimMemory_backgroundHalvesCaches() {
+        final Tweet tweet = TestFixtures.createTweet(1L);
+        final int tweetSize = CacheSizes.sizeOf(tweet);
+        // room for two Tweets in the Tweet cache
+        tweetRepository.setMemoryCacheSize(tweetSize * 4 + 16);
+        tweetRepository.tweetCache.put(1L, tweet);
+        tweetRepository.tweetCache.put(2L, TestFixtures.createTweet(2L));
+
+        tweetRepository.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        assertEquals(1, tweetRepository.tweetCache.snapshot().size());
+    }
+
+    @Test
+    public void testTrimMemory_uiHiddenKeepsCaches() {
+        tweetRepository.tweetCache.put(1L, TestFixtures.TEST_TWEET);
+
+        tweetRepository.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(TestFixtures.TEST_TWEET, tweetRepository.tweetCache.get(1L));
+    }
+
+    @Test
+    public void testLinkifyTweetText_nullTweet() {
+        assertNull(tweetRepository.linkifyTweetText(null, false, 0));
+    }
+
+    @Test
+    public void testLinkifyTweetText_cachesText() {
+        final CharSequence first = tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                false, 0);
+        final CharSequence second = tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                false, 0);
+
+        assertEquals(TestFixtures.TEST_TWEET.text, first.toString());
+        assertSame(first, second);
+        assertEquals(1, tweetRepository.linkifiedCache.size());
+    }
+
+    @Test
+    public void testLinkifyTweetText_keyedByStyle() {
+        final CharSequence plain = tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                false, 0);
+        final CharSequence colored = tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                false, 1);
+        final CharSequence stripped = tweetRepository.linkifyTweetText(TestFixtures.TEST_TWEET,
+                true, 0);
+
+        assertNotSame(plain, colored);
+        assertNotSame(plain, stripped);
+        assertEquals(3, tweetRepository.linkifiedCache.size());
+    }
+
+    @Test
+    public void testGetCreatedAtMillis_cachesParsedTime() {
+        final long createdAt = tweetRepository.getCreatedAtMillis(TestFixtures.TEST_TWEET);
+
+        assertEquals(TweetDateUtils.apiTimeToLong(TestFixtures.TEST_TIMESTAMP), createdAt);
+        assertEquals(Long.valueOf(createdAt),
+                tweetRepository.createdAtCache.get(TestFixtures.TEST_TWEET.id));
+    }
+
+    @Test
+    public void testGetCreatedAtMillis_invalid() {
+        assertEquals(TweetDateUtils.INVALID_DATE, tweetRepository.getCreatedAtMillis(null));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                tweetRepository.getCreatedAtMillis(TestFixtures.createTweet(5L)));
+        assertEquals(0, tweetRepository.createdAtCache.size());
+    }
 }
@@ -19,6 +19,7 @@ package com.twitter.sdk.android.tweetui;
 
 import android.text.SpannableStringBuilder;
 import android.text.style.ClickableSpan;
+import android.view.View;
 
 import com.twitter.sdk.android.core.models.MediaEntity;
 import com.twitter.sdk.android.core.models.UrlEntity;
@@ -33,6 +34,7 @@ import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, emulateSdk = 21)
@@ -184,4 +186,27 @@ public class TweetTextLinkifierTest {
         assertEquals(adjustedPhoto, combined.get(0));
         assertEquals(adjustedUrl, combined.get(1));
     }
+
+    /*
+     * UrlSpan
+     */
+    @Test
+    public void testUrlSpanOnClick_withListener() {
+        final LinkClickListener mockListener = mock(LinkClickListener.class);
+        final TweetTextLinkifier.UrlSpan span
+                = new TweetTextLinkifier.UrlSpan("https://dev.twitter.com", mockListener, 0);
+
+        span.onClick(mock(View.class));
+
+        verify(mockListener).onUrlClicked("https://dev.twitter.com");
+    }
+
+    @Test
+    public void testUrlSpanOnClick_noListenerOutsideTweetView() {
+        final TweetTextLinkifier.UrlSpan span
+                = new TweetTextLinkifier.UrlSpan("https://dev.twitter.com", null, 0);
+
+        // no enclosing BaseTweetView, the click is ignored
+        span.onClick(mock(View.class));
+    }
 }
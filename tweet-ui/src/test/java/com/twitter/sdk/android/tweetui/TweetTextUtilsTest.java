@@ -29,6 +29,9 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -41,6 +44,10 @@ public class TweetTextUtilsTest {
     private static final int TEST_INDICES_START = 0;
     private static final int TEST_INDICES_END = 13;
     private static final String TEST_MEDIA_TYPE_PHOTO = "photo";
+    // randomized comparison against the previous quadratic implementations
+    private static final long RANDOM_SEED = 42L;
+    private static final int EQUIVALENCE_RUNS = 2000;
+    private static final int MAX_TEXT_LENGTH = 280;
 
     // test getLastPhotoEntity
     @Test
@@ -178,6 +185,173 @@ public class TweetTextUtilsTest {
         assertEquals("&&&&gt&&lt&&amplt;", formattedTweetText.text);
     }
 
+    @Test
+    public void testAdjustIndicesForEscapedChars_matchesReference() {
+        final Random random = new Random(RANDOM_SEED);
+        for (int run = 0; run < EQUIVALENCE_RUNS; run++) {
+            final int[] escapes = randomEscapes(random);
+            final List<FormattedUrlEntity> actual = randomEntities(random);
+            final List<FormattedUrlEntity> expected = copyEntities(actual);
+
+            TweetTextUtils.adjustIndicesForEscapedChars(actual, escapes);
+            referenceAdjustIndicesForEscapedChars(expected, toPairs(escapes));
+
+            assertSameIndices(expected, actual);
+        }
+    }
+
+    @Test
+    public void testAdjustEntitiesWithOffsets_matchesReference() {
+        final Random random = new Random(RANDOM_SEED);
+        for (int run = 0; run < EQUIVALENCE_RUNS; run++) {
+            final int[] surrogates = randomSurrogateIndices(random);
+            final List<FormattedUrlEntity> actual = randomEntities(random);
+            final List<FormattedUrlEntity> expected = copyEntities(actual);
+
+            TweetTextUtils.adjustEntitiesWithOffsets(actual, surrogates);
+            referenceAdjustEntitiesWithOffsets(expected, toList(surrogates));
+
+            assertSameIndices(expected, actual);
+        }
+    }
+
+    @Test
+    public void testAdjustIndicesForSupplementaryChars() {
+        final FormattedTweetText formattedTweetText = new FormattedTweetText();
+        // the api counts each emoji as a single character
+        formattedTweetText.urlEntities.add(new FormattedUrlEntity(
+                TestFixtures.newUrlEntity(3, 6)));
+
+        TweetTextUtils.adjustIndicesForSupplementaryChars("\uD83D\uDE00 \uD83D\uDE00abcd",
+                formattedTweetText);
+
+        assertEquals(5, formattedTweetText.urlEntities.get(0).start);
+        assertEquals(8, formattedTweetText.urlEntities.get(0).end);
+    }
+
+    private static int[] randomEscapes(Random random) {
+        final List<Integer> escapes = new ArrayList<>();
+        int position = random.nextInt(10);
+        while (position < MAX_TEXT_LENGTH && random.nextInt(8) != 0) {
+            // &lt; through &hearts; spans
+            final int end = position + 3 + random.nextInt(5);
+            escapes.add(position);
+            escapes.add(end);
+            position = end + 1 + random.nextInt(20);
+        }
+        return toArray(escapes);
+    }
+
+    private static int[] randomSurrogateIndices(Random random) {
+        final List<Integer> indices = new ArrayList<>();
+        int position = random.nextInt(10);
+        while (position < MAX_TEXT_LENGTH && random.nextInt(6) != 0) {
+            indices.add(position);
+            // runs of adjacent emoji are common
+            position += 2 + (random.nextBoolean() ? 0 : random.nextInt(20));
+        }
+        return toArray(indices);
+    }
+
+    private static List<FormattedUrlEntity> randomEntities(Random random) {
+        final List<FormattedUrlEntity> entities = new ArrayList<>();
+        int position = random.nextInt(20);
+        while (position < MAX_TEXT_LENGTH && random.nextInt(5) != 0) {
+            final int end = position + random.nextInt(30);
+            entities.add(new FormattedUrlEntity(TestFixtures.newUrlEntity(position, end)));
+            position = end + 1 + random.nextInt(20);
+        }
+        // entities are expected to be sorted, but the results must match even when they are not
+        if (random.nextInt(10) == 0) {
+            Collections.shuffle(entities, random);
+        }
+        return entities;
+    }
+
+    private static List<FormattedUrlEntity> copyEntities(List<FormattedUrlEntity> entities) {
+        final List<FormattedUrlEntity> copy = new ArrayList<>();
+        for (FormattedUrlEntity entity : entities) {
+            copy.add(new FormattedUrlEntity(TestFixtures.newUrlEntity(entity.start, entity.end)));
+        }
+        return copy;
+    }
+
+    private static void assertSameIndices(List<FormattedUrlEntity> expected,
+            List<FormattedUrlEntity> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).start, actual.get(i).start);
+            assertEquals(expected.get(i).end, actual.get(i).end);
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static List<Integer> toList(int[] array) {
+        final List<Integer> list = new ArrayList<>();
+        for (int value : array) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static List<int[]> toPairs(int[] array) {
+        final List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < array.length; i += 2) {
+            pairs.add(new int[] {array[i], array[i + 1]});
+        }
+        return pairs;
+    }
+
+    private static void referenceAdjustIndicesForEscapedChars(
+            List<? extends FormattedUrlEntity> entities, List<int[]> indices) {
+        if (entities == null || indices == null || indices.isEmpty()) {
+            return;
+        }
+        final int size = indices.size();
+        int m = 0;
+        int diff = 0;
+        for (FormattedUrlEntity entity : entities) {
+            int inDiff = 0;
+            for (int i = m; i < size; i++) {
+                final int[] index = indices.get(i);
+                final int len = index[1] - index[0];
+                if (index[1] < entity.start) {
+                    diff += len;
+                    m++;
+                } else if (index[1] < entity.end) {
+                    inDiff += len;
+                }
+            }
+            entity.start = entity.start - diff;
+            entity.end = entity.end - (diff + inDiff);
+        }
+    }
+
+    private static void referenceAdjustEntitiesWithOffsets(
+            List<? extends FormattedUrlEntity> entities, List<Integer> indices) {
+        if (entities == null || indices == null) return;
+        for (FormattedUrlEntity entity : entities) {
+            final int start = entity.start;
+            int offset = 0;
+            for (Integer index : indices) {
+                if (index - offset <= start) {
+                    offset += 1;
+                } else {
+                    break;
+                }
+            }
+            entity.start = entity.start + offset;
+            entity.end = entity.end + offset;
+        }
+    }
+
     private Tweet setupTweetToBeFormatted() {
         return new TweetBuilder().setText(ESCAPED_TWEET_TEXT).build();
     }
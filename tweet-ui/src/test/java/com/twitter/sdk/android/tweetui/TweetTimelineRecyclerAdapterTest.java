@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineDelegate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TweetTimelineRecyclerAdapterTest {
+    private TimelineDelegate<Tweet> mockTimelineDelegate;
+    private TweetTimelineRecyclerAdapter recyclerAdapter;
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        mockTimelineDelegate = mock(TimelineListAdapterTest.TestTimelineDelegate.class);
+        context = RuntimeEnvironment.application;
+        recyclerAdapter = new TweetTimelineRecyclerAdapter(context, mockTimelineDelegate);
+    }
+
+    @Test
+    public void testGetItemViewType_text() {
+        when(mockTimelineDelegate.peekItem(0)).thenReturn(TestFixtures.TEST_TWEET);
+        assertEquals(TweetTimelineRecyclerAdapter.VIEW_TYPE_TEXT,
+                recyclerAdapter.getItemViewType(0));
+        verify(mockTimelineDelegate, never()).getItem(0);
+    }
+
+    @Test
+    public void testGetItemViewType_photo() {
+        when(mockTimelineDelegate.peekItem(0)).thenReturn(TestFixtures.TEST_PHOTO_TWEET);
+        assertEquals(TweetTimelineRecyclerAdapter.VIEW_TYPE_PHOTO,
+                recyclerAdapter.getItemViewType(0));
+    }
+
+    @Test
+    public void testGetItemViewType_loadingItem() {
+        when(mockTimelineDelegate.peekItem(0)).thenReturn(null);
+        assertEquals(TweetTimelineRecyclerAdapter.VIEW_TYPE_TEXT,
+                recyclerAdapter.getItemViewType(0));
+    }
+
+    @Test
+    public void testOnCreateViewHolder() {
+        final TweetTimelineRecyclerAdapter.TweetViewHolder holder
+                = recyclerAdapter.onCreateViewHolder(new FrameLayout(context),
+                        TweetTimelineRecyclerAdapter.VIEW_TYPE_TEXT);
+        assertTrue(holder.tweetView instanceof CompactTweetView);
+        assertSame(holder.tweetView, holder.itemView);
+        assertTrue(holder.tweetView.getLayoutParams() instanceof RecyclerView.LayoutParams);
+        assertEquals(View.GONE, holder.tweetView.mediaPhotoView.getVisibility());
+    }
+
+    @Test
+    public void testOnCreateViewHolder_photo() {
+        final TweetTimelineRecyclerAdapter.TweetViewHolder holder
+                = recyclerAdapter.onCreateViewHolder(new FrameLayout(context),
+                        TweetTimelineRecyclerAdapter.VIEW_TYPE_PHOTO);
+        assertEquals(View.VISIBLE, holder.tweetView.mediaPhotoView.getVisibility());
+    }
+
+    @Test
+    public void testNewRecycledViewPool() {
+        final RecyclerView.RecycledViewPool pool
+                = TweetTimelineRecyclerAdapter.newRecycledViewPool();
+        for (int i = 0; i < TweetTimelineRecyclerAdapter.MAX_RECYCLED_VIEWS + 1; i++) {
+            pool.putRecycledView(newViewHolder(TweetTimelineRecyclerAdapter.VIEW_TYPE_PHOTO));
+        }
+        int recycled = 0;
+        while (pool.getRecycledView(TweetTimelineRecyclerAdapter.VIEW_TYPE_PHOTO) != null) {
+            recycled++;
+        }
+        assertEquals(TweetTimelineRecyclerAdapter.MAX_RECYCLED_VIEWS, recycled);
+        assertNull(pool.getRecycledView(TweetTimelineRecyclerAdapter.VIEW_TYPE_TEXT));
+    }
+
+    private TweetTimelineRecyclerAdapter.TweetViewHolder newViewHolder(int viewType) {
+        // createViewHolder, unlike onCreateViewHolder, records the view type on the holder
+        return recyclerAdapter.createViewHolder(new FrameLayout(context), viewType);
+    }
+}
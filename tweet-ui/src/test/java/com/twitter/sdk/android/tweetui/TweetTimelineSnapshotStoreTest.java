@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TimelineSnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import io.fabric.sdk.android.services.persistence.FileStore;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class TweetTimelineSnapshotStoreTest {
+    private static final String TEST_KEY = "user:123:null:null";
+    private static final TimelineCursor TEST_NEXT_CURSOR = new TimelineCursor(1L, 2L);
+    private static final TimelineCursor TEST_PREVIOUS_CURSOR = new TimelineCursor(null, 1L);
+
+    private File filesDir;
+    private ExecutorService mockExecutorService;
+    private TweetTimelineSnapshotStore snapshotStore;
+    private TweetUi mockTweetUi;
+
+    @Before
+    public void setUp() throws Exception {
+        filesDir = new File(RuntimeEnvironment.application.getCacheDir(), "snapshot_test");
+        filesDir.mkdirs();
+        final FileStore mockFileStore = mock(FileStore.class);
+        when(mockFileStore.getFilesDir()).thenReturn(filesDir);
+        mockExecutorService = mock(ExecutorService.class);
+        snapshotStore = new TweetTimelineSnapshotStore(mockFileStore, mockExecutorService,
+                TEST_KEY);
+        mockTweetUi = mock(TweetUi.class);
+    }
+
+    @After
+    public void tearDown() {
+        snapshotStore.clear();
+    }
+
+    @Test
+    public void testLoad_missing() {
+        assertNull(snapshotStore.load());
+    }
+
+    @Test
+    public void testSaveLoad() {
+        snapshotStore.save(createSnapshot());
+        runSubmittedWrite();
+
+        final TimelineSnapshot<Tweet> snapshot = snapshotStore.load();
+        assertNotNull(snapshot);
+        assertEquals(2, snapshot.items.size());
+        assertEquals(TestFixtures.TEST_PHOTO_TWEET.id, snapshot.items.get(0).id);
+        assertEquals(TestFixtures.TEST_TWEET.id, snapshot.items.get(1).id);
+        assertEquals(TestFixtures.TEST_TWEET.text, snapshot.items.get(1).text);
+        assertEquals(TEST_NEXT_CURSOR.minPosition, snapshot.nextCursor.minPosition);
+        assertEquals(TEST_NEXT_CURSOR.maxPosition, snapshot.nextCursor.maxPosition);
+        assertNull(snapshot.previousCursor.minPosition);
+        assertEquals(TEST_PREVIOUS_CURSOR.maxPosition, snapshot.previousCursor.maxPosition);
+    }
+
+    @Test
+    public void testSave_nullCursors() {
+        snapshotStore.save(new TimelineSnapshot<>(new ArrayList<Tweet>(), null, null));
+        runSubmittedWrite();
+
+        final TimelineSnapshot<Tweet> snapshot = snapshotStore.load();
+        assertNotNull(snapshot);
+        assertTrue(snapshot.items.isEmpty());
+        assertNull(snapshot.nextCursor);
+        assertNull(snapshot.previousCursor);
+    }
+
+    @Test
+    public void testSave_writesOnlyLatestPendingSnapshot() {
+        snapshotStore.save(new TimelineSnapshot<>(new ArrayList<Tweet>(), null, null));
+        snapshotStore.save(createSnapshot());
+        verify(mockExecutorService, times(1)).submit(any(Runnable.class));
+        runSubmittedWrite();
+
+        assertEquals(2, snapshotStore.load().items.size());
+    }
+
+    @Test
+    public void testLoad_otherKey() {
+        snapshotStore.save(createSnapshot());
+        runSubmittedWrite();
+
+        final FileStore mockFileStore = mock(FileStore.class);
+        when(mockFileStore.getFilesDir()).thenReturn(filesDir);
+        final TweetTimelineSnapshotStore otherStore = new TweetTimelineSnapshotStore(
+                mockFileStore, mockExecutorService, "user:456:null:null");
+        assertNull(otherStore.load());
+    }
+
+    @Test
+    public void testLoad_corruptFile() throws Exception {
+        snapshotStore.save(createSnapshot());
+        runSubmittedWrite();
+        final File dir = new File(filesDir, TweetTimelineSnapshotStore.SNAPSHOT_DIR_NAME);
+        final FileOutputStream out = new FileOutputStream(dir.listFiles()[0]);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        assertNull(snapshotStore.load());
+    }
+
+    @Test
+    public void testKeyOf_userTimeline() {
+        assertEquals("user:123:false:false", TweetTimelineSnapshotStore.keyOf(
+                new UserTimeline(mockTweetUi, 123L, null, null, null, false)));
+        assertEquals("user:jack:false:null", TweetTimelineSnapshotStore.keyOf(
+                new UserTimeline(mockTweetUi, null, "Jack", null, null, null)));
+    }
+
+    @Test
+    public void testKeyOf_listTimeline() {
+        assertEquals("list:42:null", TweetTimelineSnapshotStore.keyOf(
+                new TwitterListTimeline(mockTweetUi, 42L, null, null, null, null, null)));
+        assertEquals("list:news:twitter:true", TweetTimelineSnapshotStore.keyOf(
+                new TwitterListTimeline(mockTweetUi, null, "news", null, "Twitter", null, true)));
+    }
+
+    @Test
+    public void testKeyOf_searchTimeline() {
+        assertEquals("search:en:#fabric" + SearchTimeline.FILTER_RETWEETS,
+                TweetTimelineSnapshotStore.keyOf(
+                        new SearchTimeline(mockTweetUi, "#fabric", "en", null)));
+    }
+
+    @Test
+    public void testKeyOf_collectionTimeline() {
+        assertEquals("collection:" + CollectionTimeline.COLLECTION_PREFIX + "393773266801659904",
+                TweetTimelineSnapshotStore.keyOf(
+                        new CollectionTimeline(mockTweetUi, 393773266801659904L, null)));
+    }
+
+    @Test
+    public void testKeyOf_unknownTimeline() {
+        assertNull(TweetTimelineSnapshotStore.keyOf(mock(Timeline.class)));
+    }
+
+    private TimelineSnapshot<Tweet> createSnapshot() {
+        final List<Tweet> tweets = new ArrayList<>();
+        tweets.add(TestFixtures.TEST_PHOTO_TWEET);
+        tweets.add(TestFixtures.TEST_TWEET);
+        return new TimelineSnapshot<>(tweets, TEST_NEXT_CURSOR, TEST_PREVIOUS_CURSOR);
+    }
+
+    private void runSubmittedWrite() {
+        final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutorService, atLeastOnce()).submit(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+    }
+}
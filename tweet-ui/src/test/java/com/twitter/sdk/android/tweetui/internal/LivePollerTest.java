@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import android.app.Activity;
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.tweetui.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit.client.Header;
+import retrofit.client.Response;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class LivePollerTest {
+    private static final long NOW_MILLIS = 1000 * 1000L;
+    private static final long WINDOW_MILLIS = 15 * 60 * 1000L;
+
+    private Handler mockHandler;
+    private Runnable mockPoll;
+    private LivePoller poller;
+
+    @Before
+    public void setUp() throws Exception {
+        mockHandler = mock(Handler.class);
+        mockPoll = mock(Runnable.class);
+        poller = new LivePoller(mockHandler, mockPoll);
+    }
+
+    @Test
+    public void testStart() {
+        poller.start();
+        verify(mockHandler).postDelayed(poller, LivePoller.MIN_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void testStop() {
+        poller.start();
+        poller.stop();
+        verify(mockHandler, atLeastOnce()).removeCallbacks(poller);
+        poller.run();
+        verifyZeroInteractions(mockPoll);
+    }
+
+    @Test
+    public void testRun() {
+        poller.start();
+        poller.run();
+        verify(mockPoll).run();
+    }
+
+    @Test
+    public void testRun_paused() {
+        poller.start();
+        poller.pause();
+        poller.run();
+        verifyZeroInteractions(mockPoll);
+    }
+
+    @Test
+    public void testResume_pollsRightAway() {
+        poller.start();
+        poller.pause();
+        poller.resume();
+        verify(mockHandler).postDelayed(poller, 0);
+    }
+
+    @Test
+    public void testOnSuccess_notStarted() {
+        poller.onSuccess(null);
+        verify(mockHandler, never()).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testOnSuccess_staleResponseBacksOff() {
+        final List<Header> headers = rateLimitHeaders("15", resetSeconds(WINDOW_MILLIS));
+        headers.add(new Header(LivePoller.WARNING_KEY, "110 - \"Response is Stale\""));
+        poller.start();
+        poller.failureCount = 2;
+        poller.onSuccess(new Response("https://api.twitter.com", 200, "OK", headers, null));
+        assertEquals(3, poller.failureCount);
+        verify(mockHandler).postDelayed(poller, 4 * LivePoller.DEFAULT_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void testIsStale() {
+        final List<Header> headers = rateLimitHeaders("15", resetSeconds(WINDOW_MILLIS));
+        assertFalse(LivePoller.isStale(null));
+        assertFalse(LivePoller.isStale(headers));
+        headers.add(new Header("warning", "110 - \"Response is Stale\""));
+        assertTrue(LivePoller.isStale(headers));
+    }
+
+    @Test
+    public void testOnFailure_backsOff() {
+        poller.start();
+        poller.onFailure(new TwitterException("Some exception"));
+        poller.onFailure(new TwitterException("Some exception"));
+        verify(mockHandler).postDelayed(poller, LivePoller.DEFAULT_INTERVAL_MILLIS);
+        verify(mockHandler).postDelayed(poller, 2 * LivePoller.DEFAULT_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void testSuccessDelay_noHeaders() {
+        assertEquals(LivePoller.DEFAULT_INTERVAL_MILLIS, LivePoller.successDelay(null, NOW_MILLIS));
+        assertEquals(LivePoller.DEFAULT_INTERVAL_MILLIS,
+                LivePoller.successDelay(new ArrayList<Header>(), NOW_MILLIS));
+    }
+
+    @Test
+    public void testSuccessDelay_invalidHeaders() {
+        assertEquals(LivePoller.DEFAULT_INTERVAL_MILLIS,
+                LivePoller.successDelay(rateLimitHeaders("many", "soon"), NOW_MILLIS));
+    }
+
+    @Test
+    public void testSuccessDelay_spreadsRemainingRequests() {
+        final List<Header> headers = rateLimitHeaders("15", resetSeconds(WINDOW_MILLIS));
+        // half of the 15 remaining requests over 15 minutes
+        assertEquals(2 * 60 * 1000L, LivePoller.successDelay(headers, NOW_MILLIS));
+    }
+
+    @Test
+    public void testSuccessDelay_atLeastMinInterval() {
+        final List<Header> headers = rateLimitHeaders("900", resetSeconds(WINDOW_MILLIS));
+        assertEquals(LivePoller.MIN_INTERVAL_MILLIS, LivePoller.successDelay(headers, NOW_MILLIS));
+    }
+
+    @Test
+    public void testSuccessDelay_noneRemainingWaitsForReset() {
+        final List<Header> headers = rateLimitHeaders("0", resetSeconds(5 * 60 * 1000L));
+        assertEquals(5 * 60 * 1000L, LivePoller.successDelay(headers, NOW_MILLIS));
+    }
+
+    @Test
+    public void testSuccessDelay_windowReset() {
+        final List<Header> headers = rateLimitHeaders("0", resetSeconds(-1000L));
+        assertEquals(LivePoller.MIN_INTERVAL_MILLIS, LivePoller.successDelay(headers, NOW_MILLIS));
+    }
+
+    @Test
+    public void testFailureDelay() {
+        assertEquals(LivePoller.DEFAULT_INTERVAL_MILLIS, LivePoller.failureDelay(1));
+        assertEquals(4 * LivePoller.DEFAULT_INTERVAL_MILLIS, LivePoller.failureDelay(3));
+        assertEquals(LivePoller.MAX_INTERVAL_MILLIS, LivePoller.failureDelay(20));
+    }
+
+    @Test
+    public void testLifecycleCallbacks_activity() {
+        final Activity activity = mock(Activity.class);
+        final LivePoller.LifecycleCallbacks callbacks
+                = new LivePoller.LifecycleCallbacks(poller, activity);
+        poller.start();
+
+        callbacks.onActivityStopped(mock(Activity.class));
+        assertFalse(poller.paused);
+        callbacks.onActivityStopped(activity);
+        assertTrue(poller.paused);
+        callbacks.onActivityStarted(activity);
+        assertFalse(poller.paused);
+        callbacks.onActivityDestroyed(activity);
+        assertFalse(poller.started);
+    }
+
+    @Test
+    public void testLifecycleCallbacks_anyActivity() {
+        final LivePoller.LifecycleCallbacks callbacks
+                = new LivePoller.LifecycleCallbacks(poller, null);
+        poller.start();
+
+        // another activity starts before the current one stops
+        callbacks.onActivityStarted(mock(Activity.class));
+        callbacks.onActivityStarted(mock(Activity.class));
+        callbacks.onActivityStopped(mock(Activity.class));
+        assertFalse(poller.paused);
+        callbacks.onActivityStopped(mock(Activity.class));
+        assertTrue(poller.paused);
+    }
+
+    @Test
+    public void testLifecycleCallbacks_anyActivityRegisteredBeforeStart() {
+        final Activity activity = mock(Activity.class);
+        final LivePoller.LifecycleCallbacks callbacks
+                = new LivePoller.LifecycleCallbacks(poller, null);
+        poller.start();
+
+        // registered from onCreate, before the activity starts
+        callbacks.onActivityStarted(activity);
+        assertFalse(poller.paused);
+        callbacks.onActivityStopped(activity);
+        assertTrue(poller.paused);
+    }
+
+    @Test
+    public void testLifecycleCallbacks_anyActivityRegisteredAfterStart() {
+        final Activity activity = mock(Activity.class);
+        final LivePoller.LifecycleCallbacks callbacks
+                = new LivePoller.LifecycleCallbacks(poller, null);
+        poller.start();
+
+        callbacks.onActivityStopped(activity);
+        assertTrue(poller.paused);
+        callbacks.onActivityStarted(activity);
+        assertFalse(poller.paused);
+    }
+
+    @Test
+    public void testLifecycleCallbacks_anyActivityDestroyed() {
+        final LivePoller.LifecycleCallbacks callbacks
+                = new LivePoller.LifecycleCallbacks(poller, null);
+        poller.start();
+
+        callbacks.onActivityCreated(mock(Activity.class), null);
+        callbacks.onActivityDestroyed(mock(Activity.class));
+        assertTrue(poller.started);
+        callbacks.onActivityDestroyed(mock(Activity.class));
+        assertFalse(poller.started);
+    }
+
+    private static List<Header> rateLimitHeaders(String remaining, String reset) {
+        final List<Header> headers = new ArrayList<>();
+        headers.add(new Header("x-rate-limit-limit", "180"));
+        headers.add(new Header(LivePoller.REMAINING_KEY, remaining));
+        headers.add(new Header(LivePoller.RESET_KEY, reset));
+        return headers;
+    }
+
+    private static String resetSeconds(long fromNowMillis) {
+        return Long.toString((NOW_MILLIS + fromNowMillis) / 1000L);
+    }
+}
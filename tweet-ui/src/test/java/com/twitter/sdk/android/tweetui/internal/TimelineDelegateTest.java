@@ -24,6 +24,8 @@ import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.tweetui.BuildConfig;
+import com.twitter.sdk.android.tweetui.LoadCallback;
+import com.twitter.sdk.android.tweetui.NewItemsListener;
 import com.twitter.sdk.android.tweetui.TestItem;
 import com.twitter.sdk.android.tweetui.Timeline;
 import com.twitter.sdk.android.tweetui.TimelineCursor;
@@ -41,6 +43,8 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import io.fabric.sdk.android.ActivityLifecycleManager;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -135,6 +139,18 @@ public class TimelineDelegateTest {
         assertEquals(TEST_ITEM_1, delegate.getItem(1));
     }
 
+    @Test
+    public void testPeekItem_doesNotLoad() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        assertNull(delegate.peekItem(TimelineDelegate.WINDOW_SIZE));
+        assertNotNull(delegate.peekItem(0));
+        delegate.peekItem(2 * TimelineDelegate.WINDOW_SIZE - 1);
+        verify(mockItemCache, never()).load(any(List.class), any(LoadCallback.class));
+        verifyZeroInteractions(mockTimeline);
+    }
+
     @Test
     public void testGetLastItem_loadsPrevious() {
         final Timeline<TestItem> fakeTimeline = new FakeItemTimeline(NUM_ITEMS, ANY_POSITION,
@@ -171,6 +187,44 @@ public class TimelineDelegateTest {
         assertEquals(TEST_ITEM_1.getId(), delegate.getItemId(1));
     }
 
+    @Test
+    public void testGetItemPosition() {
+        delegate = new TimelineDelegate<>(mockTimeline, null, testItems);
+        assertEquals(0, delegate.getItemPosition(TEST_ITEM_2.getId()));
+        assertEquals(1, delegate.getItemPosition(TEST_ITEM_1.getId()));
+        assertEquals(-1, delegate.getItemPosition(TEST_ITEM_3.getId()));
+    }
+
+    @Test
+    public void testGetItemPosition_afterNext() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final Result<TimelineResult<TestItem>> extraResult = new Result<>(
+                new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null);
+        delegate.new NextCallback(null, delegate.timelineStateHolder).success(extraResult);
+        assertEquals(0, delegate.getItemPosition(TEST_ITEM_4.getId()));
+        assertEquals(1, delegate.getItemPosition(TEST_ITEM_3.getId()));
+        assertEquals(2, delegate.getItemPosition(TEST_ITEM_2.getId()));
+        assertEquals(3, delegate.getItemPosition(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testUpdateItem() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final TestItem updatedItem = new TestItem(TEST_ITEM_1.getId());
+        delegate.updateItem(updatedItem);
+        assertSame(updatedItem, delegate.itemList.get(1));
+        assertEquals(testItems.size(), delegate.getCount());
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testUpdateItem_missingItem() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.updateItem(TEST_ITEM_3);
+        assertEquals(testItems, delegate.itemList);
+        verifyZeroInteractions(mockObservable);
+    }
+
     @Test
     public void testWithinMaxCapacity() {
         delegate = new TimelineDelegate<>(mockTimeline);
@@ -181,13 +235,518 @@ public class TimelineDelegateTest {
     }
 
     @Test
-    public void testIsLastPosition() {
+    public void testIsPrefetchPosition() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final int distance = TimelineDelegate.DEFAULT_PREFETCH_DISTANCE;
+        assertFalse(delegate.isPrefetchPosition(0));
+        assertFalse(delegate.isPrefetchPosition(NUM_ITEMS - 2 - distance));
+        assertTrue(delegate.isPrefetchPosition(NUM_ITEMS - 1 - distance));
+        assertTrue(delegate.isPrefetchPosition(NUM_ITEMS - 1));
+    }
+
+    @Test
+    public void testIsPrefetchPosition_zeroDistance() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.setPrefetchDistance(0);
+        assertFalse(delegate.isPrefetchPosition(NUM_ITEMS - 2));
+        assertTrue(delegate.isPrefetchPosition(NUM_ITEMS - 1));
+    }
+
+    @Test
+    public void testSetPrefetchDistance_negative() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        try {
+            delegate.setPrefetchDistance(-1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Prefetch distance must not be negative", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetItem_prefetchesPrevious() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.getItem(NUM_ITEMS - 1 - TimelineDelegate.DEFAULT_PREFETCH_DISTANCE);
+        verify(mockTimeline).previous(isNull(Long.class), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_queuesPreviousWhileInFlight() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.getItem(NUM_ITEMS - 1);
+        delegate.getItem(NUM_ITEMS - 1);
+        assertTrue(delegate.previousQueued);
+        final ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline, times(1)).previous(any(Long.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().success(new Result<>(
+                new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        assertFalse(delegate.previousQueued);
+        verify(mockTimeline).previous(eq(TEST_MIN_POSITION), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_queuedPreviousDroppedOnFailure() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.getItem(NUM_ITEMS - 1);
+        delegate.getItem(NUM_ITEMS - 1);
+        final ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline).previous(any(Long.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().failure(TEST_TWITTER_EXCEPTION);
+        assertFalse(delegate.previousQueued);
+        verify(mockTimeline, times(1)).previous(any(Long.class), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_queuedPreviousDroppedWhenPageReachesPosition() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.getItem(NUM_ITEMS - 1);
+        delegate.getItem(NUM_ITEMS - 1);
+        final ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline).previous(any(Long.class), callbackCaptor.capture());
+
+        // a full page moves the last item more than prefetchDistance past the position
+        final List<TestItem> page = new ArrayList<>();
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            page.add(new TestItem(i));
+        }
+        callbackCaptor.getValue().success(new Result<>(
+                new TimelineResult<>(TEST_TIMELINE_CURSOR, page), null));
+        assertFalse(delegate.previousQueued);
+        verify(mockTimeline, times(1)).previous(any(Long.class), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_queuedPreviousKeptOnNextFailure() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.refresh(null);
+        delegate.getItem(NUM_ITEMS - 1);
+        final ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline).next(isNull(Long.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().failure(TEST_TWITTER_EXCEPTION);
+        assertTrue(delegate.previousQueued);
+    }
+
+    @Test
+    public void testGetItem_prefetchesPreviousWhileNextInFlight() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.timelineStateHolder.setPreviousCursor(TEST_TIMELINE_CURSOR);
+        delegate.next(null);
+        delegate.getItem(NUM_ITEMS - 1);
+        assertFalse(delegate.previousQueued);
+        verify(mockTimeline).previous(eq(TEST_MIN_POSITION), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_queuesPreviousWhileRefreshInFlight() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.timelineStateHolder.setPreviousCursor(TEST_TIMELINE_CURSOR);
+        delegate.refresh(null);
+        delegate.getItem(NUM_ITEMS - 1);
+        // the refresh reset the cursor for previous items, they are loaded once it succeeds
+        assertTrue(delegate.previousQueued);
+        verify(mockTimeline, never()).previous(any(Long.class), any(Callback.class));
+    }
+
+    @Test
+    public void testPreviousCallback_successDroppedAfterRefresh() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.timelineStateHolder.setPreviousCursor(new TimelineCursor(ANY_POSITION,
+                ANY_POSITION));
+        delegate.previous();
+        final ArgumentCaptor<Callback> previousCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline).previous(eq(ANY_POSITION), previousCaptor.capture());
+        delegate.refresh(null);
+        final ArgumentCaptor<Callback> nextCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockTimeline).next(isNull(Long.class), nextCaptor.capture());
+
+        nextCaptor.getValue().success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR,
+                testExtraItems), null));
+        previousCaptor.getValue().success(new Result<>(new TimelineResult<>(
+                new TimelineCursor(ANY_POSITION - 1, ANY_POSITION - 1),
+                Collections.singletonList(new TestItem(ANY_POSITION - 1))), null));
+        // the older page no longer follows the refreshed items
+        assertEquals(testExtraItems, delegate.itemList);
+        assertEquals(TEST_MIN_POSITION, delegate.timelineStateHolder.positionForPrevious());
+        assertFalse(delegate.timelineStateHolder.previousRequestInFlight.get());
+        assertFalse(delegate.timelineStateHolder.nextRequestInFlight.get());
+    }
+
+    // gaps
+
+    @Test
+    public void testNextCallback_successFullPageAddsGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.largestPageSize = testExtraItems.size();
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        assertFalse(delegate.hasGapAfter(0));
+        assertTrue(delegate.hasGapAfter(1));
+        assertEquals(TEST_MIN_POSITION, delegate.gaps.get(TEST_ITEM_3.getId()));
+    }
+
+    @Test
+    public void testNextCallback_successPartialPageAddsNoGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.largestPageSize = testExtraItems.size() + 1;
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        assertTrue(delegate.gaps.isEmpty());
+    }
+
+    @Test
+    public void testGetItem_fillsGapNearPosition() {
         testItems = new LinkedList<>();
         TestItem.populateList(testItems, NUM_ITEMS);
         delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
-        assertFalse(delegate.isLastPosition(0));
-        assertFalse(delegate.isLastPosition(NUM_ITEMS - 2));
-        assertTrue(delegate.isLastPosition(NUM_ITEMS - 1));
+        delegate.gaps.put(testItems.get(0).getId(), ANY_POSITION);
+        delegate.getItem(1);
+        assertTrue(delegate.gapFillInFlight);
+        verify(mockTimeline).previous(eq(ANY_POSITION), any(TimelineDelegate.GapCallback.class));
+        // only one fill is in flight at a time
+        delegate.getItem(1);
+        verify(mockTimeline, times(1)).previous(any(Long.class), any(Callback.class));
+    }
+
+    @Test
+    public void testGetItem_doesNotFillDistantGap() {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, NUM_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.gaps.put(testItems.get(NUM_ITEMS / 2).getId(), ANY_POSITION);
+        delegate.getItem(0);
+        verifyZeroInteractions(mockTimeline);
+    }
+
+    @Test
+    public void testGapCallback_successClosesGap() {
+        // items 2222, 1111 with a gap below 2222, the fill reaches 1111
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.gaps.put(TEST_ITEM_2.getId(), TEST_ITEM_2.getId());
+        final ItemRangeObserver mockObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockObserver);
+        final TestItem missingItem = new TestItem(1500L);
+        final List<TestItem> fillItems = new ArrayList<>();
+        fillItems.add(missingItem);
+        fillItems.add(TEST_ITEM_1);
+        final TimelineDelegate.GapCallback cb = delegate.new GapCallback(TEST_ITEM_2.getId());
+        cb.success(new Result<>(new TimelineResult<>(new TimelineCursor(TEST_ITEM_1.getId(),
+                missingItem.getId()), fillItems), null));
+
+        assertEquals(3, delegate.itemList.size());
+        assertEquals(missingItem, delegate.itemList.get(1));
+        assertEquals(TEST_ITEM_1, delegate.itemList.get(2));
+        assertTrue(delegate.gaps.isEmpty());
+        assertFalse(delegate.gapFillInFlight);
+        verify(mockObserver).onItemRangeInserted(1, 1);
+    }
+
+    @Test
+    public void testGapCallback_successMovesGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.gaps.put(TEST_ITEM_2.getId(), TEST_ITEM_2.getId());
+        final List<TestItem> fillItems = new ArrayList<>();
+        fillItems.add(new TestItem(2000L));
+        fillItems.add(new TestItem(1900L));
+        final TimelineDelegate.GapCallback cb = delegate.new GapCallback(TEST_ITEM_2.getId());
+        cb.success(new Result<>(new TimelineResult<>(new TimelineCursor(1900L, 2000L),
+                fillItems), null));
+
+        assertEquals(4, delegate.itemList.size());
+        assertEquals(TEST_ITEM_1, delegate.itemList.get(3));
+        assertFalse(delegate.hasGapAfter(0));
+        assertTrue(delegate.hasGapAfter(2));
+        assertEquals(Long.valueOf(1900L), delegate.gaps.get(1900L));
+    }
+
+    @Test
+    public void testGapCallback_successDroppedGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final TimelineDelegate.GapCallback cb = delegate.new GapCallback(TEST_ITEM_2.getId());
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems),
+                null));
+        assertEquals(testItems, delegate.itemList);
+        verifyZeroInteractions(mockObservable);
+    }
+
+    @Test
+    public void testGapCallback_failureKeepsGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.gaps.put(TEST_ITEM_2.getId(), ANY_POSITION);
+        delegate.gapFillInFlight = true;
+        final TimelineDelegate.GapCallback cb = delegate.new GapCallback(TEST_ITEM_2.getId());
+        cb.failure(TEST_TWITTER_EXCEPTION);
+        assertFalse(delegate.gapFillInFlight);
+        assertTrue(delegate.hasGapAfter(0));
+    }
+
+    @Test
+    public void testRefresh_windowedKeepsCursors() {
+        delegate = newWindowedDelegate(mock(TimelineItemCache.class), TOTAL_ITEMS);
+        delegate.timelineStateHolder.setNextCursor(new TimelineCursor(ANY_POSITION, ANY_POSITION));
+        delegate.refresh(null);
+        assertEquals(ANY_POSITION, delegate.timelineStateHolder.positionForNext());
+        assertEquals(ANY_POSITION, delegate.timelineStateHolder.positionForPrevious());
+        verify(mockTimeline).next(isNull(Long.class), any(TimelineDelegate.RefreshCallback.class));
+    }
+
+    @Test
+    public void testRefreshCallback_windowedKeepsItemsBelowGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null,
+                mock(TimelineItemCache.class));
+        final TimelineCursor previousCursor = new TimelineCursor(ANY_POSITION, ANY_POSITION);
+        delegate.timelineStateHolder.setPreviousCursor(previousCursor);
+        final TimelineDelegate.RefreshCallback cb = delegate.new RefreshCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+
+        assertEquals(TOTAL_ITEMS, delegate.itemList.size());
+        assertEquals(TEST_ITEM_4, delegate.itemList.get(0));
+        assertEquals(TEST_ITEM_2, delegate.itemList.get(2));
+        assertTrue(delegate.hasGapAfter(1));
+        assertEquals(TEST_MAX_POSITION, delegate.timelineStateHolder.positionForNext());
+        assertEquals(ANY_POSITION, delegate.timelineStateHolder.positionForPrevious());
+    }
+
+    @Test
+    public void testRefreshCallback_windowedKeepsOlderItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null,
+                mock(TimelineItemCache.class));
+        final List<TestItem> latestItems = new ArrayList<>();
+        latestItems.add(TEST_ITEM_3);
+        latestItems.add(TEST_ITEM_2);
+        final TimelineDelegate.RefreshCallback cb = delegate.new RefreshCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, latestItems), null));
+
+        assertEquals(3, delegate.itemList.size());
+        assertEquals(TEST_ITEM_3, delegate.itemList.get(0));
+        assertEquals(TEST_ITEM_1, delegate.itemList.get(2));
+        assertTrue(delegate.gaps.isEmpty());
+    }
+
+    @Test
+    public void testRefreshCallback_windowedReplacesOnIrregularOverlap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null,
+                mock(TimelineItemCache.class));
+        delegate.timelineStateHolder.setPreviousCursor(new TimelineCursor(ANY_POSITION,
+                ANY_POSITION));
+        delegate.gaps.put(TEST_ITEM_2.getId(), ANY_POSITION);
+        final List<TestItem> latestItems = new ArrayList<>();
+        latestItems.add(TEST_ITEM_4);
+        latestItems.add(TEST_ITEM_1);
+        final TimelineDelegate.RefreshCallback cb = delegate.new RefreshCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, latestItems), null));
+
+        assertEquals(latestItems, delegate.itemList);
+        assertTrue(delegate.gaps.isEmpty());
+        assertEquals(TEST_MIN_POSITION, delegate.timelineStateHolder.positionForPrevious());
+    }
+
+    // windowing
+
+    @Test
+    public void testWithinMaxCapacity_windowed() {
+        TestItem.populateList(testItems, TimelineDelegate.CAPACITY);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null,
+                mock(TimelineItemCache.class));
+        assertTrue(delegate.withinMaxCapacity());
+    }
+
+    @Test
+    public void testTrimWindow_evictsFarItems() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+
+        assertEquals(TimelineDelegate.WINDOW_SIZE, delegate.itemList.materializedCount());
+        assertFalse(delegate.itemList.isEvicted(TimelineDelegate.WINDOW_SIZE - 1));
+        assertTrue(delegate.itemList.isEvicted(TimelineDelegate.WINDOW_SIZE));
+        // evicted items keep their ids and positions
+        assertEquals(2 * TimelineDelegate.WINDOW_SIZE, delegate.getCount());
+        assertEquals(testItems.get(TimelineDelegate.WINDOW_SIZE).getId(),
+                delegate.getItemId(TimelineDelegate.WINDOW_SIZE));
+        verify(mockItemCache).put(testItems.subList(TimelineDelegate.WINDOW_SIZE,
+                2 * TimelineDelegate.WINDOW_SIZE));
+    }
+
+    @Test
+    public void testTrimWindow_notWindowed() {
+        TestItem.populateList(testItems, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.trimWindow();
+        assertEquals(testItems.size(), delegate.itemList.materializedCount());
+    }
+
+    @Test
+    public void testGetItem_hydratesEvictedItems() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        final int position = TimelineDelegate.WINDOW_SIZE + TimelineDelegate.HYDRATE_RADIUS;
+
+        assertNull(delegate.getItem(position));
+        final ArgumentCaptor<List> idsCaptor = ArgumentCaptor.forClass(List.class);
+        final ArgumentCaptor<LoadCallback> callbackCaptor
+                = ArgumentCaptor.forClass(LoadCallback.class);
+        verify(mockItemCache).load(idsCaptor.capture(), callbackCaptor.capture());
+        final List<Long> ids = idsCaptor.getValue();
+        assertEquals(2 * TimelineDelegate.HYDRATE_RADIUS + 1, ids.size());
+        assertEquals(Long.valueOf(testItems.get(TimelineDelegate.WINDOW_SIZE).getId()),
+                ids.get(0));
+
+        callbackCaptor.getValue().success(testItems.subList(TimelineDelegate.WINDOW_SIZE,
+                position + TimelineDelegate.HYDRATE_RADIUS + 1));
+        assertSame(testItems.get(position), delegate.getItem(position));
+        assertFalse(delegate.hydrateInFlight);
+        assertTrue(delegate.itemList.materializedCount() <= TimelineDelegate.WINDOW_SIZE);
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testGetItem_hydrateInFlight() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE + 1);
+        verify(mockItemCache, times(1)).load(any(List.class), any(LoadCallback.class));
+    }
+
+    @Test
+    public void testHydrate_removesMissingItems() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        final TestItem missingItem = testItems.get(TimelineDelegate.WINDOW_SIZE);
+        final List<Long> ids = Collections.singletonList(missingItem.getId());
+
+        delegate.new HydrateCallback(ids).success(Collections.<TestItem>emptyList());
+        assertEquals(2 * TimelineDelegate.WINDOW_SIZE - 1, delegate.getCount());
+        assertEquals(-1, delegate.getItemPosition(missingItem.getId()));
+    }
+
+    @Test
+    public void testHydrate_failure() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        final ArgumentCaptor<LoadCallback> callbackCaptor
+                = ArgumentCaptor.forClass(LoadCallback.class);
+        verify(mockItemCache).load(any(List.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().failure(TEST_TWITTER_EXCEPTION);
+        assertFalse(delegate.hydrateInFlight);
+        assertTrue(delegate.itemList.isEvicted(TimelineDelegate.WINDOW_SIZE));
+        assertEquals(1, delegate.hydrateFailureCount);
+        // evicted items are not requested again until the backoff delay has passed
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        verify(mockItemCache, times(1)).load(any(List.class), any(LoadCallback.class));
+        delegate.hydrateRetryMillis = System.currentTimeMillis() - 1;
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        verify(mockItemCache, times(2)).load(any(List.class), any(LoadCallback.class));
+    }
+
+    @Test
+    public void testRefresh_retriesFailedHydrate() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        delegate = newWindowedDelegate(mockItemCache, 2 * TimelineDelegate.WINDOW_SIZE);
+        delegate.trimWindow();
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        final ArgumentCaptor<LoadCallback> callbackCaptor
+                = ArgumentCaptor.forClass(LoadCallback.class);
+        verify(mockItemCache).load(any(List.class), callbackCaptor.capture());
+        callbackCaptor.getValue().failure(TEST_TWITTER_EXCEPTION);
+
+        delegate.refresh(null);
+        delegate.getItem(TimelineDelegate.WINDOW_SIZE);
+        verify(mockItemCache, times(2)).load(any(List.class), any(LoadCallback.class));
+    }
+
+    @Test
+    public void testPrevious_windowedTrimsWindow() {
+        final TimelineItemCache<TestItem> mockItemCache = mock(TimelineItemCache.class);
+        final Timeline<TestItem> fakeTimeline = new FakeItemTimeline(NUM_ITEMS, ANY_POSITION,
+                ANY_POSITION);
+        TestItem.populateList(testItems, TimelineDelegate.WINDOW_SIZE - testItems.size());
+        delegate = new TimelineDelegate<>(fakeTimeline, mockObservable, testItems, null,
+                mockItemCache);
+        delegate.previous();
+
+        assertEquals(TimelineDelegate.WINDOW_SIZE + NUM_ITEMS, delegate.getCount());
+        assertEquals(TimelineDelegate.WINDOW_SIZE, delegate.itemList.materializedCount());
+        verify(mockItemCache).put(any(List.class));
+    }
+
+    private TimelineDelegate<TestItem> newWindowedDelegate(TimelineItemCache<TestItem> itemCache,
+            int count) {
+        testItems = new LinkedList<>();
+        TestItem.populateList(testItems, count);
+        return new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null, itemCache);
+    }
+
+    // item processor
+
+    @Test
+    public void testProcessItems_nullProcessor() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
+        assertSame(mockCallback, delegate.processItems(mockCallback));
+    }
+
+    @Test
+    public void testProcessItems_notifiesAfterProcessing() {
+        final Timeline<TestItem> fakeTimeline = new FakeItemTimeline(NUM_ITEMS, ANY_POSITION,
+                ANY_POSITION);
+        final TimelineItemProcessor<TestItem> mockProcessor = mock(TimelineItemProcessor.class);
+        delegate = new TimelineDelegate<>(fakeTimeline, mockObservable, null, mockProcessor);
+        delegate.refresh(null);
+
+        final ArgumentCaptor<Runnable> onProcessedCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockProcessor).process(any(List.class), onProcessedCaptor.capture());
+        // items are not added until the processor finishes
+        assertEquals(0, delegate.getCount());
+        verifyZeroInteractions(mockObservable);
+
+        onProcessedCaptor.getValue().run();
+        assertEquals(NUM_ITEMS, delegate.getCount());
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testProcessItems_failureSkipsProcessor() {
+        final TimelineItemProcessor<TestItem> mockProcessor = mock(TimelineItemProcessor.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, null, mockProcessor);
+        final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
+
+        delegate.processItems(mockCallback).failure(TEST_TWITTER_EXCEPTION);
+
+        verify(mockCallback).failure(TEST_TWITTER_EXCEPTION);
+        verifyZeroInteractions(mockProcessor);
     }
 
     // reset, next, previous
@@ -324,7 +883,7 @@ public class TimelineDelegateTest {
     @Test
     public void testLoadNext() {
         delegate = new TimelineDelegate<>(mockTimeline);
-        final Callback<TimelineResult<TestItem>> testCb = delegate.new NextCallback(null,
+        final TimelineDelegate.NextCallback testCb = delegate.new NextCallback(null,
                 delegate.timelineStateHolder);
         delegate.loadNext(TEST_MIN_POSITION, testCb);
         verify(mockTimeline).next(TEST_MIN_POSITION, testCb);
@@ -335,7 +894,8 @@ public class TimelineDelegateTest {
         delegate = new TimelineDelegate<>(mockTimeline);
         TestItem.populateList(delegate.itemList, TimelineDelegate.CAPACITY);
         final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
-        delegate.loadNext(ANY_POSITION, mockCallback);
+        delegate.loadNext(ANY_POSITION, delegate.new DefaultCallback(mockCallback,
+                delegate.timelineStateHolder));
         final ArgumentCaptor<TwitterException> exceptionCaptor
                 = ArgumentCaptor.forClass(TwitterException.class);
         verifyZeroInteractions(mockTimeline);
@@ -346,20 +906,33 @@ public class TimelineDelegateTest {
     @Test
     public void testLoadNext_respectsRequestInFlight() {
         delegate = new TimelineDelegate<>(mockTimeline);
-        delegate.timelineStateHolder.startTimelineRequest();
+        delegate.timelineStateHolder.startNextRequest();
         final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
-        delegate.loadNext(ANY_POSITION, mockCallback);
+        delegate.loadNext(ANY_POSITION, delegate.new DefaultCallback(mockCallback,
+                delegate.timelineStateHolder));
         final ArgumentCaptor<TwitterException> exceptionCaptor
                 = ArgumentCaptor.forClass(TwitterException.class);
         verifyZeroInteractions(mockTimeline);
         verify(mockCallback).failure(exceptionCaptor.capture());
         assertEquals(exceptionCaptor.getValue().getMessage(), REQUIRED_REQUEST_IN_FLIGHT_ERROR);
+        // the request in flight still holds the lock
+        assertTrue(delegate.timelineStateHolder.nextRequestInFlight.get());
+    }
+
+    @Test
+    public void testLoadNext_whilePreviousInFlight() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        delegate.timelineStateHolder.startPreviousRequest();
+        final TimelineDelegate.NextCallback testCb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        delegate.loadNext(TEST_MIN_POSITION, testCb);
+        verify(mockTimeline).next(TEST_MIN_POSITION, testCb);
     }
 
     @Test
     public void testLoadPrevious() {
         delegate = new TimelineDelegate<>(mockTimeline);
-        final Callback<TimelineResult<TestItem>> testCb = delegate.new PreviousCallback(
+        final TimelineDelegate.PreviousCallback testCb = delegate.new PreviousCallback(
                 delegate.timelineStateHolder);
         delegate.loadPrevious(TEST_MAX_POSITION, testCb);
         verify(mockTimeline).previous(TEST_MAX_POSITION, testCb);
@@ -370,7 +943,8 @@ public class TimelineDelegateTest {
         delegate = new TimelineDelegate<>(mockTimeline);
         TestItem.populateList(delegate.itemList, TimelineDelegate.CAPACITY);
         final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
-        delegate.loadPrevious(ANY_POSITION, mockCallback);
+        delegate.loadPrevious(ANY_POSITION, delegate.new DefaultCallback(mockCallback,
+                delegate.timelineStateHolder));
         final ArgumentCaptor<TwitterException> exceptionCaptor
                 = ArgumentCaptor.forClass(TwitterException.class);
         verifyZeroInteractions(mockTimeline);
@@ -381,26 +955,51 @@ public class TimelineDelegateTest {
     @Test
     public void testLoadPrevious_respectsRequestInFlight() {
         delegate = new TimelineDelegate<>(mockTimeline);
-        delegate.timelineStateHolder.startTimelineRequest();
+        delegate.timelineStateHolder.startPreviousRequest();
         final Callback<TimelineResult<TestItem>> mockCallback = mock(Callback.class);
-        delegate.loadPrevious(ANY_POSITION, mockCallback);
+        delegate.loadPrevious(ANY_POSITION, delegate.new DefaultCallback(mockCallback,
+                delegate.timelineStateHolder));
         final ArgumentCaptor<TwitterException> exceptionCaptor
                 = ArgumentCaptor.forClass(TwitterException.class);
         verifyZeroInteractions(mockTimeline);
         verify(mockCallback).failure(exceptionCaptor.capture());
         assertEquals(exceptionCaptor.getValue().getMessage(), REQUIRED_REQUEST_IN_FLIGHT_ERROR);
+        // the request in flight still holds the lock
+        assertTrue(delegate.timelineStateHolder.previousRequestInFlight.get());
+    }
+
+    @Test
+    public void testLoadPrevious_whileNextInFlight() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        delegate.timelineStateHolder.startNextRequest();
+        final TimelineDelegate.PreviousCallback testCb = delegate.new PreviousCallback(
+                delegate.timelineStateHolder);
+        delegate.loadPrevious(TEST_MAX_POSITION, testCb);
+        verify(mockTimeline).previous(TEST_MAX_POSITION, testCb);
     }
 
     /* nested Callbacks */
 
-    // should unconditionally set requestInFlight to false
+    // should unconditionally set nextRequestInFlight to false
+    @Test
+    public void testNextCallback_successCallsFinishNextRequest() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        final TimelineStateHolder mockHolder = mock(TimelineStateHolder.class);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null, mockHolder);
+        cb.success(testResult);
+        verify(mockHolder).finishNextRequest();
+        verify(mockHolder, never()).finishPreviousRequest();
+    }
+
+    // should unconditionally set previousRequestInFlight to false
     @Test
-    public void testDefaultCallback_successCallsFinishTimelineRequest() {
+    public void testPreviousCallback_successCallsFinishPreviousRequest() {
         delegate = new TimelineDelegate<>(mockTimeline);
         final TimelineStateHolder mockHolder = mock(TimelineStateHolder.class);
-        final TimelineDelegate.DefaultCallback cb = delegate.new DefaultCallback(null, mockHolder);
-        cb.success(null);
-        verify(mockHolder).finishTimelineRequest();
+        final TimelineDelegate.PreviousCallback cb = delegate.new PreviousCallback(mockHolder);
+        cb.success(testResult);
+        verify(mockHolder).finishPreviousRequest();
+        verify(mockHolder, never()).finishNextRequest();
     }
 
     @Test
@@ -425,14 +1024,24 @@ public class TimelineDelegateTest {
         }
     }
 
-    // should unconditionally set requestInFlight to false
+    // should unconditionally set nextRequestInFlight to false
+    @Test
+    public void testNextCallback_failureCallsFinishNextRequest() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        final TimelineStateHolder mockHolder = mock(TimelineStateHolder.class);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null, mockHolder);
+        cb.failure((TwitterException) null);
+        verify(mockHolder).finishNextRequest();
+    }
+
+    // should unconditionally set previousRequestInFlight to false
     @Test
-    public void testDefaultCallback_failureCallsFinishTimelineRequest() {
+    public void testPreviousCallback_failureCallsFinishPreviousRequest() {
         delegate = new TimelineDelegate<>(mockTimeline);
         final TimelineStateHolder mockHolder = mock(TimelineStateHolder.class);
-        final TimelineDelegate.DefaultCallback cb = delegate.new DefaultCallback(null, mockHolder);
+        final TimelineDelegate.PreviousCallback cb = delegate.new PreviousCallback(mockHolder);
         cb.failure((TwitterException) null);
-        verify(mockHolder).finishTimelineRequest();
+        verify(mockHolder).finishPreviousRequest();
     }
 
     @Test
@@ -530,6 +1139,82 @@ public class TimelineDelegateTest {
         verify(mockObservable).notifyChanged();
     }
 
+    @Test
+    public void testRefreshCallback_successNotifiesNewItemRanges() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        final List<TestItem> latestItems = new ArrayList<>();
+        latestItems.add(TEST_ITEM_4);
+        latestItems.add(TEST_ITEM_3);
+        latestItems.add(TEST_ITEM_2);
+        final TimelineDelegate.RefreshCallback cb = delegate.new RefreshCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, latestItems), null));
+
+        assertEquals(latestItems, delegate.itemList);
+        // older items below the retained items are removed, newer items inserted above them
+        verify(mockRangeObserver).onItemRangeRemoved(1, 1);
+        verify(mockRangeObserver).onItemRangeInserted(0, 2);
+        verify(mockRangeObserver, never()).onChanged();
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testRefreshCallback_successNotifiesChangedWithoutOverlap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        final TimelineDelegate.RefreshCallback cb = delegate.new RefreshCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+
+        assertEquals(testExtraItems, delegate.itemList);
+        verify(mockRangeObserver).onChanged();
+        verify(mockRangeObserver, never()).onItemRangeInserted(anyInt(), anyInt());
+    }
+
+    @Test
+    public void testNextCallback_successNotifiesItemRangeInserted() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        verify(mockRangeObserver).onItemRangeInserted(0, testExtraItems.size());
+    }
+
+    @Test
+    public void testPreviousCallback_successNotifiesItemRangeInserted() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        final TimelineDelegate.PreviousCallback cb
+                = delegate.new PreviousCallback(delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        verify(mockRangeObserver).onItemRangeInserted(testItems.size(), testExtraItems.size());
+    }
+
+    @Test
+    public void testUpdateItem_notifiesItemRangeChanged() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        delegate.updateItem(new TestItem(TEST_ITEM_1.getId()));
+        verify(mockRangeObserver).onItemRangeChanged(1, 1);
+    }
+
+    @Test
+    public void testUnregisterItemRangeObserver() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ItemRangeObserver mockRangeObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockRangeObserver);
+        delegate.unregisterItemRangeObserver(mockRangeObserver);
+        delegate.notifyDataSetChanged();
+        verifyZeroInteractions(mockRangeObserver);
+    }
+
     // should do nothing
     @Test
     public void testRefreshCallback_successReceivedZeroItems() {
@@ -601,6 +1286,219 @@ public class TimelineDelegateTest {
 
     /* test DataSetObservable */
 
+    @Test
+    public void testRestoreSnapshot() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        final TimelineCursor previousCursor = new TimelineCursor(ANY_POSITION, ANY_POSITION);
+        when(mockStore.load()).thenReturn(new TimelineSnapshot<>(testItems, TEST_TIMELINE_CURSOR,
+                previousCursor));
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, null, null, null,
+                mockStore);
+        final ItemRangeObserver mockObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockObserver);
+
+        delegate.restoreSnapshot();
+        assertEquals(testItems, delegate.itemList);
+        assertEquals(TEST_MAX_POSITION, delegate.timelineStateHolder.positionForNext());
+        assertEquals(ANY_POSITION, delegate.timelineStateHolder.positionForPrevious());
+        verify(mockObserver).onItemRangeInserted(0, testItems.size());
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testRestoreSnapshot_noSnapshot() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, null, null, null,
+                mockStore);
+
+        delegate.restoreSnapshot();
+        verify(mockStore).load();
+        assertEquals(0, delegate.getCount());
+        verifyZeroInteractions(mockObservable);
+    }
+
+    @Test
+    public void testRestoreSnapshot_itemsLoaded() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null, null,
+                mockStore);
+
+        delegate.restoreSnapshot();
+        verify(mockStore, never()).load();
+        assertEquals(testItems, delegate.itemList);
+    }
+
+    @Test
+    public void testNextCallback_successSavesSnapshot() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null, null,
+                mockStore);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+
+        final ArgumentCaptor<TimelineSnapshot> snapshotCaptor
+                = ArgumentCaptor.forClass(TimelineSnapshot.class);
+        verify(mockStore).save(snapshotCaptor.capture());
+        final TimelineSnapshot<TestItem> snapshot = snapshotCaptor.getValue();
+        assertEquals(delegate.itemList, snapshot.items);
+        assertEquals(TEST_TIMELINE_CURSOR, snapshot.nextCursor);
+        assertEquals(TEST_TIMELINE_CURSOR, snapshot.previousCursor);
+    }
+
+    @Test
+    public void testNextCallback_successReceivedZeroItemsDoesNotSaveSnapshot() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null, null,
+                mockStore);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR,
+                Collections.<TestItem>emptyList()), null));
+        verify(mockStore, never()).save(any(TimelineSnapshot.class));
+    }
+
+    @Test
+    public void testPreviousCallback_successSkipsSnapshotPastMaxItems() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        final List<TestItem> manyItems = TestItem.populateList(new ArrayList<TestItem>(),
+                TimelineDelegate.MAX_SNAPSHOT_ITEMS);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, manyItems, null, null,
+                mockStore);
+        final TimelineDelegate.PreviousCallback cb
+                = delegate.new PreviousCallback(delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null));
+        verify(mockStore, never()).save(any(TimelineSnapshot.class));
+    }
+
+    @Test
+    public void testPollCallback_successHoldsBackItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.livePoller = mock(LivePoller.class);
+        final NewItemsListener mockListener = mock(NewItemsListener.class);
+        delegate.setNewItemsListener(mockListener);
+        final Result<TimelineResult<TestItem>> result
+                = new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null);
+        delegate.new PollCallback(delegate.timelineStateHolder).success(result);
+
+        assertEquals(testItems, delegate.itemList);
+        assertEquals(testExtraItems.size(), delegate.getNewItemCount());
+        assertEquals(TEST_MAX_POSITION, delegate.timelineStateHolder.positionForNext());
+        verify(mockListener).onNewItems(testExtraItems.size());
+        verify(delegate.livePoller).onSuccess(null);
+    }
+
+    @Test
+    public void testPollCallback_successFirstItemsAreShown() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, null);
+        delegate.livePoller = mock(LivePoller.class);
+        delegate.new PollCallback(delegate.timelineStateHolder).success(testResult);
+        assertEquals(testItems, delegate.itemList);
+        assertEquals(0, delegate.getNewItemCount());
+    }
+
+    @Test
+    public void testPollCallback_failureBacksOff() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.livePoller = mock(LivePoller.class);
+        delegate.timelineStateHolder.startNextRequest();
+        delegate.new PollCallback(delegate.timelineStateHolder).failure(TEST_TWITTER_EXCEPTION);
+        assertFalse(delegate.timelineStateHolder.nextRequestInFlight.get());
+        verify(delegate.livePoller).onFailure(TEST_TWITTER_EXCEPTION);
+        verify(delegate.livePoller, never()).onRejected();
+    }
+
+    @Test
+    public void testPoll_requestInFlight() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.livePoller = mock(LivePoller.class);
+        delegate.timelineStateHolder.startNextRequest();
+        delegate.poll();
+        verifyZeroInteractions(mockTimeline);
+        verify(delegate.livePoller).onRejected();
+    }
+
+    @Test
+    public void testPoll_skipsWhileMaxNewItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.livePoller = mock(LivePoller.class);
+        TestItem.populateList(delegate.newItems, TimelineDelegate.MAX_NEW_ITEMS);
+        delegate.poll();
+        verifyZeroInteractions(mockTimeline);
+        verify(delegate.livePoller).onRejected();
+    }
+
+    @Test
+    public void testShowNewItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final NewItemsListener mockListener = mock(NewItemsListener.class);
+        delegate.setNewItemsListener(mockListener);
+        final ItemRangeObserver mockObserver = mock(ItemRangeObserver.class);
+        delegate.registerItemRangeObserver(mockObserver);
+        delegate.newItems.addAll(testExtraItems);
+
+        delegate.showNewItems();
+        assertEquals(TOTAL_ITEMS, delegate.itemList.size());
+        assertEquals(TEST_ITEM_4, delegate.getItem(0));
+        assertEquals(TEST_ITEM_2, delegate.getItem(2));
+        assertEquals(0, delegate.getNewItemCount());
+        assertTrue(delegate.gaps.isEmpty());
+        verify(mockObserver).onItemRangeInserted(0, testExtraItems.size());
+        verify(mockListener).onNewItems(0);
+    }
+
+    @Test
+    public void testShowNewItems_fullPageMarksGap() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.livePoller = mock(LivePoller.class);
+        delegate.largestPageSize = testExtraItems.size();
+        delegate.newItems.add(new TestItem(9999L));
+        final Result<TimelineResult<TestItem>> result
+                = new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, testExtraItems), null);
+        delegate.new PollCallback(delegate.timelineStateHolder).success(result);
+        // items held back before the full page may not meet it and are dropped
+        assertEquals(testExtraItems, delegate.newItems);
+
+        delegate.showNewItems();
+        assertTrue(delegate.hasGapAfter(1));
+        assertEquals(TEST_MIN_POSITION, delegate.gaps.get(TEST_ITEM_3.getId()));
+    }
+
+    @Test
+    public void testRefresh_showsNewItemsFirst() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.newItems.addAll(testExtraItems);
+        delegate.refresh(null);
+        assertEquals(TOTAL_ITEMS, delegate.itemList.size());
+        assertEquals(0, delegate.getNewItemCount());
+    }
+
+    @Test
+    public void testSaveSnapshot_skipsWithNewItems() {
+        final TimelineSnapshotStore<TestItem> mockStore = mock(TimelineSnapshotStore.class);
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems, null, null,
+                mockStore);
+        delegate.newItems.addAll(testExtraItems);
+        delegate.saveSnapshot();
+        verify(mockStore, never()).save(any(TimelineSnapshot.class));
+    }
+
+    @Test
+    public void testStartLive() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        final ActivityLifecycleManager mockManager = mock(ActivityLifecycleManager.class);
+        when(mockManager.registerCallbacks(any(ActivityLifecycleManager.Callbacks.class)))
+                .thenReturn(true);
+        delegate.startLive(mockManager, null);
+        assertTrue(delegate.isLive());
+        delegate.stopLive();
+        assertFalse(delegate.isLive());
+        delegate.startLive(mockManager, null);
+        assertTrue(delegate.isLive());
+        verify(mockManager, times(1))
+                .registerCallbacks(any(ActivityLifecycleManager.Callbacks.class));
+    }
+
     @Test
     public void testRegisterDataSetObserver() {
         delegate = new TimelineDelegate<>(mockTimeline, mockObservable, null);
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.tweetui.TestItem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TimelineItemListTest {
+    private static final TestItem TEST_ITEM_1 = new TestItem(1111L);
+    private static final TestItem TEST_ITEM_2 = new TestItem(2222L);
+    private static final TestItem TEST_ITEM_3 = new TestItem(3333L);
+    private static final TestItem TEST_ITEM_4 = new TestItem(4444L);
+    private static final long RANDOM_SEED = 42L;
+    private static final int RANDOM_RUNS = 2000;
+
+    private TimelineItemList<TestItem> itemList;
+
+    @Before
+    public void setUp() throws Exception {
+        itemList = new TimelineItemList<>();
+    }
+
+    @Test
+    public void testConstructor_copiesItems() {
+        final List<TestItem> items = Arrays.asList(TEST_ITEM_2, TEST_ITEM_1);
+        itemList = new TimelineItemList<>(items);
+        assertEquals(items, itemList);
+        assertEquals(0, itemList.positionOf(TEST_ITEM_2.getId()));
+        assertEquals(1, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testPrependAll() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1));
+        itemList.prependAll(Arrays.asList(TEST_ITEM_4, TEST_ITEM_3));
+        assertEquals(Arrays.asList(TEST_ITEM_4, TEST_ITEM_3, TEST_ITEM_2, TEST_ITEM_1), itemList);
+        assertEquals(0, itemList.positionOf(TEST_ITEM_4.getId()));
+        assertEquals(1, itemList.positionOf(TEST_ITEM_3.getId()));
+        assertEquals(2, itemList.positionOf(TEST_ITEM_2.getId()));
+        assertEquals(3, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testPrependAll_growsCapacity() {
+        final List<TestItem> page = TestItem.populateList(new ArrayList<TestItem>(), 100);
+        itemList.add(TEST_ITEM_1);
+        itemList.prependAll(page);
+        assertEquals(101, itemList.size());
+        assertEquals(page, itemList.subList(0, 100));
+        assertEquals(100, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testSet_reindexes() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1));
+        itemList.set(0, TEST_ITEM_3);
+        assertEquals(-1, itemList.positionOf(TEST_ITEM_2.getId()));
+        assertEquals(0, itemList.positionOf(TEST_ITEM_3.getId()));
+    }
+
+    @Test
+    public void testRemove_ends() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_3, TEST_ITEM_2, TEST_ITEM_1));
+        assertSame(TEST_ITEM_3, itemList.remove(0));
+        assertSame(TEST_ITEM_1, itemList.remove(1));
+        assertEquals(Arrays.asList(TEST_ITEM_2), itemList);
+        assertEquals(0, itemList.positionOf(TEST_ITEM_2.getId()));
+        assertEquals(-1, itemList.positionOf(TEST_ITEM_3.getId()));
+        assertEquals(-1, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testRemove_duplicateId() {
+        final TestItem duplicate = new TestItem(TEST_ITEM_1.getId());
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1, duplicate));
+        itemList.remove(2);
+        assertEquals(1, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testClear() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1));
+        itemList.clear();
+        assertTrue(itemList.isEmpty());
+        assertEquals(-1, itemList.positionOf(TEST_ITEM_1.getId()));
+    }
+
+    @Test
+    public void testEvict() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1));
+        assertSame(TEST_ITEM_2, itemList.evict(0));
+        assertNull(itemList.get(0));
+        assertTrue(itemList.isEvicted(0));
+        assertNull(itemList.evict(0));
+        assertEquals(2, itemList.size());
+        assertEquals(1, itemList.materializedCount());
+        assertEquals(TEST_ITEM_2.getId(), itemList.getId(0));
+        assertEquals(0, itemList.positionOf(TEST_ITEM_2.getId()));
+    }
+
+    @Test
+    public void testSet_restoresEvicted() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_2, TEST_ITEM_1));
+        itemList.evict(1);
+        assertNull(itemList.set(1, TEST_ITEM_1));
+        assertSame(TEST_ITEM_1, itemList.get(1));
+        assertEquals(2, itemList.materializedCount());
+    }
+
+    @Test
+    public void testRemove_middleKeepsEvicted() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_4, TEST_ITEM_3, TEST_ITEM_2, TEST_ITEM_1));
+        itemList.evict(3);
+        itemList.remove(1);
+        assertEquals(Arrays.asList(TEST_ITEM_4, TEST_ITEM_2, null), itemList);
+        assertEquals(TEST_ITEM_1.getId(), itemList.getId(2));
+        assertEquals(2, itemList.positionOf(TEST_ITEM_1.getId()));
+        assertEquals(2, itemList.materializedCount());
+    }
+
+    @Test
+    public void testAddAll_middleKeepsEvicted() {
+        itemList.addAll(Arrays.asList(TEST_ITEM_4, TEST_ITEM_1));
+        itemList.evict(0);
+        itemList.evict(1);
+        itemList.addAll(1, Arrays.asList(TEST_ITEM_3, TEST_ITEM_2));
+        assertEquals(Arrays.asList(null, TEST_ITEM_3, TEST_ITEM_2, null), itemList);
+        assertEquals(0, itemList.positionOf(TEST_ITEM_4.getId()));
+        assertEquals(3, itemList.positionOf(TEST_ITEM_1.getId()));
+        assertEquals(2, itemList.materializedCount());
+    }
+
+    @Test
+    public void testGetRowId_uniqueAndKept() {
+        final TestItem duplicate = new TestItem(TEST_ITEM_1.getId());
+        itemList.addAll(Arrays.asList(TEST_ITEM_4, TEST_ITEM_1, duplicate));
+        final long rowId = itemList.getRowId(1);
+        assertFalse(rowId == itemList.getRowId(2));
+
+        itemList.evict(1);
+        itemList.add(1, TEST_ITEM_3);
+        itemList.prependAll(Arrays.asList(TEST_ITEM_2));
+        assertEquals(rowId, itemList.getRowId(3));
+        itemList.set(3, TEST_ITEM_1);
+        itemList.remove(1);
+        assertEquals(rowId, itemList.getRowId(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_nullItem() {
+        itemList.add(null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGet_outOfBounds() {
+        itemList.add(TEST_ITEM_1);
+        itemList.get(1);
+    }
+
+    @Test
+    public void testRandomOperations_matchArrayList() {
+        final Random random = new Random(RANDOM_SEED);
+        final List<TestItem> expected = new ArrayList<>();
+        for (int i = 0; i < RANDOM_RUNS; i++) {
+            final int size = expected.size();
+            switch (random.nextInt(6)) {
+                case 0:
+                    final List<TestItem> page = randomItems(random);
+                    expected.addAll(0, page);
+                    itemList.prependAll(page);
+                    break;
+                case 1:
+                    final List<TestItem> items = randomItems(random);
+                    expected.addAll(items);
+                    itemList.addAll(items);
+                    break;
+                case 2:
+                    final int position = random.nextInt(size + 1);
+                    final TestItem item = randomItem(random);
+                    expected.add(position, item);
+                    itemList.add(position, item);
+                    break;
+                case 3:
+                    if (size > 0) {
+                        final int removed = random.nextInt(size);
+                        assertSame(expected.remove(removed), itemList.remove(removed));
+                    }
+                    break;
+                case 4:
+                    if (size > 0) {
+                        final int replaced = random.nextInt(size);
+                        final TestItem replacement = randomItem(random);
+                        assertSame(expected.set(replaced, replacement),
+                                itemList.set(replaced, replacement));
+                    }
+                    break;
+                default:
+                    if (size > 50) {
+                        final int from = random.nextInt(size);
+                        final int to = from + random.nextInt(size - from + 1);
+                        expected.subList(from, to).clear();
+                        itemList.subList(from, to).clear();
+                    }
+                    break;
+            }
+            assertEquals(expected, itemList);
+            assertIndexed(expected);
+        }
+    }
+
+    private void assertIndexed(List<TestItem> expected) {
+        for (TestItem item : expected) {
+            final int position = itemList.positionOf(item.getId());
+            assertTrue(position >= 0);
+            assertEquals(item.getId(), expected.get(position).getId());
+        }
+    }
+
+    private static List<TestItem> randomItems(Random random) {
+        final int count = random.nextInt(20);
+        final List<TestItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(randomItem(random));
+        }
+        return items;
+    }
+
+    private static TestItem randomItem(Random random) {
+        // a small id range so duplicate ids are common
+        return new TestItem(random.nextInt(300));
+    }
+}
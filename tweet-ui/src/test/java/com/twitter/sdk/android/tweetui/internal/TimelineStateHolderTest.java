@@ -51,7 +51,8 @@ public class TimelineStateHolderTest {
         final TimelineStateHolder holder = new TimelineStateHolder();
         assertNull(holder.nextCursor);
         assertNull(holder.previousCursor);
-        assertFalse(holder.requestInFlight.get());
+        assertFalse(holder.nextRequestInFlight.get());
+        assertFalse(holder.previousRequestInFlight.get());
     }
 
     @Test
@@ -60,7 +61,8 @@ public class TimelineStateHolderTest {
                 TEST_TIMELINE_CURSOR);
         assertEquals(TEST_TIMELINE_CURSOR, holder.previousCursor);
         assertEquals(TEST_TIMELINE_CURSOR, holder.nextCursor);
-        assertFalse(holder.requestInFlight.get());
+        assertFalse(holder.nextRequestInFlight.get());
+        assertFalse(holder.previousRequestInFlight.get());
     }
 
     @Test
@@ -138,19 +140,47 @@ public class TimelineStateHolderTest {
     }
 
     @Test
-    public void testStartTimelineRequest() {
+    public void testStartNextRequest() {
         final TimelineStateHolder holder = new TimelineStateHolder();
-        assertFalse(holder.requestInFlight.get());
-        assertTrue(holder.startTimelineRequest());
-        assertTrue(holder.requestInFlight.get());
-        assertFalse(holder.startTimelineRequest());
+        assertFalse(holder.nextRequestInFlight.get());
+        assertTrue(holder.startNextRequest());
+        assertTrue(holder.nextRequestInFlight.get());
+        assertFalse(holder.startNextRequest());
+        assertFalse(holder.previousRequestInFlight.get());
     }
 
     @Test
-    public void testFinishTimelineRequest() {
+    public void testFinishNextRequest() {
         final TimelineStateHolder holder = new TimelineStateHolder();
-        holder.requestInFlight.set(true);
-        holder.finishTimelineRequest();
-        assertFalse(holder.requestInFlight.get());
+        holder.nextRequestInFlight.set(true);
+        holder.finishNextRequest();
+        assertFalse(holder.nextRequestInFlight.get());
+    }
+
+    @Test
+    public void testStartPreviousRequest() {
+        final TimelineStateHolder holder = new TimelineStateHolder();
+        assertFalse(holder.previousRequestInFlight.get());
+        assertTrue(holder.startPreviousRequest());
+        assertTrue(holder.previousRequestInFlight.get());
+        assertFalse(holder.startPreviousRequest());
+        assertFalse(holder.nextRequestInFlight.get());
+    }
+
+    @Test
+    public void testFinishPreviousRequest() {
+        final TimelineStateHolder holder = new TimelineStateHolder();
+        holder.previousRequestInFlight.set(true);
+        holder.finishPreviousRequest();
+        assertFalse(holder.previousRequestInFlight.get());
+    }
+
+    @Test
+    public void testStartRequests_independent() {
+        final TimelineStateHolder holder = new TimelineStateHolder();
+        assertTrue(holder.startNextRequest());
+        assertTrue(holder.startPreviousRequest());
+        holder.finishNextRequest();
+        assertTrue(holder.previousRequestInFlight.get());
     }
 }
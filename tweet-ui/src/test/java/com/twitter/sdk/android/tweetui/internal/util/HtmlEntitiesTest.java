@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HtmlEntitiesTest {
+
+    @Test
+    public void testUnescape_noAmpersandReturnsInput() {
+        final String text = "just setting up my twttr";
+        final HtmlEntities.Unescaped u = HtmlEntities.HTML40.unescape(text);
+
+        assertSame(text, u.unescaped);
+        assertEquals(0, u.size());
+    }
+
+    @Test
+    public void testUnescape_recordsIndexPairs() {
+        final HtmlEntities.Unescaped u = HtmlEntities.HTML40.unescape("&lt; & Larry &gt; &");
+
+        assertEquals("< & Larry > &", u.unescaped);
+        assertEquals(2, u.size());
+        assertArrayEquals(new int[] {0, 3, 13, 16}, u.indices);
+    }
+
+    @Test
+    public void testUnescape_numericEntities() {
+        assertEquals("\"", HtmlEntities.HTML40.unescape("&#34;").unescaped);
+        assertEquals("\"", HtmlEntities.HTML40.unescape("&#x22;").unescaped);
+        assertEquals("\"", HtmlEntities.HTML40.unescape("&#X22;").unescaped);
+        assertEquals("&#x;", HtmlEntities.HTML40.unescape("&#x;").unescaped);
+        assertEquals("&#12a;", HtmlEntities.HTML40.unescape("&#12a;").unescaped);
+        assertEquals("&#99999999999;", HtmlEntities.HTML40.unescape("&#99999999999;").unescaped);
+    }
+
+    @Test
+    public void testUnescape_unknownEntities() {
+        assertEquals("&;", HtmlEntities.HTML40.unescape("&;").unescaped);
+        assertEquals("&foo; &", HtmlEntities.HTML40.unescape("&foo; &amp;").unescaped);
+        assertEquals("&&&&gt&&lt&&amplt;",
+                HtmlEntities.HTML40.unescape("&&&&gt&&lt&&amplt;").unescaped);
+        assertEquals("&amp", HtmlEntities.HTML40.unescape("&amp").unescaped);
+    }
+
+    @Test
+    public void testUnescape_reusesBufferAcrossLengths() {
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longText.append("&amp;x");
+        }
+        final HtmlEntities.Unescaped longResult = HtmlEntities.HTML40.unescape(
+                longText.toString());
+        assertEquals(200, longResult.unescaped.length());
+        assertEquals(100, longResult.size());
+
+        assertEquals("<", HtmlEntities.HTML40.unescape("&lt;").unescaped);
+    }
+
+    @Test
+    public void testEntityValue() {
+        assertEquals(38, HtmlEntities.HTML40.entityValue("amp"));
+        assertEquals(8364, HtmlEntities.HTML40.entityValue("euro"));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue("ampx"));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue(""));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue(null));
+    }
+
+    @Test
+    public void testEntityValue_region() {
+        assertEquals(60, HtmlEntities.HTML40.map.value("a&lt;b", 2, 4));
+        assertEquals(-1, HtmlEntities.HTML40.map.value("a&lt;b", 2, 5));
+    }
+
+    @Test
+    public void testEntityName() {
+        assertEquals("amp", HtmlEntities.HTML40.entityName(38));
+        assertEquals("euro", HtmlEntities.HTML40.entityName(8364));
+        assertNull(HtmlEntities.HTML40.entityName(1));
+    }
+
+    @Test
+    public void testTableEntityMap_allEntitiesFound() {
+        final HtmlEntities entities = new HtmlEntities();
+        HtmlEntities.fillWithHtml40Entities(entities);
+        for (String[] entity : HtmlEntities.HTML40_ARRAY) {
+            assertEquals(Integer.parseInt(entity[1]), entities.entityValue(entity[0]));
+        }
+        for (String[] entity : HtmlEntities.ISO8859_1_ARRAY) {
+            assertEquals(Integer.parseInt(entity[1]), entities.entityValue(entity[0]));
+        }
+    }
+}
@@ -17,11 +17,12 @@
 
 package com.twitter.sdk.android.core;
 
+import com.twitter.sdk.android.core.internal.ApiResponseCache;
 import com.twitter.sdk.android.core.internal.TwitterRequestHeaders;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.URI;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -30,8 +31,7 @@ import java.util.TreeMap;
 
 import javax.net.ssl.SSLSocketFactory;
 
-import org.apache.http.NameValuePair;
-import org.apache.http.client.utils.URLEncodedUtils;
+import retrofit.client.Client;
 import retrofit.client.Header;
 import retrofit.client.Request;
 import retrofit.client.Response;
@@ -44,25 +44,49 @@ import retrofit.mime.TypedOutput;
  */
 public class AuthenticatedClient extends DefaultClient {
 
-    private static final String FAKE_URL = "https://twitter.com"; //Unused, just for parsing body
     private final Session session;
     private final TwitterAuthConfig authConfig;
+    private final ApiResponseCache responseCache;
+    private final Client signingClient = new Client() {
+        @Override
+        public Response execute(Request request) throws IOException {
+            return executeSigned(request);
+        }
+    };
 
     public AuthenticatedClient(TwitterAuthConfig config, Session session,
             SSLSocketFactory sslSocketFactory) {
-        super(sslSocketFactory);
+        this(config, session, sslSocketFactory, createClient(sslSocketFactory), null);
+    }
+
+    /**
+     * @param httpClient the HTTP client signed requests are sent with
+     * @param responseCache cache for responses to read only requests, or null to not cache
+     */
+    AuthenticatedClient(TwitterAuthConfig config, Session session,
+            SSLSocketFactory sslSocketFactory, Client httpClient,
+            ApiResponseCache responseCache) {
+        super(sslSocketFactory, httpClient);
         authConfig = config;
         this.session = session;
+        this.responseCache = responseCache;
     }
 
     @Override
     public Response execute(Request request) throws IOException {
+        // the cache is keyed by the unsigned request, which is only signed if it is sent
+        if (responseCache != null && session != null) {
+            return responseCache.execute(request, session.getId(), signingClient);
+        }
+        return executeSigned(request);
+    }
+
+    Response executeSigned(Request request) throws IOException {
+        // sign the uncompressed form parameters, the body is compressed after signing
         request = new Request(request.getMethod(), request.getUrl(),
                 getAuthHeaders(request), request.getBody());
 
-
-        final Response response = wrappedClient.execute(request);
-        return response;
+        return super.execute(request);
     }
 
     protected List<Header> getAuthHeaders(Request request) throws IOException {
@@ -78,25 +102,124 @@ public class AuthenticatedClient extends DefaultClient {
     }
 
     /**
-     * Parse the {@link retrofit.mime.FormUrlEncodedTypedOutput} Body from a request into a
-     * temporary Uri and use the available URI methods to extract the body parameters into a Map.
+     * Extract the parameters of a {@link retrofit.mime.FormUrlEncodedTypedOutput} Body into a Map
+     * by decoding the body as it is written, without buffering it.
      */
     protected Map<String, String> getPostParams(Request request) throws IOException {
         final Map<String, String> params = new TreeMap<>();
         if ("POST".equals(request.getMethod().toUpperCase(Locale.US))) {
             final TypedOutput output = request.getBody();
             if (output instanceof FormUrlEncodedTypedOutput) {
-                final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                final FormParamsOutputStream os = new FormParamsOutputStream(params);
                 output.writeTo(os);
-                final String val = os.toString("UTF-8");
-                if (val.length() > 0) {
-                    final URI bodyUri = URI.create(FAKE_URL + "/?" + val);
-                    for (NameValuePair pair : URLEncodedUtils.parse(bodyUri, "UTF-8")) {
-                        params.put(pair.getName(), pair.getValue());
-                    }
-                }
+                os.close();
             }
         }
         return params;
     }
+
+    /**
+     * Decodes application/x-www-form-urlencoded bytes into name value pairs as they are written.
+     * A field without '=' has a null value, and malformed escapes are kept as they are.
+     */
+    static class FormParamsOutputStream extends OutputStream {
+        private static final Charset UTF8 = Charset.forName("UTF-8");
+
+        private final Map<String, String> params;
+        // decoded bytes of the name or value being read
+        private byte[] buffer = new byte[64];
+        private int length;
+        private String name;
+        // 0 outside an escape, otherwise the number of characters of the escape read so far
+        private int escapeLength;
+        // first hex digit of the escape being read
+        private int escapeHigh;
+
+        FormParamsOutputStream(Map<String, String> params) {
+            this.params = params;
+        }
+
+        @Override
+        public void write(int b) {
+            if (escapeLength > 0) {
+                writeEscaped(b);
+            } else if (b == '&') {
+                endField();
+            } else if (b == '=' && name == null) {
+                name = takeString();
+            } else if (b == '+') {
+                append(' ');
+            } else if (b == '%') {
+                escapeLength = 1;
+            } else {
+                append(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) {
+            final int end = offset + count;
+            for (int i = offset; i < end; i++) {
+                write(bytes[i] & 0xFF);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (escapeLength > 0) {
+                unescape();
+            }
+            endField();
+        }
+
+        private void writeEscaped(int b) {
+            final int digit = Character.digit(b, 16);
+            if (digit < 0) {
+                unescape();
+                write(b);
+            } else if (escapeLength == 1) {
+                escapeHigh = b;
+                escapeLength = 2;
+            } else {
+                escapeLength = 0;
+                append(Character.digit(escapeHigh, 16) << 4 | digit);
+            }
+        }
+
+        // an escape was cut short, keep the characters read as they are
+        private void unescape() {
+            append('%');
+            if (escapeLength == 2) {
+                append(escapeHigh);
+            }
+            escapeLength = 0;
+        }
+
+        private void endField() {
+            if (escapeLength > 0) {
+                unescape();
+            }
+            if (name != null) {
+                params.put(name, takeString());
+                name = null;
+            } else if (length > 0) {
+                params.put(takeString(), null);
+            }
+        }
+
+        private void append(int b) {
+            if (length == buffer.length) {
+                final byte[] larger = new byte[length * 2];
+                System.arraycopy(buffer, 0, larger, 0, length);
+                buffer = larger;
+            }
+            buffer[length++] = (byte) b;
+        }
+
+        private String takeString() {
+            final String value = new String(buffer, 0, length, UTF8);
+            length = 0;
+            return value;
+        }
+    }
 }
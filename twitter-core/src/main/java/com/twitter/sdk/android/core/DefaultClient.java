@@ -17,57 +17,143 @@
 
 package com.twitter.sdk.android.core;
 
+import com.squareup.okhttp.OkHttpClient;
+
 import io.fabric.sdk.android.Fabric;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
 
 import retrofit.client.Client;
+import retrofit.client.Header;
 import retrofit.client.OkClient;
 import retrofit.client.Request;
 import retrofit.client.Response;
 import retrofit.client.UrlConnectionClient;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
 
 /**
  * Provider of the Retrofit {@link retrofit.client.Client} that is used for API requests.
  * Uses OkHTTP if available, otherwise uses HttpUrlConnection.
  * Pins SSL Certs for requests
+ *
+ * TwitterCore owns one underlying HTTP client for its pinned SSLSocketFactory which the API
+ * clients of every session share, so they reuse pooled connections and TLS sessions, and with
+ * OkHttp multiplex requests over HTTP/2 or SPDY connections where the server supports them.
+ *
+ * Responses are requested gzip compressed and decompressed here, whichever HTTP stack is used.
+ * Request bodies are gzip compressed when the request has a "Content-Encoding: gzip" header.
  */
 public class DefaultClient implements Client {
+    // OkHttp timeouts, matching the Retrofit OkClient defaults
+    static final int CONNECT_TIMEOUT_MILLIS = 15 * 1000;
+    static final int READ_TIMEOUT_MILLIS = 20 * 1000;
+
+    static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    static final String GZIP = "gzip";
 
     final Client wrappedClient;
     final SSLSocketFactory sslSocketFactory;
 
     public DefaultClient(SSLSocketFactory sslSocketFactory) {
+        this(sslSocketFactory, createClient(sslSocketFactory));
+    }
+
+    /**
+     * @param wrappedClient the HTTP client requests are sent with, see
+     *                      {@link TwitterCore#getHttpClient()}
+     */
+    DefaultClient(SSLSocketFactory sslSocketFactory, Client wrappedClient) {
         this.sslSocketFactory = sslSocketFactory;
-        if (hasOkHttpOnClasspath()) {
-            wrappedClient = new OkClient() {
-                @Override
-                protected HttpURLConnection openConnection(Request request) throws IOException {
-                    return openSslConnection(super.openConnection(request));
-                }
-            };
-        } else {
-            wrappedClient = new UrlConnectionClient() {
-                @Override
-                protected HttpURLConnection openConnection(Request request) throws IOException {
-                    return openSslConnection(super.openConnection(request));
-                }
-            };
-        }
+        this.wrappedClient = wrappedClient;
     }
 
     @Override
     public Response execute(Request request) throws IOException {
-        return wrappedClient.execute(request);
+        return decompress(wrappedClient.execute(compress(request)));
+    }
+
+    /**
+     * Asks for a gzip compressed response unless the request already names an encoding, and
+     * compresses the body if the request has a "Content-Encoding: gzip" header.
+     */
+    static Request compress(Request request) throws IOException {
+        final List<Header> headers = new ArrayList<>(request.getHeaders());
+        if (findHeader(headers, ACCEPT_ENCODING_HEADER) == null) {
+            headers.add(new Header(ACCEPT_ENCODING_HEADER, GZIP));
+        }
+        TypedOutput body = request.getBody();
+        final Header contentEncoding = findHeader(headers, CONTENT_ENCODING_HEADER);
+        if (body != null && contentEncoding != null
+                && GZIP.equalsIgnoreCase(contentEncoding.getValue())) {
+            body = new GzipTypedOutput(body);
+        }
+        return new Request(request.getMethod(), request.getUrl(), headers, body);
     }
 
+    /**
+     * Returns the response with its body decompressed if the server gzip compressed it.
+     */
+    static Response decompress(Response response) {
+        final Header contentEncoding = findHeader(response.getHeaders(), CONTENT_ENCODING_HEADER);
+        // bodies of 204 and 304 responses are empty whatever their encoding
+        if (response.getBody() == null || response.getBody().length() == 0
+                || contentEncoding == null || !GZIP.equalsIgnoreCase(contentEncoding.getValue())) {
+            return response;
+        }
+
+        // the encoding and length describe the compressed body
+        final List<Header> headers = new ArrayList<>(response.getHeaders().size());
+        for (Header header : response.getHeaders()) {
+            if (!CONTENT_ENCODING_HEADER.equalsIgnoreCase(header.getName())
+                    && !CONTENT_LENGTH_HEADER.equalsIgnoreCase(header.getName())) {
+                headers.add(header);
+            }
+        }
+        return new Response(response.getUrl(), response.getStatus(), response.getReason(),
+                headers, new GzipTypedInput(response.getBody()));
+    }
+
+    private static Header findHeader(List<Header> headers, String name) {
+        for (Header header : headers) {
+            if (name.equalsIgnoreCase(header.getName())) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates an HTTP client that pins requests with the given SSLSocketFactory.
+     */
+    static Client createClient(final SSLSocketFactory sslSocketFactory) {
+        if (hasOkHttpOnClasspath()) {
+            return OkHttpClientFactory.create(sslSocketFactory);
+        }
+        return new UrlConnectionClient() {
+            @Override
+            protected HttpURLConnection openConnection(Request request) throws IOException {
+                return openSslConnection(sslSocketFactory, super.openConnection(request));
+            }
+        };
+    }
 
     /** Determine whether or not OkHttp 1.6 or newer is present on the runtime classpath. */
-    private boolean hasOkHttpOnClasspath() {
+    private static boolean hasOkHttpOnClasspath() {
         boolean okUrlFactory = false;
         try {
             Class.forName("com.squareup.okhttp.OkUrlFactory");
@@ -96,9 +182,98 @@ public class DefaultClient implements Client {
     }
 
     HttpURLConnection openSslConnection(final HttpURLConnection connection) {
+        return openSslConnection(sslSocketFactory, connection);
+    }
+
+    static HttpURLConnection openSslConnection(SSLSocketFactory sslSocketFactory,
+            HttpURLConnection connection) {
         if (sslSocketFactory != null && connection instanceof HttpsURLConnection) {
             ((HttpsURLConnection) connection).setSSLSocketFactory(sslSocketFactory);
         }
         return connection;
     }
+
+    /**
+     * Creates OkHttp clients, kept apart so OkHttp classes are only loaded when OkHttp is on the
+     * classpath.
+     */
+    static class OkHttpClientFactory {
+        static Client create(SSLSocketFactory sslSocketFactory) {
+            final OkHttpClient okHttpClient = new OkHttpClient();
+            okHttpClient.setConnectTimeout(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            okHttpClient.setReadTimeout(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (sslSocketFactory != null) {
+                okHttpClient.setSslSocketFactory(sslSocketFactory);
+            }
+            return new OkClient(okHttpClient);
+        }
+    }
+
+    /**
+     * Gzip compressed copy of a request body. The body is compressed once, up front, so it is
+     * sent with a known length.
+     */
+    static class GzipTypedOutput implements TypedOutput {
+        private final TypedOutput body;
+        private final byte[] compressed;
+
+        GzipTypedOutput(TypedOutput body) throws IOException {
+            this.body = body;
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+            try {
+                body.writeTo(gzip);
+            } finally {
+                gzip.close();
+            }
+            compressed = bytes.toByteArray();
+        }
+
+        @Override
+        public String fileName() {
+            return body.fileName();
+        }
+
+        @Override
+        public String mimeType() {
+            return body.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return compressed.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(compressed);
+        }
+    }
+
+    /**
+     * Response body which decompresses a gzip compressed body as it is read.
+     */
+    static class GzipTypedInput implements TypedInput {
+        private final TypedInput body;
+
+        GzipTypedInput(TypedInput body) {
+            this.body = body;
+        }
+
+        @Override
+        public String mimeType() {
+            return body.mimeType();
+        }
+
+        @Override
+        public long length() {
+            // not known until the body has been read
+            return -1;
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            return new GZIPInputStream(body.in());
+        }
+    }
 }
@@ -17,6 +17,7 @@
 
 package com.twitter.sdk.android.core;
 
+import com.twitter.sdk.android.core.internal.ApiResponseCache;
 import com.twitter.sdk.android.core.internal.TwitterApi;
 import com.twitter.sdk.android.core.models.SafeListAdapter;
 import com.twitter.sdk.android.core.models.SafeMapAdapter;
@@ -37,6 +38,7 @@ import javax.net.ssl.SSLSocketFactory;
 
 import retrofit.RestAdapter;
 import retrofit.android.MainThreadExecutor;
+import retrofit.client.Client;
 import retrofit.converter.GsonConverter;
 
 /**
@@ -45,6 +47,11 @@ import retrofit.converter.GsonConverter;
  * interfaces to {@link com.twitter.sdk.android.core.TwitterApiClient#getService(Class)}
  */
 public class TwitterApiClient {
+    // Gson is thread safe and caches type adapters, so every client shares one
+    static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new SafeListAdapter())
+            .registerTypeAdapterFactory(new SafeMapAdapter())
+            .create();
 
     final ConcurrentHashMap<Class, Object> services;
     final RestAdapter adapter;
@@ -53,6 +60,15 @@ public class TwitterApiClient {
                      Session session,
                      TwitterApi twitterApi,
                      SSLSocketFactory sslSocketFactory, ExecutorService executorService) {
+        this(authConfig, session, twitterApi, sslSocketFactory, executorService,
+                DefaultClient.createClient(sslSocketFactory), null);
+    }
+
+    TwitterApiClient(TwitterAuthConfig authConfig,
+                     Session session,
+                     TwitterApi twitterApi,
+                     SSLSocketFactory sslSocketFactory, ExecutorService executorService,
+                     Client httpClient, ApiResponseCache responseCache) {
 
         if (session == null) {
             throw new IllegalArgumentException("Session must not be null.");
@@ -60,15 +76,12 @@ public class TwitterApiClient {
 
         this.services = new ConcurrentHashMap<>();
 
-        final Gson gson = new GsonBuilder()
-                .registerTypeAdapterFactory(new SafeListAdapter())
-                .registerTypeAdapterFactory(new SafeMapAdapter())
-                .create();
-
+        // the AuthenticatedClient only signs requests, the HTTP client underneath is shared
         adapter = new RestAdapter.Builder()
-                .setClient(new AuthenticatedClient(authConfig, session, sslSocketFactory))
+                .setClient(new AuthenticatedClient(authConfig, session, sslSocketFactory,
+                        httpClient, responseCache))
                 .setEndpoint(twitterApi.getBaseHostUrl())
-                .setConverter(new GsonConverter(gson))
+                .setConverter(new GsonConverter(GSON))
                 .setExecutors(executorService, new MainThreadExecutor())
                 .build();
     }
@@ -84,7 +97,9 @@ public class TwitterApiClient {
     public TwitterApiClient(Session session) {
         this(TwitterCore.getInstance().getAuthConfig(), session, new TwitterApi(),
                 TwitterCore.getInstance().getSSLSocketFactory(),
-                TwitterCore.getInstance().getFabric().getExecutorService());
+                TwitterCore.getInstance().getFabric().getExecutorService(),
+                TwitterCore.getInstance().getHttpClient(),
+                TwitterCore.getInstance().getResponseCache());
     }
 
     /**
@@ -22,8 +22,10 @@ import android.app.Activity;
 import io.fabric.sdk.android.Fabric;
 import io.fabric.sdk.android.Kit;
 import io.fabric.sdk.android.services.network.NetworkUtils;
+import io.fabric.sdk.android.services.persistence.FileStoreImpl;
 import io.fabric.sdk.android.services.persistence.PreferenceStoreImpl;
 import com.twitter.sdk.android.core.identity.TwitterAuthClient;
+import com.twitter.sdk.android.core.internal.ApiResponseCache;
 import com.twitter.sdk.android.core.internal.SessionMonitor;
 import com.twitter.sdk.android.core.internal.TwitterApi;
 import com.twitter.sdk.android.core.internal.oauth.OAuth2Service;
@@ -32,9 +34,12 @@ import com.twitter.sdk.android.core.internal.scribe.TwitterCoreScribeClientHolde
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLSocketFactory;
 
+import retrofit.client.Client;
+
 /**
  * The TwitterCore Kit provides Login with Twitter and the Twitter API.
  */
@@ -54,6 +59,8 @@ public class TwitterCore extends Kit<Boolean> {
     private final TwitterAuthConfig authConfig;
     private final ConcurrentHashMap<Session, TwitterApiClient> apiClients;
     private volatile SSLSocketFactory sslSocketFactory;
+    private volatile Client httpClient;
+    private volatile ApiResponseCache responseCache;
 
     public TwitterCore(TwitterAuthConfig authConfig) {
         this.authConfig = authConfig;
@@ -108,6 +115,42 @@ public class TwitterCore extends Kit<Boolean> {
         }
     }
 
+    /**
+     * @return the HTTP client pinned with the SSLSocketFactory and shared by the API clients
+     */
+    Client getHttpClient() {
+        if (httpClient == null) {
+            createHttpClient();
+        }
+        // pinning failed to set up, it is retried for the next API client
+        return httpClient != null ? httpClient : DefaultClient.createClient(null);
+    }
+
+    private synchronized void createHttpClient() {
+        if (httpClient == null) {
+            final SSLSocketFactory factory = getSSLSocketFactory();
+            if (factory != null) {
+                httpClient = DefaultClient.createClient(factory);
+            }
+        }
+    }
+
+    /**
+     * @return the cache of API responses shared by the API clients
+     */
+    ApiResponseCache getResponseCache() {
+        if (responseCache == null) {
+            createResponseCache();
+        }
+        return responseCache;
+    }
+
+    private synchronized void createResponseCache() {
+        if (responseCache == null) {
+            responseCache = new ApiResponseCache(new FileStoreImpl(this));
+        }
+    }
+
     @Override
     protected boolean onPreExecute() {
         twitterSessionManager = new PersistedSessionManager<>(new PreferenceStoreImpl(this),
@@ -200,6 +243,29 @@ public class TwitterCore extends Kit<Boolean> {
         if (sessionManager != null) {
             sessionManager.clearActiveSession();
         }
+        // cached responses hold the user's timelines, remove them from the device
+        getFabric().getExecutorService().submit(new Runnable() {
+            @Override
+            public void run() {
+                getResponseCache().clear();
+            }
+        });
+    }
+
+    /**
+     * Sets how long cached responses to read only API requests may be used once they are stale,
+     * when the network is unavailable or the request fails. Defaults to one day, zero disables
+     * reading stale responses.
+     *
+     * @param maxStale the max-stale duration
+     * @param unit the unit of maxStale
+     *
+     * @throws java.lang.IllegalStateException if {@link io.fabric.sdk.android.Fabric}
+     *          or {@link TwitterCore} has not been initialized.
+     */
+    public void setResponseCacheMaxStale(long maxStale, TimeUnit unit) {
+        checkInitialized();
+        getResponseCache().setMaxStaleMillis(unit.toMillis(maxStale));
     }
 
     /**
@@ -0,0 +1,551 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core.internal;
+
+import com.twitter.sdk.android.core.TwitterCore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import io.fabric.sdk.android.Fabric;
+import io.fabric.sdk.android.services.common.CommonUtils;
+import io.fabric.sdk.android.services.common.CurrentTimeProvider;
+import io.fabric.sdk.android.services.common.SystemCurrentTimeProvider;
+import io.fabric.sdk.android.services.persistence.FileStore;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+/**
+ * Disk backed cache of responses to read only API requests, stored in the kit's cache directory.
+ * Entries are keyed by the user and the request url, which do not include the OAuth nonce and
+ * timestamp since those are only sent in the Authorization header.
+ *
+ * A cached response is returned without a request while it is fresh by its Cache-Control
+ * max-age. Otherwise the request is made conditional on the cached ETag or Last-Modified date,
+ * and a 304 response is answered from the cache. If the request fails or the server errors, the
+ * cached response is returned as long as it has been stale for no longer than max-stale.
+ *
+ * API responses are marked no-store, they are stored anyway since entries are kept apart per
+ * user, on the device of that user.
+ *
+ * Methods perform file IO and must not be called from the main thread.
+ */
+public class ApiResponseCache {
+    static final String CACHE_DIR_NAME = "api_response_cache";
+    static final String TEMP_FILE_EXTENSION = ".tmp";
+    // bumped whenever the entry file format changes, entries of other versions are discarded
+    static final int ENTRY_VERSION = 1;
+
+    static final long DEFAULT_MAX_BYTES = 4L * 1024L * 1024L;
+    // trimming stops at this percentage of the byte budget so the next trim is many writes away
+    static final int TRIM_PERCENT = 90;
+    public static final long DEFAULT_MAX_STALE_MILLIS = 24L * 60L * 60L * 1000L;
+
+    // read only endpoints whose responses are cached
+    static final String[] CACHEABLE_PATHS = {
+            "/1.1/statuses/", "/1.1/search/", "/1.1/lists/", "/1.1/collections/"
+    };
+
+    static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    static final String HEADER_ETAG = "ETag";
+    static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    static final String HEADER_WARNING = "Warning";
+    static final String WARNING_STALE = "110 - \"Response is Stale\"";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age=";
+
+    private final FileStore fileStore;
+    private final CurrentTimeProvider currentTimeProvider;
+    private final long maxBytes;
+    private volatile long maxStaleMillis;
+
+    // lazily resolved on the first disk access to keep file IO off the calling thread
+    private File cacheDir;
+    // size of the cache directory in bytes, -1 until the directory has been scanned
+    private long currentBytes = -1L;
+
+    public ApiResponseCache(FileStore fileStore) {
+        this(fileStore, new SystemCurrentTimeProvider(), DEFAULT_MAX_BYTES,
+                DEFAULT_MAX_STALE_MILLIS);
+    }
+
+    ApiResponseCache(FileStore fileStore, CurrentTimeProvider currentTimeProvider, long maxBytes,
+            long maxStaleMillis) {
+        this.fileStore = fileStore;
+        this.currentTimeProvider = currentTimeProvider;
+        this.maxBytes = maxBytes;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    /**
+     * Sets how long past its freshness a cached response may still be returned when the request
+     * fails. Zero only returns cached responses while they are fresh or revalidated.
+     * @param maxStaleMillis the max-stale in milliseconds
+     */
+    public void setMaxStaleMillis(long maxStaleMillis) {
+        if (maxStaleMillis < 0) {
+            throw new IllegalArgumentException("maxStaleMillis must not be negative");
+        }
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    public long getMaxStaleMillis() {
+        return maxStaleMillis;
+    }
+
+    /**
+     * Executes the request through the cache.
+     * @param request the unsigned request
+     * @param userId id of the user the request is made for
+     * @param network the client which signs and sends the request
+     * @return the network response, or the cached response
+     */
+    public Response execute(Request request, long userId, Client network) throws IOException {
+        if (!isCacheable(request)) {
+            return network.execute(request);
+        }
+
+        final String key = getKey(userId, request.getUrl());
+        final Entry cached = get(key);
+        final long now = currentTimeProvider.getCurrentTimeMillis();
+        if (cached != null && cached.isFresh(now)) {
+            return cached.toResponse(false);
+        }
+
+        final Entry received;
+        try {
+            final Response response
+                    = network.execute(cached == null ? request : cached.makeConditional(request));
+            final int status = response.getStatus();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                closeBody(response);
+                received = cached.revalidate(response, now);
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                received = Entry.create(response, now);
+            } else if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR
+                    && isUsableStale(cached, now)) {
+                closeBody(response);
+                return cached.toResponse(true);
+            } else {
+                return response;
+            }
+        } catch (IOException e) {
+            if (isUsableStale(cached, now)) {
+                return cached.toResponse(true);
+            }
+            throw e;
+        }
+
+        put(key, received);
+        return received.toResponse(false);
+    }
+
+    /**
+     * Returns true for GET requests to the read only endpoints whose responses are cached.
+     */
+    static boolean isCacheable(Request request) {
+        if (!"GET".equals(request.getMethod().toUpperCase(Locale.US))) return false;
+
+        final String url = request.getUrl();
+        for (String path : CACHEABLE_PATHS) {
+            if (url.contains(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the file name of the entry for the user and url.
+     */
+    static String getKey(long userId, String url) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final byte[] hash = digest.digest((userId + " " + url).getBytes("UTF-8"));
+            final StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    boolean isUsableStale(Entry entry, long now) {
+        return entry != null && entry.getStaleness(now) <= maxStaleMillis;
+    }
+
+    /**
+     * Reads an entry from disk.
+     * @return the entry or null if it is missing or unreadable
+     */
+    synchronized Entry get(String key) {
+        final File dir = getCacheDir();
+        if (dir == null) return null;
+
+        final File file = new File(dir, key);
+        if (!file.exists()) return null;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            // no valid length in an entry exceeds the file, or the cache size
+            return Entry.read(in, Math.min(file.length(), maxBytes));
+        } catch (IOException e) {
+            Fabric.getLogger().e(TwitterCore.TAG, "Failed to read cached response", e);
+            delete(file);
+            return null;
+        } finally {
+            CommonUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes an entry to disk, replacing any previous entry with the same key, and evicts the
+     * oldest entries if the byte budget is exceeded.
+     */
+    synchronized void put(String key, Entry entry) {
+        final File dir = getCacheDir();
+        if (dir == null || entry.body.length > maxBytes) return;
+
+        final File file = new File(dir, key);
+        final File temp = new File(dir, key + TEMP_FILE_EXTENSION);
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            entry.write(out);
+            out.close();
+            out = null;
+
+            final long previousLength = file.length();
+            // write then rename so a crash never leaves a partially written entry behind
+            if (!temp.renameTo(file)) {
+                delete(temp);
+                return;
+            }
+            currentBytes += file.length() - previousLength;
+        } catch (IOException e) {
+            Fabric.getLogger().e(TwitterCore.TAG, "Failed to write cached response", e);
+            delete(temp);
+        } finally {
+            CommonUtils.closeQuietly(out);
+        }
+
+        if (currentBytes > maxBytes) {
+            trimToSize();
+        }
+    }
+
+    /**
+     * Removes every entry from the cache directory.
+     */
+    public synchronized void clear() {
+        final File dir = getCacheDir();
+        if (dir == null) return;
+
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                delete(file);
+            }
+        }
+        currentBytes = 0L;
+    }
+
+    /**
+     * Deletes the least recently written entries until the directory is down to TRIM_PERCENT of
+     * the byte budget.
+     */
+    void trimToSize() {
+        final File[] files = cacheDir.listFiles();
+        if (files == null) return;
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long lhsModified = lhs.lastModified();
+                final long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+
+        long bytes = 0L;
+        for (File file : files) {
+            bytes += file.length();
+        }
+
+        final long targetBytes = maxBytes * TRIM_PERCENT / 100;
+        for (File file : files) {
+            if (bytes <= targetBytes) break;
+            final long length = file.length();
+            if (delete(file)) {
+                bytes -= length;
+            }
+        }
+        currentBytes = bytes;
+    }
+
+    File getCacheDir() {
+        if (cacheDir == null) {
+            final File kitCacheDir = fileStore.getCacheDir();
+            if (kitCacheDir == null) return null;
+
+            final File dir = new File(kitCacheDir, CACHE_DIR_NAME);
+            if (!dir.exists() && !dir.mkdirs()) {
+                Fabric.getLogger().e(TwitterCore.TAG, "Failed to create response cache directory");
+                return null;
+            }
+            cacheDir = dir;
+            trimToSize();
+        }
+        return cacheDir;
+    }
+
+    private boolean delete(File file) {
+        return !file.exists() || file.delete();
+    }
+
+    private static void closeBody(Response response) {
+        if (response.getBody() == null) return;
+
+        try {
+            CommonUtils.closeQuietly(response.getBody().in());
+        } catch (IOException e) {
+            // nothing was left to read
+        }
+    }
+
+    private static String getHeader(List<Header> headers, String name) {
+        for (Header header : headers) {
+            if (name.equalsIgnoreCase(header.getName())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A cached 200 response with its body.
+     */
+    static class Entry {
+        final String url;
+        final String reason;
+        final List<Header> headers;
+        final String mimeType;
+        final byte[] body;
+        // time the response was received or last revalidated
+        final long receivedMillis;
+
+        Entry(String url, String reason, List<Header> headers, String mimeType, byte[] body,
+                long receivedMillis) {
+            this.url = url;
+            this.reason = reason;
+            this.headers = headers;
+            this.mimeType = mimeType;
+            this.body = body;
+            this.receivedMillis = receivedMillis;
+        }
+
+        /**
+         * Reads the body of the response into a new entry.
+         */
+        static Entry create(Response response, long now) throws IOException {
+            final TypedInput input = response.getBody();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            String mimeType = null;
+            if (input != null) {
+                mimeType = input.mimeType();
+                final InputStream in = input.in();
+                try {
+                    final byte[] buffer = new byte[4096];
+                    int count;
+                    while ((count = in.read(buffer)) != -1) {
+                        bytes.write(buffer, 0, count);
+                    }
+                } finally {
+                    CommonUtils.closeQuietly(in);
+                }
+            }
+
+            final List<Header> headers = new ArrayList<>();
+            for (Header header : response.getHeaders()) {
+                if (header.getName() != null && header.getValue() != null) {
+                    headers.add(header);
+                }
+            }
+            return new Entry(response.getUrl(), response.getReason(), headers, mimeType,
+                    bytes.toByteArray(), now);
+        }
+
+        /**
+         * Reads an entry written by write.
+         * @param maxLength largest valid header count or body length, larger values mean the
+         *                  entry is corrupt
+         */
+        static Entry read(DataInputStream in, long maxLength) throws IOException {
+            if (in.readInt() != ENTRY_VERSION) {
+                throw new IOException("Unknown cache entry version");
+            }
+            final String url = in.readUTF();
+            final String reason = in.readUTF();
+            final String mimeType = in.readUTF();
+            final long receivedMillis = in.readLong();
+            final int headerCount = readLength(in, maxLength);
+            final List<Header> headers = new ArrayList<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new Header(in.readUTF(), in.readUTF()));
+            }
+            final byte[] body = new byte[readLength(in, maxLength)];
+            in.readFully(body);
+            return new Entry(url, reason, headers, mimeType.length() == 0 ? null : mimeType,
+                    body, receivedMillis);
+        }
+
+        private static int readLength(DataInputStream in, long maxLength) throws IOException {
+            final int length = in.readInt();
+            if (length < 0 || length > maxLength) {
+                throw new IOException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(ENTRY_VERSION);
+            out.writeUTF(url);
+            out.writeUTF(reason == null ? "" : reason);
+            out.writeUTF(mimeType == null ? "" : mimeType);
+            out.writeLong(receivedMillis);
+            out.writeInt(headers.size());
+            for (Header header : headers) {
+                out.writeUTF(header.getName());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        }
+
+        /**
+         * Returns the request with validators for this entry added.
+         */
+        Request makeConditional(Request request) {
+            final String etag = getHeader(headers, HEADER_ETAG);
+            final String lastModified = getHeader(headers, HEADER_LAST_MODIFIED);
+            if (etag == null && lastModified == null) return request;
+
+            final List<Header> conditional = new ArrayList<>(request.getHeaders());
+            if (etag != null) {
+                conditional.add(new Header(HEADER_IF_NONE_MATCH, etag));
+            }
+            if (lastModified != null) {
+                conditional.add(new Header(HEADER_IF_MODIFIED_SINCE, lastModified));
+            }
+            return new Request(request.getMethod(), request.getUrl(), conditional,
+                    request.getBody());
+        }
+
+        /**
+         * Returns this entry updated with the headers of a 304 response.
+         */
+        Entry revalidate(Response notModified, long now) {
+            final List<Header> updated = new ArrayList<>();
+            for (Header header : headers) {
+                if (getHeader(notModified.getHeaders(), header.getName()) == null) {
+                    updated.add(header);
+                }
+            }
+            for (Header header : notModified.getHeaders()) {
+                if (header.getName() != null && header.getValue() != null) {
+                    updated.add(header);
+                }
+            }
+            return new Entry(url, reason, updated, mimeType, body, now);
+        }
+
+        /**
+         * Returns the max-age of the response in milliseconds, or zero if it must be revalidated.
+         */
+        long getFreshnessMillis() {
+            final String cacheControl = getHeader(headers, HEADER_CACHE_CONTROL);
+            if (cacheControl == null) return 0L;
+
+            long maxAgeMillis = 0L;
+            for (String directive : cacheControl.split(",")) {
+                final String trimmed = directive.trim().toLowerCase(Locale.US);
+                if (trimmed.startsWith(NO_CACHE)) {
+                    return 0L;
+                } else if (trimmed.startsWith(MAX_AGE)) {
+                    try {
+                        maxAgeMillis = Long.parseLong(trimmed.substring(MAX_AGE.length())) * 1000L;
+                    } catch (NumberFormatException e) {
+                        return 0L;
+                    }
+                }
+            }
+            return maxAgeMillis;
+        }
+
+        boolean isFresh(long now) {
+            return now - receivedMillis < getFreshnessMillis();
+        }
+
+        /**
+         * Returns how long the entry has been stale in milliseconds.
+         */
+        long getStaleness(long now) {
+            return now - receivedMillis - getFreshnessMillis();
+        }
+
+        Response toResponse(boolean stale) {
+            List<Header> responseHeaders = headers;
+            if (stale) {
+                responseHeaders = new ArrayList<>(headers);
+                responseHeaders.add(new Header(HEADER_WARNING, WARNING_STALE));
+            }
+            return new Response(url, HttpURLConnection.HTTP_OK, reason,
+                    Collections.unmodifiableList(responseHeaders),
+                    new TypedByteArray(mimeType, body));
+        }
+    }
+}
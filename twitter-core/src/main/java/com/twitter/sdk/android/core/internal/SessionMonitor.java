@@ -22,7 +22,7 @@ import android.text.format.DateUtils;
 
 import com.twitter.sdk.android.core.Session;
 import com.twitter.sdk.android.core.SessionManager;
-import com.twitter.sdk.android.core.TwitterApiClient;
+import com.twitter.sdk.android.core.TwitterCore;
 import com.twitter.sdk.android.core.internal.scribe.DefaultScribeClient;
 import com.twitter.sdk.android.core.internal.scribe.EventNamespace;
 import com.twitter.sdk.android.core.internal.scribe.TwitterCoreScribeClientHolder;
@@ -201,12 +201,12 @@ public class SessionMonitor<T extends Session> {
     }
 
     /**
-     * Produces new service instances, this code is a separate class so that we can more easily test
-     * SessionMonitor
+     * Produces service instances from the cached api client of the session, this code is a
+     * separate class so that we can more easily test SessionMonitor
      */
     protected static class AccountServiceProvider {
         public AccountService getAccountService(Session session) {
-            return new TwitterApiClient(session).getAccountService();
+            return TwitterCore.getInstance().getApiClient(session).getAccountService();
         }
     }
 }
@@ -33,13 +33,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
 
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-
 class OAuth1aParameters {
     private static final String VERSION = "1.0";
     private static final String SIGNATURE_METHOD = "HMAC-SHA1";
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
     /**
      * Secure random number generator to sign requests.
@@ -85,8 +82,11 @@ class OAuth1aParameters {
 
     String constructSignatureBase(String nonce, String timestamp) {
         // Get query parameters from request.
-        final URI uri = URI.create(url);
-        final TreeMap<String, String> params = UrlUtils.getQueryParams(uri, true);
+        final int fragmentStart = url.indexOf('#');
+        final String target = fragmentStart < 0 ? url : url.substring(0, fragmentStart);
+        final int queryStart = target.indexOf('?');
+        final String rawQuery = queryStart < 0 ? null : target.substring(queryStart + 1);
+        final TreeMap<String, String> params = UrlUtils.getQueryParams(rawQuery, true);
         if (postParams != null) {
             params.putAll(postParams);
         }
@@ -105,43 +105,120 @@ class OAuth1aParameters {
         params.put(OAuthConstants.PARAM_VERSION, VERSION);
 
         // Construct the signature base.
-        final String baseUrl = uri.getScheme() + "://" + uri.getHost() + uri.getPath();
-        final StringBuilder sb = new StringBuilder()
+        final String baseUrl
+                = getBaseUrl(queryStart < 0 ? target : target.substring(0, queryStart));
+        final StringBuilder sb = new StringBuilder(256)
                 .append(method.toUpperCase(Locale.ENGLISH))
-                .append('&')
-                .append(UrlUtils.percentEncode(baseUrl))
-                .append('&')
-                .append(getEncodedQueryParams(params));
+                .append('&');
+        percentEncode(sb, baseUrl, false);
+        sb.append('&');
+        appendEncodedQueryParams(sb, params);
         return sb.toString();
     }
 
-    private String getEncodedQueryParams(TreeMap<String, String> params) {
-        final StringBuilder paramsBuf = new StringBuilder();
+    /**
+     * Returns the scheme, host, and path of the url without its query, which is the url part of
+     * the signature base. Urls whose path could be escaped, or whose host is not plain, are
+     * parsed as a URI so the decoded path is signed.
+     */
+    static String getBaseUrl(String url) {
+        final int authorityStart = url.indexOf("://");
+        if (authorityStart < 0 || url.indexOf('%') >= 0 || url.indexOf('@') >= 0
+                || url.indexOf('[') >= 0) {
+            final URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getHost() + uri.getPath();
+        }
+        final int hostStart = authorityStart + 3;
+        int pathStart = url.indexOf('/', hostStart);
+        if (pathStart < 0) {
+            pathStart = url.length();
+        }
+        int hostEnd = url.indexOf(':', hostStart);
+        if (hostEnd < 0 || hostEnd > pathStart) {
+            hostEnd = pathStart;
+        }
+        if (hostEnd == pathStart) return url;
+
+        // drop the port
+        return url.substring(0, hostEnd) + url.substring(pathStart);
+    }
+
+    private void appendEncodedQueryParams(StringBuilder sb, TreeMap<String, String> params) {
         final int numParams = params.size();
         int current = 0;
         for (Map.Entry<String, String> entry : params.entrySet()) {
-            paramsBuf.append(UrlUtils.percentEncode(UrlUtils.percentEncode(entry.getKey())))
-                    .append("%3D")
-                    .append(UrlUtils.percentEncode(UrlUtils.percentEncode(entry.getValue())));
+            // parameters are encoded, then encoded again as part of the signature base
+            percentEncode(sb, entry.getKey(), true);
+            sb.append("%3D");
+            percentEncode(sb, entry.getValue(), true);
             current += 1;
             if (current < numParams) {
-                paramsBuf.append("%26");
+                sb.append("%26");
+            }
+        }
+    }
+
+    /**
+     * Appends the RFC 3986 percent encoding of the value, the same as
+     * {@link UrlUtils#percentEncode(String)} in a single pass. Appends nothing for null.
+     * @param twice true to append the encoding of the encoding, so each '%' of an escape is
+     *              itself escaped as "%25"
+     */
+    static void percentEncode(StringBuilder sb, String value, boolean twice) {
+        if (value == null) return;
+
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x80) {
+                // multi-byte characters are rare, escape the rest of the value as UTF-8 bytes
+                percentEncodeBytes(sb, value.substring(i), twice);
+                return;
+            }
+            if (isUnreserved(c)) {
+                sb.append(c);
+            } else {
+                appendEscape(sb, c, twice);
             }
         }
-        return paramsBuf.toString();
+    }
+
+    private static void percentEncodeBytes(StringBuilder sb, String value, boolean twice) {
+        final byte[] bytes;
+        try {
+            bytes = value.getBytes(UrlUtils.UTF8);
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+        for (byte b : bytes) {
+            final int c = b & 0xFF;
+            if (c < 0x80 && isUnreserved((char) c)) {
+                sb.append((char) c);
+            } else {
+                appendEscape(sb, c, twice);
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static void appendEscape(StringBuilder sb, int b, boolean twice) {
+        sb.append(twice ? "%25" : "%")
+                .append(HEX_DIGITS[(b >> 4) & 0xF])
+                .append(HEX_DIGITS[b & 0xF]);
     }
 
     String calculateSignature(String signatureBase) {
         try {
-            final String key = getSigningKey();
             // Calculate the signature by passing both the signature base and signing key to the
-            // HMAC-SHA1 hashing algorithm
+            // HMAC-SHA1 hashing algorithm, the signer for the credentials is kept between requests
             final byte[] signatureBaseBytes = signatureBase.getBytes(UrlUtils.UTF8);
-            final byte[] keyBytes = key.getBytes(UrlUtils.UTF8);
-            final SecretKey secretKey = new SecretKeySpec(keyBytes, "HmacSHA1");
-            final Mac mac = Mac.getInstance("HmacSHA1");
-            mac.init(secretKey);
-            final byte[] signatureBytes = mac.doFinal(signatureBaseBytes);
+            final byte[] signatureBytes
+                    = OAuth1aSigner.forCredentials(authConfig, authToken)
+                            .sign(signatureBaseBytes);
             return new String(
                     HttpRequest.Base64.encodeBytesToBytes(signatureBytes, 0, signatureBytes.length),
                     UrlUtils.UTF8);
@@ -157,15 +234,6 @@ class OAuth1aParameters {
         }
     }
 
-    private String getSigningKey() {
-        final String tokenSecret = authToken != null ? authToken.secret : null;
-        return new StringBuilder()
-                .append(UrlUtils.urlEncode(authConfig.getConsumerSecret()))
-                .append('&')
-                .append(UrlUtils.urlEncode(tokenSecret))
-                .toString();
-    }
-
     String constructAuthorizationHeader(String nonce, String timestamp, String signature) {
         final StringBuilder sb = new StringBuilder("OAuth");
         appendParameter(sb, OAuthConstants.PARAM_CALLBACK, callback);
@@ -183,9 +251,11 @@ class OAuth1aParameters {
 
     private void appendParameter(StringBuilder sb, String name, String value) {
         if (value != null) {
-            sb.append(' ')
-                    .append(UrlUtils.percentEncode(name)).append("=\"")
-                    .append(UrlUtils.percentEncode(value)).append("\",");
+            sb.append(' ');
+            percentEncode(sb, name, false);
+            sb.append("=\"");
+            percentEncode(sb, value, false);
+            sb.append("\",");
         }
     }
 }
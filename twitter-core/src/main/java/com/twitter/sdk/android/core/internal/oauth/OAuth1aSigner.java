@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core.internal.oauth;
+
+import com.twitter.sdk.android.core.TwitterAuthConfig;
+import com.twitter.sdk.android.core.TwitterAuthToken;
+
+import io.fabric.sdk.android.services.network.UrlUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Computes HMAC-SHA1 signatures with one signing key. The Mac is looked up and initialized with
+ * the key once and cloned for each signature, since a Mac is not thread safe. Signers are cached
+ * by the auth token they sign for, so the requests of a session share one without building the
+ * signing key. Tokens are held weakly, a signer is released along with the session of its token.
+ */
+class OAuth1aSigner {
+    private static final String ALGORITHM = "HmacSHA1";
+
+    private static final Map<TwitterAuthToken, OAuth1aSigner> SIGNERS = new WeakHashMap<>();
+
+    // auth config whose consumer secret is part of the signing key
+    private final TwitterAuthConfig authConfig;
+    private final Mac mac;
+
+    OAuth1aSigner(TwitterAuthConfig authConfig, TwitterAuthToken authToken)
+            throws NoSuchAlgorithmException, InvalidKeyException, UnsupportedEncodingException {
+        this.authConfig = authConfig;
+        mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(getSigningKey(authConfig, authToken).getBytes(UrlUtils.UTF8),
+                ALGORITHM));
+    }
+
+    /**
+     * Returns the cached signer for the auth config and token, creating it if needed. Requests
+     * without a token, which only happen while logging in, are not cached.
+     */
+    static OAuth1aSigner forCredentials(TwitterAuthConfig authConfig, TwitterAuthToken authToken)
+            throws NoSuchAlgorithmException, InvalidKeyException, UnsupportedEncodingException {
+        if (authToken == null) {
+            return new OAuth1aSigner(authConfig, null);
+        }
+        synchronized (SIGNERS) {
+            OAuth1aSigner signer = SIGNERS.get(authToken);
+            if (signer == null || signer.authConfig != authConfig) {
+                signer = new OAuth1aSigner(authConfig, authToken);
+                SIGNERS.put(authToken, signer);
+            }
+            return signer;
+        }
+    }
+
+    private static String getSigningKey(TwitterAuthConfig authConfig,
+            TwitterAuthToken authToken) {
+        final String tokenSecret = authToken != null ? authToken.secret : null;
+        return new StringBuilder()
+                .append(UrlUtils.urlEncode(authConfig.getConsumerSecret()))
+                .append('&')
+                .append(UrlUtils.urlEncode(tokenSecret))
+                .toString();
+    }
+
+    /**
+     * Returns the HMAC-SHA1 of the data.
+     */
+    byte[] sign(byte[] data) {
+        final Mac instance;
+        try {
+            instance = (Mac) mac.clone();
+        } catch (CloneNotSupportedException e) {
+            // the provider cannot copy an initialized Mac, take turns on the shared one
+            synchronized (mac) {
+                return mac.doFinal(data);
+            }
+        }
+        return instance.doFinal(data);
+    }
+}
@@ -55,10 +55,21 @@ public class ScribeConfig {
      * The send interval in seconds.
      */
     public final int sendIntervalSeconds;
+    /**
+     * Whether to gzip compress the body of scribe requests.
+     */
+    public final boolean compressRequests;
 
     public ScribeConfig(boolean isEnabled, String baseUrl, String pathVersion, String pathType,
                         String sequence, String userAgent, int maxFilesToKeep,
                         int sendIntervalSeconds) {
+        this(isEnabled, baseUrl, pathVersion, pathType, sequence, userAgent, maxFilesToKeep,
+                sendIntervalSeconds, false);
+    }
+
+    public ScribeConfig(boolean isEnabled, String baseUrl, String pathVersion, String pathType,
+                        String sequence, String userAgent, int maxFilesToKeep,
+                        int sendIntervalSeconds, boolean compressRequests) {
         this.isEnabled = isEnabled;
         this.baseUrl = baseUrl;
         this.pathVersion = pathVersion;
@@ -67,5 +78,6 @@ public class ScribeConfig {
         this.userAgent = userAgent;
         this.maxFilesToKeep = maxFilesToKeep;
         this.sendIntervalSeconds = sendIntervalSeconds;
+        this.compressRequests = compressRequests;
     }
 }
@@ -241,6 +241,8 @@ class ScribeFilesSender implements FilesSender {
         private static final String CLIENT_UUID_HEADER = "X-Client-UUID";
         private static final String POLLING_HEADER = "X-Twitter-Polling";
         private static final String POLLING_HEADER_VALUE = "true";
+        private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+        private static final String CONTENT_ENCODING_GZIP = "gzip";
 
         private final ScribeConfig scribeConfig;
         private final IdManager idManager;
@@ -277,6 +279,11 @@ class ScribeFilesSender implements FilesSender {
              * See: https://confluence.twitter.biz/display/PIE/Identifying+API+calls+associated+with+background+polling+events
              */
             request.addHeader(POLLING_HEADER, POLLING_HEADER_VALUE);
+
+            // The body is compressed by the client after the request has been signed.
+            if (scribeConfig.compressRequests) {
+                request.addHeader(CONTENT_ENCODING_HEADER, CONTENT_ENCODING_GZIP);
+            }
         }
     }
 }
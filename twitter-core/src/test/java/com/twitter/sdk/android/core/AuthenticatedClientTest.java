@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import retrofit.client.Header;
 import retrofit.client.Request;
@@ -36,6 +37,7 @@ import retrofit.mime.TypedByteArray;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -103,6 +105,37 @@ public class AuthenticatedClientTest  {
         assertEquals(params.get(POST_KEY_2), POST_VALUE);
     }
 
+    /**
+     * Sign body's with escaped names and values (FormUrlEncoded)
+     */
+    @Test
+    public void testGetPostParameters_formFieldPostEncodedParams() throws IOException {
+        final String value = "Hello Ladies + Gentlemen, a signed OAuth request! \u00e9\ud83d\ude00";
+        final FormUrlEncodedTypedOutput output = new FormUrlEncodedTypedOutput();
+        output.addField("log[]", value);
+        output.addField(POST_KEY, "a=b&c=%d");
+
+        final Request request = new Request(POST_VERB, ANY_URL, null, output);
+        final Map<String, String> params = client.getPostParams(request);
+
+        assertEquals(2, params.size());
+        assertEquals(value, params.get("log[]"));
+        assertEquals("a=b&c=%d", params.get(POST_KEY));
+    }
+
+    @Test
+    public void testFormParamsOutputStream_fieldWithoutValue() throws IOException {
+        final Map<String, String> params = new TreeMap<>();
+        final AuthenticatedClient.FormParamsOutputStream os =
+                new AuthenticatedClient.FormParamsOutputStream(params);
+        os.write("test&test2=%4".getBytes("UTF-8"));
+        os.close();
+
+        assertTrue(params.containsKey(POST_KEY));
+        assertNull(params.get(POST_KEY));
+        assertEquals("%4", params.get(POST_KEY_2));
+    }
+
     /**
      * Do not sign JSON Body Posts (Twitter API and sig doesn't support this anyway)
      * Shouldn't fail though
@@ -26,21 +26,44 @@ import org.robolectric.annotation.Config;
 
 import io.fabric.sdk.android.services.network.NetworkUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
 
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import static com.twitter.sdk.android.core.StandInClient.getHeader;
+import static com.twitter.sdk.android.core.StandInClient.readString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, emulateSdk = 21)
 public class DefaultClientTest {
+    static final String ANY_URL = "https://api.twitter.com/1.1/statuses/home_timeline.json";
+    static final String ANY_BODY = "[{\"id\":1},{\"id\":2}]";
+    static final String FORM_MIME_TYPE = "application/x-www-form-urlencoded";
+    static final String JSON_MIME_TYPE = "application/json";
+
     SSLSocketFactory sslSocketFactory;
     DefaultClient client;
 
@@ -83,4 +106,106 @@ public class DefaultClientTest {
         final HttpsURLConnection connection = (HttpsURLConnection) httpsUrl.openConnection();
         client.openSslConnection(connection);
     }
+
+    @Test
+    public void testWrappedClient_shared() {
+        final Client httpClient = DefaultClient.createClient(sslSocketFactory);
+        final AuthenticatedClient authenticatedClient = new AuthenticatedClient(null, null,
+                sslSocketFactory, httpClient, null);
+        final AuthenticatedClient otherClient = new AuthenticatedClient(null, null,
+                sslSocketFactory, httpClient, null);
+        assertSame(httpClient, authenticatedClient.wrappedClient);
+        assertSame(httpClient, otherClient.wrappedClient);
+    }
+
+    @Test
+    public void testWrappedClient_notSharedByDefault() {
+        final DefaultClient otherClient = new DefaultClient(sslSocketFactory);
+        assertNotSame(client.wrappedClient, otherClient.wrappedClient);
+    }
+
+    @Test
+    public void testExecute_acceptsGzip() throws IOException {
+        final StandInClient standIn = newStandIn(false);
+        new DefaultClient(null, standIn).execute(new Request("GET", ANY_URL, null, null));
+
+        assertEquals(DefaultClient.GZIP, getHeader(standIn.getLastRequest().getHeaders(),
+                DefaultClient.ACCEPT_ENCODING_HEADER));
+    }
+
+    @Test
+    public void testExecute_keepsAcceptEncoding() throws IOException {
+        final StandInClient standIn = newStandIn(false);
+        final List<Header> headers = Collections.singletonList(
+                new Header(DefaultClient.ACCEPT_ENCODING_HEADER, "identity"));
+        new DefaultClient(null, standIn).execute(new Request("GET", ANY_URL, headers, null));
+
+        assertEquals(headers, standIn.getLastRequest().getHeaders());
+    }
+
+    @Test
+    public void testExecute_decompressesGzipResponse() throws IOException {
+        final Response response = new DefaultClient(null, newStandIn(true))
+                .execute(new Request("GET", ANY_URL, null, null));
+
+        assertEquals(ANY_BODY, readString(response.getBody().in()));
+        assertEquals(JSON_MIME_TYPE, response.getBody().mimeType());
+        assertNull(getHeader(response.getHeaders(), DefaultClient.CONTENT_ENCODING_HEADER));
+        assertNull(getHeader(response.getHeaders(), DefaultClient.CONTENT_LENGTH_HEADER));
+    }
+
+    @Test
+    public void testExecute_plainResponse() throws IOException {
+        final Response response = new DefaultClient(null, newStandIn(false))
+                .execute(new Request("GET", ANY_URL, null, null));
+
+        assertEquals(ANY_BODY, readString(response.getBody().in()));
+    }
+
+    @Test
+    public void testExecute_compressesGzipRequest() throws IOException {
+        final StandInClient standIn = newStandIn(false);
+        final List<Header> headers = Collections.singletonList(
+                new Header(DefaultClient.CONTENT_ENCODING_HEADER, DefaultClient.GZIP));
+        new DefaultClient(null, standIn).execute(new Request("POST", ANY_URL, headers,
+                new TypedByteArray(FORM_MIME_TYPE, ANY_BODY.getBytes("UTF-8"))));
+
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        standIn.getLastRequest().getBody().writeTo(sent);
+        assertEquals(sent.size(), standIn.getLastRequest().getBody().length());
+        assertEquals(FORM_MIME_TYPE, standIn.getLastRequest().getBody().mimeType());
+        assertEquals(ANY_BODY,
+                readString(new GZIPInputStream(new ByteArrayInputStream(sent.toByteArray()))));
+    }
+
+    @Test
+    public void testExecute_uncompressedRequest() throws IOException {
+        final StandInClient standIn = newStandIn(false);
+        final TypedByteArray body = new TypedByteArray(FORM_MIME_TYPE, ANY_BODY.getBytes("UTF-8"));
+        new DefaultClient(null, standIn).execute(new Request("POST", ANY_URL, null, body));
+
+        assertSame(body, standIn.getLastRequest().getBody());
+    }
+
+    /**
+     * @return a stand in for the server that responds with ANY_BODY
+     */
+    static StandInClient newStandIn(boolean gzip) throws IOException {
+        final List<Header> headers = new ArrayList<>();
+        byte[] body = ANY_BODY.getBytes("UTF-8");
+        if (gzip) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            final GZIPOutputStream out = new GZIPOutputStream(compressed);
+            out.write(body);
+            out.close();
+            body = compressed.toByteArray();
+            headers.add(new Header(DefaultClient.CONTENT_ENCODING_HEADER, DefaultClient.GZIP));
+        }
+        headers.add(new Header(DefaultClient.CONTENT_LENGTH_HEADER, String.valueOf(body.length)));
+
+        final StandInClient standIn = new StandInClient();
+        standIn.respond(new Response(ANY_URL, 200, "OK", headers,
+                new TypedByteArray(JSON_MIME_TYPE, body)));
+        return standIn;
+    }
 }
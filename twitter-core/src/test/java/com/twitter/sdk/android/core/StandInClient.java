@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+/**
+ * Stands in for the network, recording requests and answering with the next response.
+ */
+public class StandInClient implements Client {
+    public final List<Request> requests = new ArrayList<>();
+    private Response response;
+    private IOException failure;
+
+    public void respond(Response response) {
+        this.response = response;
+        failure = null;
+    }
+
+    public void fail(IOException failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * @return the most recently executed request or null if there has been none
+     */
+    public Request getLastRequest() {
+        return requests.isEmpty() ? null : requests.get(requests.size() - 1);
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        requests.add(request);
+        if (failure != null) {
+            throw failure;
+        }
+        return response;
+    }
+
+    /**
+     * @return the value of the first header with the name, ignoring case, or null if missing
+     */
+    public static String getHeader(List<Header> headers, String name) {
+        for (Header header : headers) {
+            if (name.equalsIgnoreCase(header.getName())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the stream to the end as UTF-8 and closes it.
+     */
+    public static String readString(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        in.close();
+        return out.toString("UTF-8");
+    }
+}
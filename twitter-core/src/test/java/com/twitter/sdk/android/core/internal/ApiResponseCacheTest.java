@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core.internal;
+
+import com.twitter.sdk.android.core.BuildConfig;
+import com.twitter.sdk.android.core.StandInClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.fabric.sdk.android.services.common.CurrentTimeProvider;
+import io.fabric.sdk.android.services.persistence.FileStore;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import static com.twitter.sdk.android.core.StandInClient.getHeader;
+import static com.twitter.sdk.android.core.StandInClient.readString;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, emulateSdk = 21)
+public class ApiResponseCacheTest {
+    private static final long TEST_MAX_BYTES = 4L * 1024L;
+    private static final long TEST_MAX_STALE_MILLIS = 60L * 1000L;
+    private static final long TEST_USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+    private static final String TIMELINE_URL
+            = "https://api.twitter.com/1.1/statuses/home_timeline.json?count=20";
+    private static final String TIMELINE_JSON = "[{\"id\":1}]";
+    private static final String ETAG = "\"abc\"";
+
+    private File cacheDir;
+    private CurrentTimeProvider mockTimeProvider;
+    private long now;
+    private ApiResponseCache responseCache;
+    private StandInClient network;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = new File(RuntimeEnvironment.application.getCacheDir(), "response_cache_test");
+        cacheDir.mkdirs();
+        final FileStore mockFileStore = mock(FileStore.class);
+        when(mockFileStore.getCacheDir()).thenReturn(cacheDir);
+        now = System.currentTimeMillis();
+        mockTimeProvider = mock(CurrentTimeProvider.class);
+        when(mockTimeProvider.getCurrentTimeMillis()).thenReturn(now);
+        responseCache = new ApiResponseCache(mockFileStore, mockTimeProvider, TEST_MAX_BYTES,
+                TEST_MAX_STALE_MILLIS);
+        network = new StandInClient();
+    }
+
+    @After
+    public void tearDown() {
+        responseCache.clear();
+    }
+
+    @Test
+    public void testIsCacheable() {
+        assertTrue(ApiResponseCache.isCacheable(newGet(TIMELINE_URL)));
+        assertTrue(ApiResponseCache.isCacheable(
+                newGet("https://api.twitter.com/1.1/search/tweets.json?q=twitter")));
+        assertFalse(ApiResponseCache.isCacheable(
+                newGet("https://api.twitter.com/1.1/account/verify_credentials.json")));
+        assertFalse(ApiResponseCache.isCacheable(new Request("POST",
+                "https://api.twitter.com/1.1/statuses/update.json", null, null)));
+    }
+
+    @Test
+    public void testGetKey() {
+        assertEquals(ApiResponseCache.getKey(TEST_USER_ID, TIMELINE_URL),
+                ApiResponseCache.getKey(TEST_USER_ID, TIMELINE_URL));
+        assertFalse(ApiResponseCache.getKey(TEST_USER_ID, TIMELINE_URL)
+                .equals(ApiResponseCache.getKey(OTHER_USER_ID, TIMELINE_URL)));
+    }
+
+    @Test
+    public void testExecute_freshResponseFromCache() throws IOException {
+        network.respond(newResponse(200, new Header("Cache-Control", "max-age=60")));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+        advanceTime(30L * 1000L);
+
+        final Response response = responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID,
+                network);
+        assertEquals(200, response.getStatus());
+        assertEquals(TIMELINE_JSON, readString(response.getBody().in()));
+        assertEquals(1, network.requests.size());
+    }
+
+    @Test
+    public void testExecute_revalidatesWithETag() throws IOException {
+        network.respond(newResponse(200, new Header("ETag", ETAG)));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+
+        network.respond(new Response(TIMELINE_URL, 304, "Not Modified",
+                Collections.<Header>emptyList(), null));
+        final Response response = responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID,
+                network);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(TIMELINE_JSON, readString(response.getBody().in()));
+        assertEquals(ETAG, getHeader(network.requests.get(1).getHeaders(), "If-None-Match"));
+    }
+
+    @Test
+    public void testExecute_staleResponseWhenOffline() throws IOException {
+        network.respond(newResponse(200));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+        advanceTime(TEST_MAX_STALE_MILLIS / 2);
+
+        network.fail(new IOException());
+        final Response response = responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID,
+                network);
+        assertEquals(TIMELINE_JSON, readString(response.getBody().in()));
+        assertEquals(ApiResponseCache.WARNING_STALE,
+                getHeader(response.getHeaders(), ApiResponseCache.HEADER_WARNING));
+    }
+
+    @Test
+    public void testExecute_staleResponseOnServerError() throws IOException {
+        network.respond(newResponse(200));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+
+        network.respond(new Response(TIMELINE_URL, 503, "Service Unavailable",
+                Collections.<Header>emptyList(), null));
+        final Response response = responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID,
+                network);
+        assertEquals(200, response.getStatus());
+        assertEquals(TIMELINE_JSON, readString(response.getBody().in()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testExecute_beyondMaxStale() throws IOException {
+        network.respond(newResponse(200));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+        advanceTime(TEST_MAX_STALE_MILLIS * 2);
+
+        network.fail(new IOException());
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+    }
+
+    @Test(expected = IOException.class)
+    public void testExecute_notSharedBetweenUsers() throws IOException {
+        network.respond(newResponse(200));
+        responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network);
+
+        network.fail(new IOException());
+        responseCache.execute(newGet(TIMELINE_URL), OTHER_USER_ID, network);
+    }
+
+    @Test
+    public void testExecute_errorNotCached() throws IOException {
+        final Response notFound = new Response(TIMELINE_URL, 404, "Not Found",
+                Collections.<Header>emptyList(), null);
+        network.respond(notFound);
+        assertSame(notFound, responseCache.execute(newGet(TIMELINE_URL), TEST_USER_ID, network));
+        assertNull(responseCache.get(ApiResponseCache.getKey(TEST_USER_ID, TIMELINE_URL)));
+    }
+
+    @Test
+    public void testExecute_notCacheable() throws IOException {
+        final Request request = new Request("POST",
+                "https://api.twitter.com/1.1/statuses/update.json", null, null);
+        final Response response = newResponse(200);
+        network.respond(response);
+
+        assertSame(response, responseCache.execute(request, TEST_USER_ID, network));
+        assertSame(request, network.requests.get(0));
+    }
+
+    @Test
+    public void testPut_trimsToSize() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            network.respond(new Response(TIMELINE_URL, 200, "OK", Collections.<Header>emptyList(),
+                    new TypedByteArray("application/json", new byte[1024])));
+            responseCache.execute(newGet(TIMELINE_URL + "&page=" + i), TEST_USER_ID, network);
+        }
+
+        long bytes = 0L;
+        for (File file : responseCache.getCacheDir().listFiles()) {
+            bytes += file.length();
+        }
+        assertTrue(bytes <= TEST_MAX_BYTES * ApiResponseCache.TRIM_PERCENT / 100);
+    }
+
+    @Test
+    public void testGet_invalidLengthDeletesEntry() throws IOException {
+        final String key = ApiResponseCache.getKey(TEST_USER_ID, TIMELINE_URL);
+        final File file = new File(responseCache.getCacheDir(), key);
+        final DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        out.writeInt(ApiResponseCache.ENTRY_VERSION);
+        out.writeUTF(TIMELINE_URL);
+        out.writeUTF("OK");
+        out.writeUTF("application/json");
+        out.writeLong(now);
+        out.writeInt(0);
+        out.writeInt(Integer.MAX_VALUE);
+        out.close();
+
+        assertNull(responseCache.get(key));
+        assertFalse(file.exists());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMaxStaleMillis_negative() {
+        responseCache.setMaxStaleMillis(-1L);
+    }
+
+    private void advanceTime(long millis) {
+        now += millis;
+        when(mockTimeProvider.getCurrentTimeMillis()).thenReturn(now);
+    }
+
+    private static Request newGet(String url) {
+        return new Request("GET", url, null, null);
+    }
+
+    private static Response newResponse(int status, Header... headers) throws IOException {
+        return new Response(TIMELINE_URL, status, "OK", Arrays.asList(headers),
+                new TypedByteArray("application/json", TIMELINE_JSON.getBytes("UTF-8")));
+    }
+}
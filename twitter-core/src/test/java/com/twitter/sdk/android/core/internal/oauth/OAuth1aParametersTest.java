@@ -18,6 +18,7 @@
 package com.twitter.sdk.android.core.internal.oauth;
 
 import io.fabric.sdk.android.services.network.HttpMethod;
+import io.fabric.sdk.android.services.network.UrlUtils;
 
 import com.twitter.sdk.android.core.BuildConfig;
 import com.twitter.sdk.android.core.TwitterAuthConfig;
@@ -32,6 +33,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, emulateSdk = 21)
@@ -154,4 +157,52 @@ public class OAuth1aParametersTest  {
             assertEquals(testParameters.expectedAuthHeader, authHeader);
         }
     }
+
+    @Test
+    public void testCalculateSignature_repeated() {
+        for (TestParameters testParameters : TEST_PARAMETERS) {
+            final OAuth1aParameters oAuth1aParameters = toOAuth1aParameters(testParameters);
+            oAuth1aParameters.calculateSignature(testParameters.expectedSignatureBase);
+            final String signature
+                    = oAuth1aParameters.calculateSignature(testParameters.expectedSignatureBase);
+            assertEquals(testParameters.expectedSignature, signature);
+        }
+    }
+
+    @Test
+    public void testPercentEncode() {
+        final String[] values = {"", "abcXYZ019", "-._~", " *+%&=", "Hello Ladies + Gentlemen!",
+                "\u00e9\u4e2d", "\ud83d\ude00"};
+        for (String value : values) {
+            final StringBuilder once = new StringBuilder();
+            OAuth1aParameters.percentEncode(once, value, false);
+            assertEquals(UrlUtils.percentEncode(value), once.toString());
+
+            final StringBuilder twice = new StringBuilder();
+            OAuth1aParameters.percentEncode(twice, value, true);
+            assertEquals(UrlUtils.percentEncode(UrlUtils.percentEncode(value)), twice.toString());
+        }
+    }
+
+    @Test
+    public void testGetBaseUrl() {
+        assertEquals("https://api.twitter.com/1.1/statuses/update.json",
+                OAuth1aParameters.getBaseUrl("https://api.twitter.com/1.1/statuses/update.json"));
+        assertEquals("https://api.twitter.com/oauth/request_token",
+                OAuth1aParameters.getBaseUrl("https://api.twitter.com:443/oauth/request_token"));
+        assertEquals("http://example.com/a b",
+                OAuth1aParameters.getBaseUrl("http://user@example.com/a%20b"));
+    }
+
+    @Test
+    public void testSignerForCredentials_cached() throws Exception {
+        final TwitterAuthConfig authConfig = new TwitterAuthConfig("key", "consumer");
+        final TwitterAuthToken authToken = new TwitterAuthToken("token", "secret");
+        final OAuth1aSigner signer = OAuth1aSigner.forCredentials(authConfig, authToken);
+        assertSame(signer, OAuth1aSigner.forCredentials(authConfig, authToken));
+        assertNotSame(signer, OAuth1aSigner.forCredentials(authConfig,
+                new TwitterAuthToken("token", "other")));
+        assertNotSame(signer, OAuth1aSigner.forCredentials(
+                new TwitterAuthConfig("key", "other"), authToken));
+    }
 }
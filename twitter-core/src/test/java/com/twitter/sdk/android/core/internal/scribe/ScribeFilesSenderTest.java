@@ -81,6 +81,8 @@ public class ScribeFilesSenderTest {
     private static final String ANY_DEVICE_ID = "id";
     private static final String TWITTER_POLLING_HEADER = "X-Twitter-Polling";
     private static final String REQUIRED_TWITTER_POLLING_HEADER_VALUE = "true";
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    private static final String GZIP = "gzip";
 
     private List<SessionManager<? extends Session>> sessionManagers;
     private SessionManager<Session> mockSessionMgr;
@@ -326,4 +328,31 @@ public class ScribeFilesSenderTest {
         interceptor.intercept(facade);
         verify(facade, times(1)).addHeader(DEVICE_ID_HEADER, ANY_DEVICE_ID);
     }
+
+    @Test
+    public void testConfigRequestInterceptor_compressRequests() {
+        final ScribeConfig config = new ScribeConfig(true, ScribeConfig.BASE_URL,
+                ANY_SCRIBE_PATH_VERSION, ANY_SCRIBE_PATH_TYPE, null, ANY_USER_AGENT,
+                ScribeConfig.DEFAULT_MAX_FILES_TO_KEEP, ScribeConfig.DEFAULT_SEND_INTERVAL_SECONDS,
+                true);
+        final RequestInterceptor.RequestFacade facade
+                = mock(RequestInterceptor.RequestFacade.class);
+        final RequestInterceptor interceptor
+                = new ScribeFilesSender.ConfigRequestInterceptor(config, mockIdManager);
+        interceptor.intercept(facade);
+        verify(facade, times(1)).addHeader(CONTENT_ENCODING_HEADER, GZIP);
+    }
+
+    @Test
+    public void testConfigRequestInterceptor_uncompressedRequests() {
+        final ScribeConfig config = new ScribeConfig(true, ScribeConfig.BASE_URL,
+                ANY_SCRIBE_PATH_VERSION, ANY_SCRIBE_PATH_TYPE, null, ANY_USER_AGENT,
+                ScribeConfig.DEFAULT_MAX_FILES_TO_KEEP, ScribeConfig.DEFAULT_SEND_INTERVAL_SECONDS);
+        final RequestInterceptor.RequestFacade facade
+                = mock(RequestInterceptor.RequestFacade.class);
+        final RequestInterceptor interceptor
+                = new ScribeFilesSender.ConfigRequestInterceptor(config, mockIdManager);
+        interceptor.intercept(facade);
+        verify(facade, times(0)).addHeader(eq(CONTENT_ENCODING_HEADER), anyString());
+    }
 }